@@ -0,0 +1,66 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.Product;
+import com.inventory.model.Supplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Детерминированный каталог: товар с данным номером одинаков при любом размере выборки и на любой машине
+public final class CatalogDataGenerator {
+    public static final long SEED = 20_240_601L;
+
+    private static final String[] CATEGORIES = {
+            "Электроника", "Инструменты", "Сантехника", "Электрика", "Крепёж",
+            "Освещение", "Хозтовары", "Садовый инвентарь", "Лакокрасочные материалы", "Спецодежда"
+    };
+    private static final String[] ADJECTIVES = {
+            "Стальной", "Медный", "Усиленный", "Компактный", "Профессиональный",
+            "Влагостойкий", "Универсальный", "Бытовой", "Промышленный", "Складной"
+    };
+    private static final String[] NOUNS = {
+            "кабель", "кронштейн", "выключатель", "смеситель", "шуруповёрт", "светильник",
+            "удлинитель", "молоток", "герметик", "перфоратор", "фильтр", "держатель"
+    };
+    private static final String[] SUPPLIERS = {"Альфа-Снаб", "ТехноОпт", "СтройРесурс", "Вектор", "Промсклад"};
+
+    private CatalogDataGenerator() {
+    }
+
+    public static List<String> supplierNames() {
+        return List.of(SUPPLIERS);
+    }
+
+    public static String sku(int index) {
+        return String.format("GEN-%07d", index);
+    }
+
+    public static List<Product> products(int from, int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    public static Product product(int index) {
+        SplittableRandom random = new SplittableRandom(SEED ^ (index * 0x9E3779B97F4A7C15L));
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        double purchasePrice = Math.round(random.nextDouble(10, 5_000) * 100) / 100.0;
+        return Product.builder()
+                .sku(sku(index))
+                .name(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + noun + " " + (char) ('A' + random.nextInt(26))
+                        + "-" + random.nextInt(100, 1_000))
+                .description("Артикул производителя " + Long.toHexString(random.nextLong()).toUpperCase() + ", " + noun)
+                .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .purchasePrice(purchasePrice)
+                .sellingPrice(Math.round(purchasePrice * random.nextDouble(1.2, 1.8) * 100) / 100.0)
+                .quantity(random.nextInt(0, 500))
+                .minStockLevel(random.nextInt(5, 40))
+                .maxStockLevel(random.nextInt(500, 1_000))
+                .supplier(Supplier.builder().name(SUPPLIERS[random.nextInt(SUPPLIERS.length)]).build())
+                .location(String.format("%c-%02d-%02d", 'A' + random.nextInt(6), random.nextInt(1, 30), random.nextInt(1, 10)))
+                .build();
+    }
+}
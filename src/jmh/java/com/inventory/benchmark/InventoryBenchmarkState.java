@@ -0,0 +1,31 @@
+package com.inventory.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Общее состояние: одно приложение на прогон с заданным размером каталога
+@State(Scope.Benchmark)
+public abstract class InventoryBenchmarkState {
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    protected InventoryFixture fixture;
+
+    @Setup(Level.Trial)
+    public void startFixture() throws Exception {
+        fixture = InventoryFixture.start(products);
+        prepare();
+    }
+
+    protected void prepare() throws Exception {
+    }
+
+    @TearDown(Level.Trial)
+    public void stopFixture() {
+        fixture.close();
+    }
+}
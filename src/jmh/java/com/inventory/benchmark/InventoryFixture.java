@@ -0,0 +1,76 @@
+package com.inventory.benchmark;
+
+import com.inventory.InvManSysApplication;
+import com.inventory.model.Product;
+import com.inventory.model.Supplier;
+import com.inventory.repository.ProductBatchRepository;
+import com.inventory.service.InventoryAggregateStore;
+import com.inventory.service.SupplierService;
+import com.inventory.service.search.ProductSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Приложение в процессе бенчмарка на встроенной H2, наполненное CatalogDataGenerator
+public final class InventoryFixture implements AutoCloseable {
+    private static final int SEED_CHUNK = 5_000;
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final ConfigurableApplicationContext context;
+
+    private InventoryFixture(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static InventoryFixture start(int products) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InvManSysApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.thymeleaf.cache=true",
+                        "inventory.aggregates.reconcile-interval=PT1H",
+                        "logging.level.root=WARN")
+                .run();
+        InventoryFixture fixture = new InventoryFixture(context);
+        fixture.seed(products);
+        return fixture;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    // Данные пишутся мимо событий, поэтому индекс и агрегаты перестраиваются так же, как при старте
+    private void seed(int products) {
+        ProductBatchRepository batchRepository = bean(ProductBatchRepository.class);
+        TransactionTemplate transactionTemplate = bean(TransactionTemplate.class);
+        // Пакетная запись ссылается на поставщиков по id, поэтому они заводятся заранее
+        Map<String, Supplier> suppliers = transactionTemplate.execute(status ->
+                bean(SupplierService.class).resolveAll(CatalogDataGenerator.supplierNames()));
+        for (int from = 0; from < products; from += SEED_CHUNK) {
+            int count = Math.min(SEED_CHUNK, products - from);
+            int start = from;
+            List<Product> chunk = CatalogDataGenerator.products(start, count);
+            chunk.forEach(product -> product.setSupplier(suppliers.get(product.getSupplier().getName())));
+            transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(chunk, LocalDateTime.now()));
+        }
+        bean(ProductSearchIndex.class).rebuild();
+        bean(InventoryAggregateStore.class).rebuild();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
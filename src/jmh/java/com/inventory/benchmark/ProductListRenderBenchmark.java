@@ -0,0 +1,68 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.ProductCursor;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
+import com.inventory.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Страница products/list целиком: keyset-запрос, модель и рендеринг Thymeleaf, без сетевого стека
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductListRenderBenchmark extends InventoryBenchmarkState {
+    @Param({"id", "name"})
+    public String sort;
+
+    private MockMvc mockMvc;
+    private String lastPageCursor;
+
+    @Override
+    protected void prepare() {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) fixture.getContext()).build();
+        // Курсор на последнюю страницу: при keyset-пагинации она не должна быть дороже первой
+        ProductSortField sortField = ProductSortField.fromParam(sort);
+        List<ProductSummary> tail = fixture.bean(ProductRepository.class).findSummaries(
+                ProductPageRequest.builder().sort(sortField).direction(Sort.Direction.DESC).build(), null, 51);
+        ProductSummary beforeLastPage = tail.get(tail.size() - 1);
+        lastPageCursor = ProductCursor.after(sortField, Sort.Direction.ASC, beforeLastPage).encode();
+    }
+
+    @Benchmark
+    public String renderFirstPage() throws Exception {
+        return render(null);
+    }
+
+    @Benchmark
+    public String renderLastPage() throws Exception {
+        return render(lastPageCursor);
+    }
+
+    private String render(String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = get("/products").param("sort", sort).param("size", "50");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+    }
+}
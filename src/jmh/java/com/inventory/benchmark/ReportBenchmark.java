@@ -0,0 +1,32 @@
+package com.inventory.benchmark;
+
+import com.inventory.service.InventoryReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportBenchmark extends InventoryBenchmarkState {
+    private InventoryReportService reportService;
+
+    @Override
+    protected void prepare() {
+        reportService = fixture.bean(InventoryReportService.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> generateInventoryReport() {
+        return reportService.generateInventoryReport();
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductSummary;
+import com.inventory.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark extends InventoryBenchmarkState {
+    // Частое слово, префикс SKU и запрос из двух слов с опечаткой-сокращением
+    @Param({"кабель", "GEN-00012", "стальн кронш"})
+    public String keyword;
+
+    private ProductService productService;
+
+    @Override
+    protected void prepare() {
+        productService = fixture.bean(ProductService.class);
+    }
+
+    @Benchmark
+    public CursorPage<ProductSummary> searchProducts() {
+        return productService.searchProducts(keyword, null, 50);
+    }
+}
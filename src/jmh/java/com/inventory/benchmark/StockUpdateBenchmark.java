@@ -0,0 +1,57 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Движения остатков из 8 потоков по небольшому «горячему» набору товаров
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StockUpdateBenchmark extends InventoryBenchmarkState {
+    // 1 - все потоки бьют в одну строку, 64 - конкуренция размазана
+    @Param({"1", "64"})
+    public int hotProducts;
+
+    private ProductService productService;
+    private long[] hotIds;
+
+    @Override
+    protected void prepare() {
+        productService = fixture.bean(ProductService.class);
+        hotIds = new long[hotProducts];
+        for (int i = 0; i < hotProducts; i++) {
+            hotIds[i] = productService.getProductBySku(CatalogDataGenerator.sku(i)).getId();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Movement {
+        int sequence;
+    }
+
+    // Приход и расход чередуются по одному товару, поэтому остаток потока никогда не уходит в минус
+    @Benchmark
+    public ProductSummary updateStock(Movement movement) {
+        int step = movement.sequence++;
+        long productId = hotIds[(step / 2) % hotIds.length];
+        return step % 2 == 0
+                ? productService.updateStock(productId, 1, "IN")
+                : productService.updateStock(productId, 1, "OUT");
+    }
+}
@@ -2,12 +2,19 @@ package com.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InvManSysApplication {
+    // Шаги запуска для /actuator/startup и разбивки по фазам в /actuator/info
+    static final int STARTUP_STEPS_CAPACITY = 8192;
 
     public static void main(String[] args) {
-        SpringApplication.run(InvManSysApplication.class, args);
+        SpringApplication application = new SpringApplication(InvManSysApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+        application.run(args);
     }
 
 }
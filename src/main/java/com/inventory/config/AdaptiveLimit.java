@@ -0,0 +1,44 @@
+package com.inventory.config;
+
+import java.time.Duration;
+
+// Лимит одновременных запросов по задержке (AIMD): пока ответы укладываются в цель и лимит выбран
+// хотя бы наполовину, он растёт на 1/limit за ответ (примерно +1 за "окно"); медленный ответ
+// уменьшает его на 10%, но не чаще раза за целевую задержку - иначе одна пачка медленных ответов
+// обрушила бы лимит до минимума. Не потокобезопасен: вызывается под замком AdmissionGate
+final class AdaptiveLimit {
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private double limit;
+    private long lastDecreaseNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Admission limit bounds must satisfy 1 <= min <= max: "
+                    + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - latencyTargetNanos;
+    }
+
+    int current() {
+        return (int) limit;
+    }
+
+    void onSample(long latencyNanos, int inFlight, long nowNanos) {
+        if (latencyNanos > latencyTargetNanos) {
+            if (nowNanos - lastDecreaseNanos >= latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Контроль допуска и сброс нагрузки (inventory.admission.*). Общий бюджет меньше пула потоков Tomcat,
+// чтобы отказ успевал уйти быстро, даже когда все допущенные запросы заняты
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "inventory.admission.enabled", havingValue = "true")
+public class AdmissionConfig implements WebMvcConfigurer {
+    private static final String PREFIX = "inventory.admission.";
+
+    private final Environment environment;
+
+    public AdmissionConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    AdmissionGate admissionGate() {
+        return gate(environment);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        Duration retryAfter = environment.getProperty(PREFIX + "retry-after", Duration.class, Duration.ofSeconds(2));
+        // Первым: отклонённый запрос не должен запускать остальные перехватчики
+        registry.addInterceptor(new AdmissionInterceptor(admissionGate(), retryAfter))
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    static AdmissionGate gate(Environment environment) {
+        int totalLimit = environment.getProperty(PREFIX + "total-limit", Integer.class, 150);
+        int reserved = environment.getProperty(PREFIX + "reserved-for-stock-writes", Integer.class, 30);
+        Map<WorkloadClass, AdmissionGate.Settings> settings = new EnumMap<>(WorkloadClass.class);
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            String prefix = PREFIX + workload.getKey() + ".";
+            AdmissionGate.Settings defaults = AdmissionGate.Settings.defaults(workload);
+            settings.put(workload, new AdmissionGate.Settings(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, defaults.getInitialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, defaults.getMinLimit()),
+                    environment.getProperty(prefix + "max-limit", Integer.class, defaults.getMaxLimit()),
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, defaults.getQueueCapacity()),
+                    environment.getProperty(prefix + "max-wait", Duration.class, defaults.getMaxWait()),
+                    environment.getProperty(prefix + "latency-target", Duration.class, defaults.getLatencyTarget())));
+        }
+        log.info("Admission control enabled: total limit {}, {} reserved for stock writes, {}",
+                totalLimit, reserved, settings);
+        return new AdmissionGate(totalLimit, reserved, settings);
+    }
+}
@@ -0,0 +1,230 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Value;
+import lombok.With;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Контроль допуска перед обработчиками: у каждого класса нагрузки свой адаптивный лимит и короткая
+// ограниченная очередь, сверху - общий бюджет, часть которого держится только для движений остатков.
+// Кто не попал за maxWait или не поместился в очередь - сразу получает отказ (503), а не копится
+// в потоках Tomcat и пуле соединений. Все решения - под одним замком: операции на нём короткие
+public class AdmissionGate implements MeterBinder {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<WorkloadClass, Lane> lanes = new EnumMap<>(WorkloadClass.class);
+    private final int totalLimit;
+    private final int reservedForStockWrites;
+    private volatile int inFlight;
+
+    public AdmissionGate(int totalLimit, int reservedForStockWrites, Map<WorkloadClass, Settings> settings) {
+        if (reservedForStockWrites < 0 || reservedForStockWrites >= totalLimit) {
+            throw new IllegalArgumentException("Stock write reserve must be below the total admission limit: "
+                    + reservedForStockWrites + " of " + totalLimit);
+        }
+        this.totalLimit = totalLimit;
+        this.reservedForStockWrites = reservedForStockWrites;
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            lanes.put(workload, new Lane(workload, settings.getOrDefault(workload, Settings.defaults(workload)),
+                    lock.newCondition()));
+        }
+    }
+
+    // null - запрос отклонён; при прерывании ожидания тоже отказ, флаг прерывания сохраняется
+    public Permit tryAcquire(WorkloadClass workload) {
+        Lane lane = lanes.get(workload);
+        lock.lock();
+        try {
+            if (admissible(lane, false)) {
+                return admit(lane);
+            }
+            if (lane.waiting >= lane.queueCapacity || lane.maxWaitNanos <= 0) {
+                return shed(lane);
+            }
+            lane.waiting++;
+            try {
+                long remaining = lane.maxWaitNanos;
+                while (!admissible(lane, true)) {
+                    if (remaining <= 0) {
+                        return shed(lane);
+                    }
+                    remaining = lane.available.awaitNanos(remaining);
+                }
+                return admit(lane);
+            } finally {
+                lane.waiting--;
+                // Ушедший из очереди мог держать младшие классы (см. admissible)
+                signalWaiters();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return shed(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Permit permit) {
+        long now = System.nanoTime();
+        Lane lane = permit.lane;
+        lock.lock();
+        try {
+            lane.limit.onSample(now - permit.startedNanos, lane.inFlight, now);
+            lane.inFlight--;
+            inFlight--;
+            signalWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit(WorkloadClass workload) {
+        lock.lock();
+        try {
+            return lanes.get(workload).limit.current();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight(WorkloadClass workload) {
+        return lanes.get(workload).inFlight;
+    }
+
+    public int getQueued(WorkloadClass workload) {
+        return lanes.get(workload).waiting;
+    }
+
+    public long getShed(WorkloadClass workload) {
+        return lanes.get(workload).shed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.admission.inflight.total", this, gate -> gate.inFlight)
+                .register(registry);
+        for (Lane lane : lanes.values()) {
+            String key = lane.workload.getKey();
+            Gauge.builder("inventory.admission.limit", this, gate -> gate.getLimit(lane.workload))
+                    .tag("class", key)
+                    .register(registry);
+            Gauge.builder("inventory.admission.inflight", lane, l -> l.inFlight)
+                    .tag("class", key)
+                    .register(registry);
+            Gauge.builder("inventory.admission.queued", lane, l -> l.waiting)
+                    .tag("class", key)
+                    .register(registry);
+            FunctionCounter.builder("inventory.admission.requests", lane.admitted, LongAdder::sum)
+                    .tag("class", key)
+                    .tag("outcome", "admitted")
+                    .register(registry);
+            FunctionCounter.builder("inventory.admission.requests", lane.shed, LongAdder::sum)
+                    .tag("class", key)
+                    .tag("outcome", "shed")
+                    .register(registry);
+        }
+    }
+
+    // Свой лимит класса и общий бюджет; младшие классы не обгоняют старший, который ждёт именно общего
+    // бюджета, а новый запрос не обгоняет очередь своего класса
+    private boolean admissible(Lane lane, boolean queued) {
+        if (lane.inFlight >= lane.limit.current()) {
+            return false;
+        }
+        int ceiling = lane.workload.usesReserve() ? totalLimit : totalLimit - reservedForStockWrites;
+        if (inFlight >= ceiling) {
+            return false;
+        }
+        for (Lane other : lanes.values()) {
+            if (other == lane) {
+                return queued || lane.waiting == 0;
+            }
+            if (other.waiting > 0 && other.inFlight < other.limit.current()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Permit admit(Lane lane) {
+        lane.inFlight++;
+        inFlight++;
+        lane.admitted.increment();
+        return new Permit(lane, System.nanoTime());
+    }
+
+    private Permit shed(Lane lane) {
+        lane.shed.increment();
+        return null;
+    }
+
+    // Очередей мало и они короткие: проще разбудить всех ожидающих, каждый перепроверит своё условие
+    private void signalWaiters() {
+        for (Lane lane : lanes.values()) {
+            if (lane.waiting > 0) {
+                lane.available.signalAll();
+            }
+        }
+    }
+
+    @Value
+    @With
+    public static class Settings {
+        int initialLimit;
+        int minLimit;
+        int maxLimit;
+        int queueCapacity;
+        Duration maxWait;
+        Duration latencyTarget;
+
+        public static Settings defaults(WorkloadClass workload) {
+            return new Settings(workload.getInitialLimit(), workload.getMinLimit(), workload.getMaxLimit(),
+                    workload.getQueueCapacity(), workload.getMaxWait(), workload.getLatencyTarget());
+        }
+    }
+
+    public static final class Permit {
+        private final Lane lane;
+        private final long startedNanos;
+
+        private Permit(Lane lane, long startedNanos) {
+            this.lane = lane;
+            this.startedNanos = startedNanos;
+        }
+
+        public WorkloadClass getWorkload() {
+            return lane.workload;
+        }
+    }
+
+    private static final class Lane {
+        final WorkloadClass workload;
+        final AdaptiveLimit limit;
+        final int queueCapacity;
+        final long maxWaitNanos;
+        final Condition available;
+        final LongAdder admitted = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        // Меняются под замком, volatile - для чтения метриками без него
+        volatile int inFlight;
+        volatile int waiting;
+
+        Lane(WorkloadClass workload, Settings settings, Condition available) {
+            this.workload = workload;
+            this.limit = new AdaptiveLimit(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit(),
+                    settings.getLatencyTarget());
+            this.queueCapacity = settings.getQueueCapacity();
+            this.maxWaitNanos = TimeUnit.NANOSECONDS.convert(settings.getMaxWait());
+            this.available = available;
+        }
+    }
+}
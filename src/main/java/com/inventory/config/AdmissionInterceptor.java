@@ -0,0 +1,82 @@
+package com.inventory.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Допуск запроса по классу нагрузки обработчика (@Workload). Отказ - сразу 503 с Retry-After,
+// без страницы ошибки: под перегрузкой ответ на отказ должен стоить как можно меньше.
+// Место освобождается после рендеринга (afterCompletion), его время входит в измеряемую задержку
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionGate gate;
+    private final String retryAfterSeconds;
+    private final Map<Method, Optional<WorkloadClass>> workloads = new ConcurrentHashMap<>();
+
+    public AdmissionInterceptor(AdmissionGate gate, Duration retryAfter) {
+        this.gate = gate;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod method) || request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+        Optional<WorkloadClass> workload = workloads.computeIfAbsent(method.getMethod(), key -> workloadOf(method));
+        if (workload.isEmpty()) {
+            return true;
+        }
+        AdmissionGate.Permit permit = gate.tryAcquire(workload.get());
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Server is overloaded, retry after " + retryAfterSeconds + " s");
+            return false;
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    // Асинхронный обработчик отпускает поток запроса: место ему больше не нужно
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) instanceof AdmissionGate.Permit permit) {
+            request.removeAttribute(PERMIT);
+            gate.release(permit);
+        }
+    }
+
+    private static Optional<WorkloadClass> workloadOf(HandlerMethod method) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), Workload.class);
+        }
+        return Optional.ofNullable(workload).map(Workload::value);
+    }
+}
@@ -0,0 +1,41 @@
+package com.inventory.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Метрики горячих путей: таймеры сервисов (@Timed), SQL на запрос и рендеринг шаблонов.
+// Запросы репозиториев (spring.data.repository.invocations), статистику Hibernate и пул
+// соединений (hikaricp.*) Spring Boot регистрирует сам
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+    private final long statementsWarnThreshold;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${inventory.metrics.statements-warn-threshold:50}") long statementsWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementsWarnThreshold = statementsWarnThreshold;
+    }
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry, statementsWarnThreshold));
+    }
+}
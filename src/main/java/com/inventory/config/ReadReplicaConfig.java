@@ -0,0 +1,105 @@
+package com.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Чтение с реплик (профиль read-replicas): транзакции readOnly уходят на реплики по кругу, остальное -
+// на основную БД из spring.datasource. Реплики задаются списком inventory.datasource.routing.replicas[N]
+// с url/username/password и необязательными настройками пула в .hikari
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = ReadReplicaConfig.ROUTING_ENABLED, havingValue = "true")
+public class ReadReplicaConfig {
+    static final String ROUTING_ENABLED = "inventory.datasource.routing.enabled";
+    static final String REPLICAS = "inventory.datasource.routing.replicas";
+
+    @Bean
+    ReadWriteRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        // С OSIV соединение первой транзакции держится до конца запроса - запись могла бы уйти на реплику
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Read replica routing requires spring.jpa.open-in-view=false");
+        }
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<DataSourceProperties> replicaProperties = binder
+                .bind(REPLICAS, Bindable.listOf(DataSourceProperties.class))
+                .orElseThrow(() -> new IllegalStateException("No read replicas configured in " + REPLICAS));
+        List<DataSource> replicas = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<AutoCloseable> pools = new ArrayList<>(List.of(primary));
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = replicaProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            // Недоступная реплика не должна держать запрос 30 секунд и не должна мешать старту
+            replica.setConnectionTimeout(2_000);
+            replica.setInitializationFailTimeout(-1);
+            binder.bind(REPLICAS + "[" + i + "].hikari", Bindable.ofInstance(replica));
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+            names.add(replica.getPoolName());
+            pools.add(replica);
+        }
+
+        DataSource writeTarget = environment.getProperty(ThreadingConfig.PERMITS_ENABLED, Boolean.class, false)
+                ? ThreadingConfig.withPermits(primary, environment)
+                : primary;
+        // Чтения, ушедшие на основную базу из-за недоступных реплик, тоже идут через разрешения
+        ReplicaDataSource replicaRouter = new ReplicaDataSource(writeTarget, replicas, names);
+        replicaRouter.startHealthChecks(environment.getProperty("inventory.datasource.routing.health-check-interval",
+                Duration.class, Duration.ofSeconds(5)));
+        log.info("Read/write routing enabled: {} read replica(s)", replicas.size());
+        return new ReadWriteRoutingDataSource(writeTarget, replicaRouter, pools);
+    }
+
+    @Bean
+    WebMvcConfigurer readYourWritesConfigurer(Environment environment) {
+        Duration window = environment.getProperty("inventory.datasource.routing.read-your-writes",
+                Duration.class, Duration.ofSeconds(5));
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(window));
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder replicaMetrics(ReadWriteRoutingDataSource dataSource) {
+        ReplicaDataSource replicas = dataSource.getReplicas();
+        return registry -> {
+            Gauge.builder("inventory.db.replicas.healthy", replicas, ReplicaDataSource::getHealthyCount)
+                    .description("Read replicas currently accepting reads")
+                    .register(registry);
+            FunctionCounter.builder("inventory.db.replicas.fallbacks", replicas, ReplicaDataSource::getFallbackCount)
+                    .description("Read-only connections served by the primary because no replica was available")
+                    .register(registry);
+        };
+    }
+}
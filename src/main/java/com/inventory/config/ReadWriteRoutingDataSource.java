@@ -0,0 +1,51 @@
+package com.inventory.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// Выбор БД откладывается до первого SQL: к этому моменту транзакция уже помечена readOnly,
+// и соединение берётся у реплик, иначе у основной БД. Пишущие транзакции отмечаются для чтения своих записей
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private final ReplicaDataSource replicas;
+    private final List<AutoCloseable> pools;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaDataSource replicas, List<AutoCloseable> pools) {
+        this.replicas = replicas;
+        this.pools = List.copyOf(pools);
+        setTargetDataSource(new WriteTrackingDataSource(primary));
+        setReadOnlyDataSource(replicas);
+    }
+
+    public ReplicaDataSource getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        replicas.close();
+        for (AutoCloseable pool : pools) {
+            pool.close();
+        }
+    }
+
+    private static class WriteTrackingDataSource extends DelegatingDataSource {
+        WriteTrackingDataSource(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                ReadYourWrites.recordWrite();
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import java.time.Duration;
+
+// Чтение своих записей: после записи сессия какое-то время читает с основной БД, пока реплики догоняют.
+// Время последней записи хранится в HTTP-сессии, поэтому действует и на следующие запросы (redirect после POST)
+public final class ReadYourWrites {
+    static final String LAST_WRITE_ATTRIBUTE = ReadYourWrites.class.getName() + ".lastWrite";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void begin(HttpServletRequest request, Duration window) {
+        CURRENT.set(new Scope(request, window.toMillis()));
+    }
+
+    // true, если в этом запросе была запись
+    public static boolean end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope != null && scope.wrote;
+    }
+
+    public static boolean isPinnedToPrimary() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        if (scope.wrote) {
+            return true;
+        }
+        HttpSession session = scope.request.getSession(false);
+        Object lastWrite = session != null ? session.getAttribute(LAST_WRITE_ATTRIBUTE) : null;
+        return lastWrite instanceof Long at && System.currentTimeMillis() - at < scope.windowMillis;
+    }
+
+    public static void recordWrite() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.wrote = true;
+            touch(scope.request);
+        }
+    }
+
+    static void touch(HttpServletRequest request) {
+        try {
+            request.getSession(true).setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+        } catch (IllegalStateException e) {
+            // Ответ уже отправлен и сессию не создать: закрепление действует только до конца запроса
+        }
+    }
+
+    private static final class Scope {
+        final HttpServletRequest request;
+        final long windowMillis;
+        boolean wrote;
+
+        Scope(HttpServletRequest request, long windowMillis) {
+            this.request = request;
+            this.windowMillis = windowMillis;
+        }
+    }
+}
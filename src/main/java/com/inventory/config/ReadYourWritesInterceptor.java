@@ -0,0 +1,37 @@
+package com.inventory.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+// Привязывает HTTP-запрос к маршрутизации чтения; время записи обновляется и по завершении запроса,
+// чтобы окно отсчитывалось от момента, когда клиент получил ответ
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    private final Duration window;
+
+    public ReadYourWritesInterceptor(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWrites.begin(request, window);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (ReadYourWrites.end()) {
+            ReadYourWrites.touch(request);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadYourWrites.end();
+    }
+}
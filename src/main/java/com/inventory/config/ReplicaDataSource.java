@@ -0,0 +1,135 @@
+package com.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Соединения для чтения: реплики по кругу. Реплика, не отдавшая соединение, выключается до следующей
+// успешной проверки; если живых реплик нет или сессия только что писала - чтение идёт на основную БД
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final List<String> names;
+    private final AtomicIntegerArray healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, List<String> names) {
+        if (replicas.isEmpty() || replicas.size() != names.size()) {
+            throw new IllegalArgumentException("At least one named replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.names = List.copyOf(names);
+        this.healthy = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            healthy.set(i, 1);
+        }
+    }
+
+    public void startHealthChecks(Duration interval) {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("replica-health-");
+        threads.setDaemon(true);
+        healthChecker = Executors.newSingleThreadScheduledExecutor(threads);
+        long period = interval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    // Явные учётные данные уходят в ту же цель, что выбрал бы getConnection()
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            return opener.open(primary);
+        }
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int attempt = 0; attempt < count; attempt++) {
+            int index = (start + attempt) % count;
+            if (healthy.get(index) == 0) {
+                continue;
+            }
+            try {
+                return opener.open(replicas.get(index));
+            } catch (SQLException | RuntimeException e) {
+                markDown(index, e);
+            }
+        }
+        fallbacks.increment();
+        return opener.open(primary);
+    }
+
+    public void checkHealth() {
+        for (int index = 0; index < replicas.size(); index++) {
+            boolean up;
+            try (Connection connection = replicas.get(index).getConnection()) {
+                up = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException | RuntimeException e) {
+                up = false;
+            }
+            if (up && healthy.getAndSet(index, 1) == 0) {
+                log.info("Read replica {} is back, resuming reads", names.get(index));
+            } else if (!up) {
+                markDown(index, null);
+            }
+        }
+    }
+
+    public int getHealthyCount() {
+        int count = 0;
+        for (int i = 0; i < healthy.length(); i++) {
+            count += healthy.get(i);
+        }
+        return count;
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    private interface ConnectionOpener {
+        Connection open(DataSource target) throws SQLException;
+    }
+
+    private void markDown(int index, Exception cause) {
+        if (healthy.getAndSet(index, 0) == 1) {
+            log.warn("Read replica {} is unavailable, reads fall back to other replicas or the primary: {}",
+                    names.get(index), cause != null ? cause.getMessage() : "validation failed");
+        }
+    }
+}
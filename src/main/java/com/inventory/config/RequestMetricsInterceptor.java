@@ -0,0 +1,81 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+// Время рендеринга шаблона и число SQL-запросов на HTTP-запрос.
+// postHandle вызывается до рендеринга, afterCompletion - после, разница и есть рендеринг
+@Slf4j
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private static final String RENDER_STARTED = RequestMetricsInterceptor.class.getName() + ".renderStarted";
+    private static final String VIEW_NAME = RequestMetricsInterceptor.class.getName() + ".viewName";
+
+    private final MeterRegistry meterRegistry;
+    private final long statementsWarnThreshold;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementCounter.begin();
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // Редиректы содержат id в имени - не шаблоны и не годятся в теги
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")
+                && !modelAndView.getViewName().startsWith("forward:")) {
+            request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+            request.setAttribute(RENDER_STARTED, System.nanoTime());
+        }
+    }
+
+    // Асинхронный ответ (SSE): поток запроса освобождается без afterCompletion, счётчик не должен в нём остаться
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        StatementCounter.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object renderStarted = request.getAttribute(RENDER_STARTED);
+        if (renderStarted instanceof Long started) {
+            Timer.builder("inventory.view.render")
+                    .tag("view", (String) request.getAttribute(VIEW_NAME))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        long statements = StatementCounter.end();
+        if (statements < 0) {
+            return;
+        }
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        DistributionSummary.builder("inventory.request.statements")
+                .description("SQL statements prepared by Hibernate per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > statementsWarnThreshold) {
+            log.warn("{} {} executed {} SQL statements (threshold {}), possible N+1",
+                    request.getMethod(), request.getRequestURI(), statements, statementsWarnThreshold);
+        }
+    }
+}
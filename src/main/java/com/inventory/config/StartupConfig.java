@@ -0,0 +1,24 @@
+package com.inventory.config;
+
+import com.inventory.service.InventoryAggregateStore;
+import com.inventory.service.LowStockEngine;
+import com.inventory.service.search.ProductSearchIndex;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+// Быстрый запуск (профиль prod): остальные бины создаются при первом обращении
+// (spring.main.lazy-initialization), а эти - сразу. Иначе первый запрос платил бы за сборку Hibernate
+// и миграции, а индексы в памяти строились бы уже под нагрузкой
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, AbstractEntityManagerFactoryBean.class,
+                ProductSearchIndex.class, InventoryAggregateStore.class, LowStockEngine.class);
+    }
+}
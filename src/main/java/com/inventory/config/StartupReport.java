@@ -0,0 +1,91 @@
+package com.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Разбивка запуска по фазам в /actuator/info (раздел startup): время JVM до SpringApplication, шаги контекста
+// и самые медленные бины. Подробная хронология шагов - /actuator/startup
+@Slf4j
+@Component
+public class StartupReport implements InfoContributor {
+    static final int SLOWEST_BEANS = 10;
+    static final String BEAN_STEP = "spring.beans.instantiate";
+
+    private volatile Map<String, Object> report = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        details.put("jvmUptimeMillis", ManagementFactory.getRuntimeMXBean().getUptime());
+        if (event.getTimeTaken() != null) {
+            details.put("readyMillis", event.getTimeTaken().toMillis());
+        }
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup buffering) {
+            StartupTimeline timeline = buffering.getBufferedTimeline();
+            details.put("beforeApplicationMillis", Math.max(0, timeline.getStartTime().toEpochMilli() - jvmStart));
+            details.put("phases", phases(timeline.getEvents()));
+            details.put("slowestBeans", slowestBeans(timeline.getEvents()));
+        }
+        report = details;
+        log.info("Startup report: {}", details);
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("startup", report);
+    }
+
+    // Суммарное время по имени шага; вложенные шаги того же имени (бин внутри бина) не считаются дважды
+    static Map<String, Long> phases(List<StartupTimeline.TimelineEvent> events) {
+        Map<Long, String> names = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            names.put(event.getStartupStep().getId(), event.getStartupStep().getName());
+        }
+        Map<String, Long> totals = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (!step.getName().equals(names.get(step.getParentId()))) {
+                totals.merge(step.getName(), event.getDuration().toMillis(), Long::sum);
+            }
+        }
+        return sortedByDuration(totals, totals.size());
+    }
+
+    static Map<String, Long> slowestBeans(List<StartupTimeline.TimelineEvent> events) {
+        Map<String, Long> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_STEP.equals(step.getName())) {
+                for (StartupStep.Tag tag : step.getTags()) {
+                    if ("beanName".equals(tag.getKey())) {
+                        beans.merge(tag.getValue(), event.getDuration().toMillis(), Long::sum);
+                    }
+                }
+            }
+        }
+        return sortedByDuration(beans, SLOWEST_BEANS);
+    }
+
+    private static Map<String, Long> sortedByDuration(Map<String, Long> durations, int limit) {
+        return durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventory.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Считает SQL, подготовленные Hibernate в рамках текущего запроса (для поиска N+1)
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    public static void begin() {
+        CURRENT.set(new long[1]);
+    }
+
+    // -1, если подсчёт не был начат в этом потоке
+    public static long end() {
+        long[] counter = CURRENT.get();
+        CURRENT.remove();
+        return counter == null ? -1 : counter[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] counter = CURRENT.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+// Статика с отпечатком содержимого в имени (style-<md5>.css): ссылки @{...} в шаблонах переписывает
+// ResourceUrlEncodingFilter, поэтому файл можно кэшировать навсегда - новое содержимое даёт новый адрес.
+// Сжатые при сборке варианты (.gz, см. pom.xml) отдаются клиентам с Accept-Encoding без сжатия на лету
+@Configuration
+@ConditionalOnProperty(name = "inventory.static.fingerprint", havingValue = "true")
+public class StaticResourceConfig implements WebMvcConfigurer {
+    static final String[] FOLDERS = {"css", "js"};
+
+    private final Duration maxAge;
+
+    public StaticResourceConfig(@Value("${inventory.static.max-age:365d}") Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String folder : FOLDERS) {
+            registry.addResourceHandler("/" + folder + "/**")
+                    .addResourceLocations("classpath:/static/" + folder + "/")
+                    .setCacheControl(CacheControl.maxAge(maxAge).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Bean
+    FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Режим выполнения запросов: платформенные потоки Tomcat (по умолчанию) или виртуальные потоки JDK 21
+// (профиль virtual-threads). Виртуальные потоки Spring Boot включает и для веб-слоя, и для
+// фоновых задач (@Scheduled, TaskExecutor)
+@Slf4j
+@Configuration
+public class ThreadingConfig {
+    static final String PERMITS_ENABLED = "inventory.datasource.connection-permits.enabled";
+
+    @Bean
+    @ConditionalOnProperty(name = PERMITS_ENABLED, havingValue = "true")
+    static BeanPostProcessor connectionPermitPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource hikari ? withPermits(hikari, environment) : bean;
+            }
+        };
+    }
+
+    // По умолчанию разрешений столько же, сколько соединений в пуле
+    static ConnectionPermitDataSource withPermits(HikariDataSource hikari, Environment environment) {
+        int permits = environment.getProperty("inventory.datasource.connection-permits.max",
+                Integer.class, hikari.getMaximumPoolSize());
+        Duration timeout = environment.getProperty("inventory.datasource.connection-permits.timeout",
+                Duration.class, Duration.ofSeconds(5));
+        log.info("Database connection permits enabled: {} permits, timeout {}", permits, timeout);
+        return new ConnectionPermitDataSource(hikari, permits, timeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PERMITS_ENABLED, havingValue = "true")
+    MeterBinder connectionPermitMetrics(DataSource dataSource) throws SQLException {
+        ConnectionPermitDataSource permits = dataSource.unwrap(ConnectionPermitDataSource.class);
+        return registry -> {
+            Gauge.builder("inventory.db.permits.available", permits, ConnectionPermitDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("inventory.db.permits.waiting", permits, ConnectionPermitDataSource::getQueueLength)
+                    .register(registry);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && Runtime.version().feature() < 21) {
+            log.warn("Virtual threads requested but running on JDK {}: falling back to platform threads",
+                    Runtime.version().feature());
+        } else {
+            log.info("Request execution mode: {} threads", requested ? "virtual" : "platform");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Класс нагрузки обработчика для контроля допуска; аннотация на методе важнее аннотации на контроллере.
+// Обработчики без неё (SSE, actuator, страница ошибки) не ограничиваются
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadClass value();
+}
@@ -0,0 +1,64 @@
+package com.inventory.config;
+
+import java.time.Duration;
+
+// Классы нагрузки в порядке приоритета: освободившееся место первым получает ожидающий складской запрос.
+// Значения по умолчанию переопределяются свойствами inventory.admission.<key>.*
+public enum WorkloadClass {
+    STOCK_WRITE("stock-write", 40, 4, 120, 100, Duration.ofMillis(500), Duration.ofMillis(250)),
+    CATALOG_WRITE("catalog-write", 20, 2, 60, 20, Duration.ofMillis(200), Duration.ofMillis(500)),
+    READ("read", 60, 8, 150, 50, Duration.ofMillis(100), Duration.ofMillis(300)),
+    REPORT("report", 8, 1, 20, 4, Duration.ofMillis(50), Duration.ofSeconds(2));
+
+    private final String key;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final Duration maxWait;
+    private final Duration latencyTarget;
+
+    WorkloadClass(String key, int initialLimit, int minLimit, int maxLimit, int queueCapacity,
+                  Duration maxWait, Duration latencyTarget) {
+        this.key = key;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxWait = maxWait;
+        this.latencyTarget = latencyTarget;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Резерв общего бюджета держится только для движений остатков
+    public boolean usesReserve() {
+        return this == STOCK_WRITE;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public Duration getLatencyTarget() {
+        return latencyTarget;
+    }
+}
@@ -1,19 +1,32 @@
 package com.inventory.controller;
 
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.ProductSummary;
 import com.inventory.service.InventoryReportService;
+import com.inventory.service.ProductFragmentCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.util.List;
+import java.util.Map;
+
 @Controller
+@Workload(WorkloadClass.REPORT)
 @RequiredArgsConstructor
 public class DashboardController {
     private final InventoryReportService reportService;
+    private final ProductFragmentCache fragmentCache;
 
     @GetMapping("/")
+    @SuppressWarnings("unchecked")
     public String dashboard(Model model) {
-        model.addAttribute("report", reportService.generateInventoryReport());
+        Map<String, Object> report = reportService.generateInventoryReport();
+        model.addAttribute("report", report);
+        model.addAttribute("lowStockRows", fragmentCache.render(ProductFragmentCache.LOW_STOCK_ROW,
+                (List<ProductSummary>) report.get("lowStockProducts")));
         return "dashboard";
     }
-}
\ No newline at end of file
+}
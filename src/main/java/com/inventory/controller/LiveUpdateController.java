@@ -0,0 +1,27 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.service.ProductService;
+import com.inventory.service.live.LiveUpdateBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Поток изменений для открытых страниц: без productId - панель управления, с ним - страница товара
+@RestController
+@RequiredArgsConstructor
+public class LiveUpdateController {
+    private final LiveUpdateBroadcaster broadcaster;
+    private final ProductService productService;
+
+    @GetMapping(path = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) Long productId) {
+        ProductSummary current = productId != null
+                ? ProductSummary.from(productService.getProductById(productId))
+                : null;
+        return broadcaster.subscribe(productId, current);
+    }
+}
@@ -1,41 +1,71 @@
 package com.inventory.controller;
 
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
 import com.inventory.model.Product;
+import com.inventory.service.ProductFragmentCache;
 import com.inventory.service.ProductService;
+import com.inventory.service.StockLedgerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
 
 @Controller
+@Workload(WorkloadClass.READ)
 @RequestMapping("/products")
 @RequiredArgsConstructor
 public class ProductController {
     private final ProductService productService;
+    private final StockLedgerService stockLedger;
+    private final ProductFragmentCache fragmentCache;
 
     @GetMapping
-    public String getAllProducts(Model model) {
-        List<Product> products = productService.getAllProducts();
-        model.addAttribute("products", products);
+    public String getAllProducts(@RequestParam(defaultValue = "id") String sort,
+                                 @RequestParam(defaultValue = "asc") String dir,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "" + ProductPageRequest.DEFAULT_SIZE) int size,
+                                 Model model) {
+        ProductPageRequest request = pageRequest(sort, dir, cursor, size).build();
+        addPage(model, productService.getProductPage(request), "/products");
         return "products/list";
     }
 
     @GetMapping("/{id}")
-    public String getProductById(@PathVariable Long id, Model model) {
+    public String getProductById(@PathVariable Long id,
+                                 @RequestParam(required = false) String historyCursor,
+                                 Model model) {
         Product product = productService.getProductById(id);
         model.addAttribute("product", product);
+        model.addAttribute("history", stockLedger.getHistory(id, historyCursor, StockLedgerService.DEFAULT_HISTORY_SIZE));
         return "products/detail";
     }
 
+    // Переход к карточке по отсканированному штрихкоду/SKU
+    @GetMapping("/sku/{sku}")
+    public String getProductBySku(@PathVariable String sku) {
+        return "redirect:/products/" + productService.getProductBySku(sku).getId();
+    }
+
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("product", new Product());
         return "products/create";
     }
 
+    @Workload(WorkloadClass.CATALOG_WRITE)
     @PostMapping
     public String createProduct(@Valid @ModelAttribute Product product,
                                 BindingResult result) {
@@ -53,6 +83,7 @@ public class ProductController {
         return "products/edit";
     }
 
+    @Workload(WorkloadClass.CATALOG_WRITE)
     @PostMapping("/{id}")
     public String updateProduct(@PathVariable Long id,
                                 @Valid @ModelAttribute Product product,
@@ -64,6 +95,7 @@ public class ProductController {
         return "redirect:/products";
     }
 
+    @Workload(WorkloadClass.CATALOG_WRITE)
     @GetMapping("/{id}/delete")
     public String deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
@@ -71,26 +103,76 @@ public class ProductController {
     }
 
     @GetMapping("/low-stock")
-    public String getLowStockProducts(Model model) {
-        List<Product> lowStockProducts = productService.getLowStockProducts();
-        model.addAttribute("products", lowStockProducts);
+    public String getLowStockProducts(@RequestParam(required = false) String sort,
+                                      @RequestParam(defaultValue = "asc") String dir,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "" + ProductPageRequest.DEFAULT_SIZE) int size,
+                                      Model model) {
+        // По умолчанию - по доле остатка из памяти; явная сортировка по полю идёт запросом к БД
+        if (sort == null) {
+            addPage(model, productService.getLowStockPage(cursor, size), "/products/low-stock");
+        } else {
+            ProductPageRequest request = pageRequest(sort, dir, cursor, size)
+                    .lowStockOnly(true)
+                    .build();
+            addPage(model, productService.getProductPage(request), "/products/low-stock");
+        }
         model.addAttribute("isLowStock", true);
         return "products/list";
     }
 
     @GetMapping("/search")
-    public String searchProducts(@RequestParam String keyword, Model model) {
-        List<Product> products = productService.searchProducts(keyword);
-        model.addAttribute("products", products);
+    public String searchProducts(@RequestParam String keyword,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "" + ProductPageRequest.DEFAULT_SIZE) int size,
+                                 Model model) {
+        String baseUrl = UriComponentsBuilder.fromPath("/products/search")
+                .queryParam("keyword", keyword)
+                .encode()
+                .toUriString();
+        addPage(model, productService.searchProducts(keyword, cursor, size), baseUrl);
         model.addAttribute("searchKeyword", keyword);
         return "products/list";
     }
 
+    @Workload(WorkloadClass.STOCK_WRITE)
     @PostMapping("/{id}/stock")
     public String updateStock(@PathVariable Long id,
                               @RequestParam Integer quantity,
-                              @RequestParam String type) {
-        productService.updateStock(id, quantity, type);
+                              @RequestParam String type,
+                              @RequestParam(required = false) String reason,
+                              @RequestParam(required = false) String performedBy) {
+        productService.updateStock(id, quantity, type, reason, performedBy);
         return "redirect:/products/" + id;
     }
-}
\ No newline at end of file
+
+    private ProductPageRequest.ProductPageRequestBuilder pageRequest(String sort, String dir, String cursor, int size) {
+        return ProductPageRequest.builder()
+                .sort(ProductSortField.fromParam(sort))
+                .direction(Sort.Direction.fromOptionalString(dir).orElse(Sort.Direction.ASC))
+                .cursor(cursor)
+                .size(size);
+    }
+
+    // baseUrl - адрес для ссылок сортировки, pageUrl - адрес текущей выборки для перехода по страницам
+    private void addPage(Model model, CursorPage<ProductSummary> page, String baseUrl) {
+        String pageUrl = baseUrl;
+        if (page.getSort() != null) {
+            pageUrl = UriComponentsBuilder.fromUriString(baseUrl)
+                    .queryParam("sort", page.getSort().getProperty())
+                    .queryParam("dir", page.getDirection().name().toLowerCase())
+                    .toUriString();
+        }
+        model.addAttribute("products", page.getContent());
+        model.addAttribute("productRows", fragmentCache.render(ProductFragmentCache.ROW, page.getContent()));
+        model.addAttribute("page", page);
+        model.addAttribute("baseUrl", baseUrl);
+        model.addAttribute("pageUrl", pageUrl);
+    }
+
+    // Товар с историей движений не удаляется - конфликт, а не ошибка сервера
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.ImportReport;
+import com.inventory.service.transfer.ProductExportService;
+import com.inventory.service.transfer.ProductImportService;
+import com.inventory.service.transfer.TransferFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Массовый обмен каталогом (CSV / NDJSON) для интеграций
+@RestController
+@Workload(WorkloadClass.REPORT)
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductTransferController {
+    private final ProductImportService importService;
+    private final ProductExportService exportService;
+
+    // Загрузка файлом из формы; multipart-часть хранится во временном файле, а не в памяти
+    @Workload(WorkloadClass.CATALOG_WRITE)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportReport importFile(@RequestParam("file") MultipartFile file,
+                                   @RequestParam(required = false) String format) throws IOException {
+        TransferFormat resolved = TransferFormat.resolve(format, file.getContentType(), file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            return importService.importProducts(input, resolved);
+        }
+    }
+
+    // Тело запроса читается потоком прямо из соединения
+    @Workload(WorkloadClass.CATALOG_WRITE)
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_PLAIN_VALUE})
+    public ImportReport importBody(HttpServletRequest request,
+                                   @RequestParam(required = false) String format) throws IOException {
+        TransferFormat resolved = TransferFormat.resolve(format, request.getContentType(), null);
+        return importService.importProducts(request.getInputStream(), resolved);
+    }
+
+    // updatedSince - для дельта-выгрузок: только товары, изменённые с указанного момента
+    @GetMapping("/export")
+    public void exportProducts(@RequestParam(required = false) String format,
+                               @RequestParam(required = false) String category,
+                               @RequestParam(required = false)
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+                               HttpServletResponse response) throws IOException {
+        TransferFormat resolved = TransferFormat.resolve(format, null, null);
+        prepare(response, resolved, "products");
+        exportService.exportProducts(resolved, category, updatedSince, response.getOutputStream());
+    }
+
+    @GetMapping("/ledger/export")
+    public void exportLedger(@RequestParam(required = false) String format,
+                             @RequestParam(required = false) Long productId,
+                             @RequestParam(required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                             HttpServletResponse response) throws IOException {
+        TransferFormat resolved = TransferFormat.resolve(format, null, null);
+        prepare(response, resolved, "stock-ledger");
+        exportService.exportLedger(resolved, productId, since, response.getOutputStream());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private static void prepare(HttpServletResponse response, TransferFormat format, String name) {
+        String filename = name + "-" + LocalDate.now() + "." + format.name().toLowerCase();
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+    }
+}
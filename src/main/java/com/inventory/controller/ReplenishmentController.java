@@ -0,0 +1,36 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.ReplenishmentPlan;
+import com.inventory.service.replenishment.ReplenishmentEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Предложения по пополнению: последний ночной расчёт и запуск расчёта вручную
+@RestController
+@Workload(WorkloadClass.REPORT)
+@RequestMapping("/api/replenishment")
+@RequiredArgsConstructor
+public class ReplenishmentController {
+    private final ReplenishmentEngine replenishmentEngine;
+
+    @GetMapping
+    public ResponseEntity<ReplenishmentPlan> latestPlan(@RequestParam(required = false) String supplier) {
+        return replenishmentEngine.getLatestPlan()
+                .map(plan -> supplier == null ? plan : plan.toBuilder()
+                        .suppliers(Map.of(supplier, plan.getSuppliers().getOrDefault(supplier, List.of())))
+                        .build())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/run")
+    public ReplenishmentPlan run() {
+        return replenishmentEngine.run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.StockAvailability;
+import com.inventory.dto.StockHold;
+import com.inventory.dto.StockHoldRequest;
+import com.inventory.service.reservation.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Резервы под заказы: удержание на время сборки, затем подтверждение (списание) или отмена.
+// Неподтверждённый резерв снимается сам по истечении ttl
+@RestController
+@Workload(WorkloadClass.STOCK_WRITE)
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+    private final StockReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<StockHold> hold(@RequestBody StockHoldRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.hold(request));
+    }
+
+    @Workload(WorkloadClass.READ)
+    @GetMapping("/{id}")
+    public ResponseEntity<StockHold> get(@PathVariable Long id) {
+        return ResponseEntity.of(reservationService.find(id));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<StockHold> confirm(@PathVariable Long id,
+                                             @RequestParam(required = false) String performedBy) {
+        return ResponseEntity.of(reservationService.confirm(id, performedBy));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockHold> release(@PathVariable Long id) {
+        return ResponseEntity.of(reservationService.release(id));
+    }
+
+    @Workload(WorkloadClass.READ)
+    @GetMapping("/availability/{productId}")
+    public ResponseEntity<StockAvailability> availability(@PathVariable Long productId) {
+        return ResponseEntity.of(reservationService.getAvailability(productId));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // Не хватает свободного остатка или резерв уже закрыт
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
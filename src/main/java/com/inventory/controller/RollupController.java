@@ -0,0 +1,53 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.RollupBackfillReport;
+import com.inventory.dto.RollupGranularity;
+import com.inventory.dto.RollupPoint;
+import com.inventory.service.StockRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Ряды движений остатков для планирования: читаются только дневные сводки, журнал не сканируется
+@RestController
+@Workload(WorkloadClass.REPORT)
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class RollupController {
+    private final StockRollupService rollupService;
+
+    @GetMapping("/products/{id}")
+    public List<RollupPoint> productSeries(@PathVariable Long id,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) String granularity) {
+        return rollupService.getProductSeries(id, from, to, RollupGranularity.fromParam(granularity));
+    }
+
+    @GetMapping("/categories/{category}")
+    public List<RollupPoint> categorySeries(@PathVariable String category,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(required = false) String granularity) {
+        return rollupService.getCategorySeries(category, from, to, RollupGranularity.fromParam(granularity));
+    }
+
+    // Перестроение сводок за период из журнала (первичное заполнение, исправления задним числом)
+    @PostMapping("/backfill")
+    public RollupBackfillReport backfill(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return rollupService.backfill(from, to);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.ScanAck;
+import com.inventory.dto.ScanRequest;
+import com.inventory.service.scan.ScanIngestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Приём событий с ручных сканеров: 202 - записано в журнал, остатки изменятся в течение долей секунды
+@RestController
+@Workload(WorkloadClass.STOCK_WRITE)
+@RequestMapping("/api/scans")
+@RequiredArgsConstructor
+public class ScanController {
+    private final ScanIngestService scanIngestService;
+
+    @PostMapping
+    public ResponseEntity<ScanAck> accept(@RequestBody ScanRequest request) {
+        return ResponseEntity.accepted().body(scanIngestService.accept(request));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleBacklogFull(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
+}
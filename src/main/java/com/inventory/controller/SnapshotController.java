@@ -0,0 +1,57 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.SnapshotComparison;
+import com.inventory.dto.SnapshotInfo;
+import com.inventory.dto.SnapshotSummary;
+import com.inventory.service.snapshot.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// Снимки остатков для аудита: срез на дату и изменения между датами (по умолчанию - до последнего снимка)
+@RestController
+@Workload(WorkloadClass.REPORT)
+@RequestMapping("/api/snapshots")
+@RequiredArgsConstructor
+public class SnapshotController {
+    private final SnapshotService snapshotService;
+
+    @GetMapping
+    public List<SnapshotInfo> list() {
+        return snapshotService.list();
+    }
+
+    @PostMapping("/run")
+    public SnapshotInfo run() {
+        return snapshotService.takeSnapshot();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SnapshotSummary> summary(@PathVariable String id) {
+        return ResponseEntity.of(snapshotService.find(id).map(snapshotService::summarize));
+    }
+
+    @GetMapping("/at")
+    public ResponseEntity<SnapshotSummary> at(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.of(snapshotService.findAt(date).map(snapshotService::summarize));
+    }
+
+    @GetMapping("/compare")
+    public ResponseEntity<SnapshotComparison> compare(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Optional<SnapshotInfo> before = snapshotService.findAt(from);
+        Optional<SnapshotInfo> after = to != null ? snapshotService.findAt(to) : snapshotService.latest();
+        if (before.isEmpty() || after.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(snapshotService.compare(before.get(), after.get()));
+    }
+}
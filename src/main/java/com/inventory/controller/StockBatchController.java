@@ -0,0 +1,35 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.StockBatchRequest;
+import com.inventory.dto.StockBatchResult;
+import com.inventory.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Пачка движений остатков одним запросом и одной транзакцией (приёмка, волны отбора)
+@RestController
+@Workload(WorkloadClass.STOCK_WRITE)
+@RequestMapping("/api/products/stock")
+@RequiredArgsConstructor
+public class StockBatchController {
+    private final ProductService productService;
+
+    // 200 - применено целиком, 422 - не применено ничего, ошибки в строках
+    @PostMapping("/batch")
+    public ResponseEntity<StockBatchResult> applyBatch(@RequestBody StockBatchRequest request) {
+        StockBatchResult result = productService.applyStockBatch(request);
+        return result.isApplied()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.unprocessableEntity().body(result);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.controller;
+
+import com.inventory.config.Workload;
+import com.inventory.config.WorkloadClass;
+import com.inventory.dto.SupplierReport;
+import com.inventory.service.SupplierReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Сводка по поставщикам: товары, стоимость запаса, низкий запас и ожидающее пополнение
+@RestController
+@Workload(WorkloadClass.REPORT)
+@RequestMapping("/api/suppliers")
+@RequiredArgsConstructor
+public class SupplierReportController {
+    private final SupplierReportService supplierReportService;
+
+    @GetMapping("/report")
+    public SupplierReport report() {
+        return supplierReportService.generate();
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Изменение категории между снимками. Разница стоимости = эффект количества + переоценка (priceDrift):
+// переоценка - изменение закупочной цены, умноженное на новый остаток
+@Value
+@Builder
+public class CategorySnapshotDelta {
+    String category;
+    long productsBefore;
+    long productsAfter;
+    long quantityBefore;
+    long quantityAfter;
+    double valueBefore;
+    double valueAfter;
+    double priceDrift;
+}
@@ -0,0 +1,16 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class CategoryStats {
+    String category;
+    long productCount;
+    double totalValue;
+
+    public CategoryStats(String category, Long productCount, Double totalValue) {
+        this(category, productCount != null ? productCount : 0L, totalValue != null ? totalValue : 0.0);
+    }
+}
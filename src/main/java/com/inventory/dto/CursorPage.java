@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+@Value
+public class CursorPage<T> {
+    List<T> content;
+    String nextCursor;
+    ProductSortField sort;
+    Sort.Direction direction;
+    int size;
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+// Итог импорта; ошибки хранятся только для первых строк, чтобы отчёт не рос вместе с файлом
+@Value
+@Builder
+public class ImportReport {
+    long totalRows;
+    long created;
+    long updated;
+    long failed;
+    long durationMillis;
+    double rowsPerSecond;
+    List<RowError> errors;
+    boolean errorsTruncated;
+
+    @Value
+    public static class RowError {
+        long line;
+        String sku;
+        String message;
+    }
+}
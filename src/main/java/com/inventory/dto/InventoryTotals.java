@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+public class InventoryTotals {
+    long totalProducts;
+    double totalValue;
+    long lowStockCount;
+    Map<String, Long> categoryCounts;
+    Map<String, Double> categoryValues;
+}
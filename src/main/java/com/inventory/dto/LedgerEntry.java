@@ -0,0 +1,22 @@
+package com.inventory.dto;
+
+import com.inventory.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Строка выгрузки журнала движений вместе с товаром
+@Value
+@AllArgsConstructor
+public class LedgerEntry {
+    Long id;
+    Long productId;
+    String sku;
+    TransactionType type;
+    Integer quantity;
+    Integer quantityAfter;
+    String reason;
+    LocalDateTime transactionDate;
+    String performedBy;
+}
@@ -0,0 +1,42 @@
+package com.inventory.dto;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Непрозрачный курсор: направление, поле сортировки, id и значение поля последней строки страницы
+@Value
+public class ProductCursor {
+    ProductSortField sort;
+    Sort.Direction direction;
+    Long id;
+    Object value;
+
+    public static ProductCursor after(ProductSortField sort, Sort.Direction direction, ProductSummary last) {
+        return new ProductCursor(sort, direction, last.getId(), sort.valueOf(last));
+    }
+
+    public String encode() {
+        String raw = sort.name() + ":" + direction.name() + ":" + id + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Курсор от другой сортировки или повреждённый курсор означает начало списка
+    public static ProductCursor decode(String token, ProductSortField sort, Sort.Direction direction) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction.name())) {
+                return null;
+            }
+            return new ProductCursor(sort, direction, Long.valueOf(parts[2]), sort.parse(parts[3]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+@Value
+@Builder
+public class ProductPageRequest {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    String keyword;
+    boolean lowStockOnly;
+    @Builder.Default
+    ProductSortField sort = ProductSortField.ID;
+    @Builder.Default
+    Sort.Direction direction = Sort.Direction.ASC;
+    String cursor;
+    @Builder.Default
+    int size = DEFAULT_SIZE;
+
+    public int getEffectiveSize() {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ProductSnapshotDelta {
+    public enum Change { ADDED, REMOVED, CHANGED }
+
+    long productId;
+    String sku;
+    String category;
+    Change change;
+    int quantityBefore;
+    int quantityAfter;
+    double purchasePriceBefore;
+    double purchasePriceAfter;
+    double valueBefore;
+    double valueAfter;
+}
@@ -0,0 +1,41 @@
+package com.inventory.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+// Поля, по которым возможна keyset-пагинация (для каждого есть индекс вида (поле, id))
+@Getter
+@RequiredArgsConstructor
+public enum ProductSortField {
+    ID("id", ProductSummary::getId, Long::valueOf),
+    NAME("name", ProductSummary::getName, raw -> raw),
+    CATEGORY("category", ProductSummary::getCategory, raw -> raw),
+    QUANTITY("quantity", ProductSummary::getQuantity, Integer::valueOf),
+    UPDATED_AT("updatedAt", ProductSummary::getUpdatedAt, LocalDateTime::parse);
+
+    private final String property;
+    private final Function<ProductSummary, Object> extractor;
+    private final Function<String, Object> parser;
+
+    public Object valueOf(ProductSummary summary) {
+        return extractor.apply(summary);
+    }
+
+    public Object parse(String raw) {
+        return parser.apply(raw);
+    }
+
+    public static ProductSortField fromParam(String param) {
+        if (param != null) {
+            for (ProductSortField field : values()) {
+                if (field.property.equalsIgnoreCase(param) || field.name().equalsIgnoreCase(param)) {
+                    return field;
+                }
+            }
+        }
+        return ID;
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.dto;
+
+import com.inventory.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+
+// Лёгкая проекция товара для списков (не управляемая сущность)
+@Value
+@AllArgsConstructor
+public class ProductSummary {
+    Long id;
+    String sku;
+    String name;
+    String description;
+    String category;
+    @With
+    Integer quantity;
+    Integer minStockLevel;
+    Integer maxStockLevel;
+    Double purchasePrice;
+    Double sellingPrice;
+    String location;
+    LocalDateTime updatedAt;
+
+    public static ProductSummary from(Product product) {
+        return new ProductSummary(
+                product.getId(),
+                product.getSku(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getQuantity(),
+                product.getMinStockLevel(),
+                product.getMaxStockLevel(),
+                product.getPurchasePrice(),
+                product.getSellingPrice(),
+                product.getLocation(),
+                product.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Итог расчёта пополнения: только товары, которые пора заказывать, по поставщикам
+@Value
+@Builder(toBuilder = true)
+public class ReplenishmentPlan {
+    public static final String NO_SUPPLIER = "unassigned";
+
+    LocalDateTime generatedAt;
+    LocalDate historyFrom;
+    LocalDate historyTo;
+    int leadTimeDays;
+    long productsEvaluated;
+    long suggestionCount;
+    long durationMillis;
+    Map<String, List<ReplenishmentSuggestion>> suppliers;
+}
@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+// Предложение заказа по товару: текущие пороги рядом с рассчитанными по спросу
+@Value
+public class ReplenishmentSuggestion {
+    long productId;
+    String sku;
+    int quantity;
+    int minStockLevel;
+    int maxStockLevel;
+    double averageDailyDemand;
+    long peakDailyDemand;
+    int reorderPoint;
+    int suggestedQuantity;
+}
@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class RollupBackfillReport {
+    LocalDate from;
+    LocalDate to;
+    int chunks;
+    long productRollups;
+    long durationMillis;
+}
@@ -0,0 +1,38 @@
+package com.inventory.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Шаг ряда: недели и месяцы собираются из дневных сводок при чтении
+public enum RollupGranularity {
+    DAY, WEEK, MONTH;
+
+    public LocalDate bucketStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate nextBucket(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+
+    public static RollupGranularity fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return DAY;
+        }
+        for (RollupGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(param)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown granularity: " + param);
+    }
+}
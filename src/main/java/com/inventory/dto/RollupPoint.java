@@ -0,0 +1,18 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Точка ряда за [start, end]. closingQuantity - остаток на конец периода по журналу движений,
+// null - движений по товару до конца периода ещё не было
+@Value
+public class RollupPoint {
+    LocalDate start;
+    LocalDate end;
+    long inQuantity;
+    long outQuantity;
+    long netChange;
+    long movementCount;
+    Long closingQuantity;
+}
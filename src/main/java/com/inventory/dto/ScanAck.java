@@ -0,0 +1,11 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+// Подтверждение: события записаны в журнал и будут применены к остаткам в фоне
+@Value
+public class ScanAck {
+    int accepted;
+    long firstSequence;
+    long lastSequence;
+}
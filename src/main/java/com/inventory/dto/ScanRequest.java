@@ -0,0 +1,32 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Пачка сканирований с одного терминала; по умолчанию каждое событие - одна единица товара
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScanRequest {
+    private String scannerId;
+    private List<Event> events;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event {
+        private Long productId;
+        private String type;
+        private Integer quantity;
+        private Long scannedAt;
+
+        public Event(Long productId, String type) {
+            this(productId, type, 1, null);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+// Сравнение двух снимков. products - изменения с наибольшим сдвигом стоимости, не больше лимита;
+// счётчики added/removed/changed учитывают все товары
+@Value
+@Builder
+public class SnapshotComparison {
+    SnapshotInfo from;
+    SnapshotInfo to;
+    long added;
+    long removed;
+    long changed;
+    long unchanged;
+    double valueBefore;
+    double valueAfter;
+    double priceDrift;
+    List<CategorySnapshotDelta> categories;
+    List<ProductSnapshotDelta> products;
+    boolean productsTruncated;
+}
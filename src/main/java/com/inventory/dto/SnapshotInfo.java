@@ -0,0 +1,12 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class SnapshotInfo {
+    String id;
+    LocalDateTime createdAt;
+    long sizeBytes;
+}
@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+// Остатки на момент снимка в разрезе отчёта по складу
+@Value
+@Builder
+public class SnapshotSummary {
+    SnapshotInfo snapshot;
+    long totalProducts;
+    double totalInventoryValue;
+    long lowStockCount;
+    List<CategoryStats> categories;
+}
@@ -0,0 +1,12 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+// Доступно к обещанию: остаток за вычетом активных резервов
+@Value
+public class StockAvailability {
+    Long productId;
+    int quantity;
+    int reserved;
+    int available;
+}
@@ -0,0 +1,33 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Пачка движений (приёмка паллеты, волна отбора). reason и performedBy - по умолчанию для строк без своих
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchRequest {
+    private String reason;
+    private String performedBy;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private String type;
+        private Integer quantity;
+        private String reason;
+
+        public Line(Long productId, String type, Integer quantity) {
+            this(productId, type, quantity, null);
+        }
+    }
+}
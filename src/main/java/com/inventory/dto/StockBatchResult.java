@@ -0,0 +1,24 @@
+package com.inventory.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+// Итог пачки: applied == false - не применено ничего, причины в строках с error
+@Value
+public class StockBatchResult {
+    boolean applied;
+    int failedLines;
+    List<LineResult> lines;
+
+    // delta - изменение со знаком; остатки до и после строки с учётом предыдущих строк пачки
+    @Value
+    public static class LineResult {
+        int index;
+        Long productId;
+        Integer delta;
+        Integer quantityBefore;
+        Integer quantityAfter;
+        String error;
+    }
+}
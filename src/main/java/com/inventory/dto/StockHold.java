@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import com.inventory.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+
+@Value
+@With
+@AllArgsConstructor
+public class StockHold {
+    Long id;
+    Long productId;
+    Integer quantity;
+    ReservationStatus status;
+    String reference;
+    String performedBy;
+    LocalDateTime createdAt;
+    LocalDateTime expiresAt;
+    LocalDateTime closedAt;
+}
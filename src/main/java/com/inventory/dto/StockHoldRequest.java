@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+// Резерв под заказ; ttl в формате ISO-8601 (PT15M), по умолчанию inventory.reservations.default-ttl
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequest {
+    private Long productId;
+    private Integer quantity;
+    private Duration ttl;
+    private String reference;
+    private String performedBy;
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import com.inventory.model.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@AllArgsConstructor
+public class StockMovement {
+    Long id;
+    TransactionType type;
+    Integer quantity;
+    Integer quantityAfter;
+    String reason;
+    LocalDateTime transactionDate;
+    String performedBy;
+}
@@ -0,0 +1,16 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+
+@Value
+public class SupplierLowStockItem {
+    @JsonIgnore
+    Long supplierId;
+    Long productId;
+    String sku;
+    String name;
+    Integer quantity;
+    Integer minStockLevel;
+    Integer maxStockLevel;
+}
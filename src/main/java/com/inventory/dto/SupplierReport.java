@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+public class SupplierReport {
+    LocalDateTime generatedAt;
+    // null - расчёт пополнения ещё не выполнялся
+    LocalDateTime replenishmentPlanGeneratedAt;
+    int lowStockItemLimit;
+    List<SupplierReportLine> suppliers;
+}
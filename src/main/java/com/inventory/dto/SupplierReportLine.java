@@ -0,0 +1,16 @@
+package com.inventory.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+// Строка отчёта: итоги поставщика, самые пустые позиции и ещё не заказанное пополнение из последнего расчёта
+@Value
+@Builder
+public class SupplierReportLine {
+    SupplierStats stats;
+    List<SupplierLowStockItem> lowStockItems;
+    int pendingReplenishmentItems;
+    long pendingReplenishmentQuantity;
+}
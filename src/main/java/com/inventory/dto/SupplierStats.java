@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+// Итоги по поставщику из одного GROUP BY; supplierId == null - товары без поставщика
+@Value
+@AllArgsConstructor
+public class SupplierStats {
+    Long supplierId;
+    String name;
+    String contactPerson;
+    String email;
+    String phone;
+    long productCount;
+    double stockValue;
+    long lowStockCount;
+
+    public SupplierStats(Long supplierId, String name, String contactPerson, String email, String phone,
+                         Long productCount, Double stockValue, Long lowStockCount) {
+        this(supplierId, name, contactPerson, email, phone, productCount != null ? productCount : 0L,
+                stockValue != null ? stockValue : 0.0, lowStockCount != null ? lowStockCount : 0L);
+    }
+
+    public SupplierStats(Long productCount, Double stockValue, Long lowStockCount) {
+        this(null, ReplenishmentPlan.NO_SUPPLIER, null, null, null, productCount, stockValue, lowStockCount);
+    }
+}
@@ -0,0 +1,35 @@
+package com.inventory.event;
+
+import com.inventory.dto.ProductSummary;
+import lombok.Value;
+
+// Изменение товара: before == null при создании, after == null при удалении
+@Value
+public class ProductChangedEvent {
+    ProductSummary before;
+    ProductSummary after;
+
+    public static ProductChangedEvent created(ProductSummary after) {
+        return new ProductChangedEvent(null, after);
+    }
+
+    public static ProductChangedEvent updated(ProductSummary before, ProductSummary after) {
+        return new ProductChangedEvent(before, after);
+    }
+
+    public static ProductChangedEvent deleted(ProductSummary before) {
+        return new ProductChangedEvent(before, null);
+    }
+
+    public Long getProductId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public boolean isCreated() {
+        return before == null;
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
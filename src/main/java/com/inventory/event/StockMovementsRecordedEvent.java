@@ -0,0 +1,13 @@
+package com.inventory.event;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+// Записаны движения остатков: товары по дням движений (для пересчёта дневных сводок)
+@Value
+public class StockMovementsRecordedEvent {
+    Map<LocalDate, Set<Long>> productIdsByDay;
+}
@@ -0,0 +1,23 @@
+package com.inventory.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Резерв создан (expiresAt задан) или закрыт (expiresAt == null); reservedDelta - изменение удержания товара
+@Value
+public class StockReservationChangedEvent {
+    Long reservationId;
+    Long productId;
+    int reservedDelta;
+    LocalDateTime expiresAt;
+
+    public static StockReservationChangedEvent held(Long reservationId, Long productId, int quantity,
+                                                    LocalDateTime expiresAt) {
+        return new StockReservationChangedEvent(reservationId, productId, quantity, expiresAt);
+    }
+
+    public static StockReservationChangedEvent closed(Long reservationId, Long productId, int quantity) {
+        return new StockReservationChangedEvent(reservationId, productId, -quantity, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.event;
+
+import com.inventory.dto.ProductSummary;
+import lombok.Value;
+
+// Товар пересёк порог минимального остатка: low == true - опустился до порога, false - восстановился
+@Value
+public class StockThresholdCrossedEvent {
+    ProductSummary product;
+    boolean low;
+
+    public static StockThresholdCrossedEvent entered(ProductSummary product) {
+        return new StockThresholdCrossedEvent(product, true);
+    }
+
+    public static StockThresholdCrossedEvent recovered(ProductSummary product) {
+        return new StockThresholdCrossedEvent(product, false);
+    }
+
+    public Long getProductId() {
+        return product.getId();
+    }
+}
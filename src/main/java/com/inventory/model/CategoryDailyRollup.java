@@ -0,0 +1,39 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Движения категории за день - сумма дневных сводок её товаров
+@Entity
+@Table(name = "category_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_daily_rollups_category_day",
+                columnNames = {"category", "rollup_day"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long inQuantity;
+
+    @Column(nullable = false)
+    private long outQuantity;
+
+    @Column(nullable = false)
+    private long netChange;
+
+    @Column(nullable = false)
+    private long movementCount;
+}
@@ -1,48 +1,92 @@
 package com.inventory.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        @Index(name = "idx_products_quantity_id", columnList = "quantity, id"),
+        @Index(name = "idx_products_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_products_supplier_id", columnList = "supplier_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
+    // Пул идентификаторов из последовательности, общей с пакетным импортом (IdAllocator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
+    @Size(max = 255)
     @Column(nullable = false, unique = true)
     private String sku;
 
+    @NotBlank
+    @Size(max = 255)
     @Column(nullable = false)
     private String name;
 
+    @Size(max = 255)
     private String description;
 
+    @NotBlank
+    @Size(max = 255)
     @Column(nullable = false)
     private String category;
 
+    @NotNull
+    @PositiveOrZero
     @Column(nullable = false)
     private Double purchasePrice;
 
+    @NotNull
+    @PositiveOrZero
     @Column(nullable = false)
     private Double sellingPrice;
 
+    @NotNull
+    @PositiveOrZero
     @Column(nullable = false)
     private Integer quantity;
 
+    @NotNull
+    @PositiveOrZero
     @Column(nullable = false)
     private Integer minStockLevel;
 
+    @NotNull
+    @PositiveOrZero
     @Column(nullable = false)
     private Integer maxStockLevel;
 
-    private String supplier;
-
+    // Сумма активных резервов (StockReservation). Меняется только условными UPDATE репозитория,
+    // поэтому сохранение сущности целиком (форма редактирования) не затирает параллельный резерв
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Integer reservedQuantity = 0;
+
+    // Загружается только по требованию: запросы, которым нужен поставщик, подтягивают его join fetch
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "supplier_id", foreignKey = @ForeignKey(name = "fk_products_supplier"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Supplier supplier;
+
+    @NotBlank
+    @Size(max = 255)
     @Column(nullable = false)
     private String location;
 
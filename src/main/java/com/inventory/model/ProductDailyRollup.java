@@ -0,0 +1,53 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Движения товара за день, свёрнутые из журнала. Пересчитывается целиком из журнала,
+// поэтому поздние и исправляющие движения просто пересчитывают свой день
+@Entity
+@Table(name = "product_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_daily_rollups_product_day",
+                columnNames = {"product_id", "rollup_day"}),
+        indexes = @Index(name = "idx_product_daily_rollups_category_day", columnList = "category, rollup_day"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    // Приход и расход без знака, netChange - сумма со знаком
+    @Column(nullable = false)
+    private long inQuantity;
+
+    @Column(nullable = false)
+    private long outQuantity;
+
+    @Column(nullable = false)
+    private long netChange;
+
+    @Column(nullable = false)
+    private long movementCount;
+
+    // Остаток после последнего движения дня
+    @Column(nullable = false)
+    private int closingQuantity;
+
+    @Column(nullable = false)
+    private LocalDateTime lastMovementAt;
+}
@@ -0,0 +1,6 @@
+package com.inventory.model;
+
+// ACTIVE - единицы удерживаются; остальные статусы конечные
+public enum ReservationStatus {
+    ACTIVE, CONFIRMED, RELEASED, EXPIRED
+}
@@ -0,0 +1,30 @@
+package com.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Последний номер события журнала сканирования, применённый к остаткам. Обновляется в той же
+// транзакции, что и остатки, поэтому при повторе журнала после падения ничего не применяется дважды
+@Entity
+@Table(name = "scan_journal_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScanJournalCheckpoint {
+    @Id
+    @Column(length = 64)
+    private String journal;
+
+    @Column(nullable = false)
+    private long committedSequence;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
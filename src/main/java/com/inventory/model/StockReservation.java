@@ -0,0 +1,52 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Резерв товара под заказ: единицы удерживаются до подтверждения (списание), отмены или истечения срока
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "idx_stock_reservations_product_id", columnList = "product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_stock_reservations_product"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Статус меняется только условным UPDATE из ACTIVE (StockReservationRepository.close)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    // Номер заказа или другой внешний ключ; попадает в причину движения при подтверждении
+    private String reference;
+
+    @Column(nullable = false)
+    private String performedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime closedAt;
+}
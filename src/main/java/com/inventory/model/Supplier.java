@@ -6,29 +6,34 @@ import lombok.*;
 import java.util.List;
 
 @Entity
-@Table(name = "suppliers")
+@Table(name = "suppliers", indexes = {
+        @Index(name = "idx_suppliers_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Supplier {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "suppliers_seq")
+    @SequenceGenerator(name = "suppliers_seq", sequenceName = "suppliers_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    // Поставщик, заведённый по названию из карточки товара или импорта, контактов ещё не имеет
+    @Column(unique = true)
     private String email;
 
     private String phone;
 
     private String address;
 
-    @Column(nullable = false)
     private String contactPerson;
 
     @OneToMany(mappedBy = "supplier", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Product> products;
 }
\ No newline at end of file
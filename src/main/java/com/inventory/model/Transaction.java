@@ -2,30 +2,44 @@ package com.inventory.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 
+// Журнал движений остатков: записи только добавляются
 @Entity
-@Table(name = "transactions")
+@Immutable
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_product_id_id", columnList = "product_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
+    // Пул идентификаторов из последовательности: IDENTITY отключает пакетную вставку в Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
+    @ToString.Exclude
     private Product product;
 
-    @Column(nullable = false)
-    private String type; // IN, OUT, ADJUSTMENT
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionType type;
 
+    // Изменение остатка со знаком
     @Column(nullable = false)
     private Integer quantity;
 
+    // Остаток после движения
+    @Column(nullable = false)
+    private Integer quantityAfter;
+
     @Column(nullable = false)
     private String reason;
 
@@ -34,4 +48,4 @@ public class Transaction {
 
     @Column(nullable = false)
     private String performedBy;
-}
\ No newline at end of file
+}
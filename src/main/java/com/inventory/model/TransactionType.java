@@ -0,0 +1,23 @@
+package com.inventory.model;
+
+public enum TransactionType {
+    IN, OUT, ADJUSTMENT;
+
+    public static TransactionType fromString(String value) {
+        for (TransactionType type : values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type: " + value);
+    }
+
+    // Знак движения задаётся типом: IN всегда приход, OUT всегда расход, ADJUSTMENT как есть
+    public int signed(int quantity) {
+        return switch (this) {
+            case IN -> Math.abs(quantity);
+            case OUT -> -Math.abs(quantity);
+            case ADJUSTMENT -> quantity;
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+// Потоковое чтение товаров и дневного спроса для расчёта пополнения. Строки отдаются обработчику
+// по одной, без сущностей и промежуточных коллекций: на сотнях тысяч товаров это основная экономия памяти.
+// Транзакция нужна PostgreSQL, иначе fetchSize игнорируется и результат читается целиком
+@Repository
+@RequiredArgsConstructor
+public class DemandRepository {
+    static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int countProducts() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachProduct(ProductRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT p.id, p.sku, s.name, p.quantity, " +
+                    "p.min_stock_level, p.max_stock_level FROM products p LEFT JOIN suppliers s ON s.id = p.supplier_id " +
+                    "ORDER BY p.id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getInt(5), rs.getInt(6));
+        });
+    }
+
+    // Спрос - только расход (OUT) по дням, корректировки и приёмка не учитываются; строки по возрастанию id товара
+    @Transactional(readOnly = true)
+    public void forEachDailyDemand(LocalDate from, LocalDate to, DemandRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT product_id, SUM(-quantity) FROM transactions " +
+                    "WHERE type = 'OUT' AND transaction_date >= ? AND transaction_date < ? " +
+                    "GROUP BY product_id, CAST(transaction_date AS DATE) ORDER BY product_id");
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            statement.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2));
+        });
+    }
+
+    @FunctionalInterface
+    public interface ProductRowHandler {
+        void accept(long id, String sku, String supplier, int quantity, int minStockLevel, int maxStockLevel);
+    }
+
+    @FunctionalInterface
+    public interface DemandRowHandler {
+        void accept(long productId, long demand);
+    }
+}
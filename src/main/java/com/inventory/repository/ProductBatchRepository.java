@@ -0,0 +1,87 @@
+package com.inventory.repository;
+
+import com.inventory.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Массовая запись товаров через JDBC batch напрямую в таблицу, не создавая управляемых сущностей.
+// id новых товаров выдаёт IdAllocator из той же последовательности, что и Hibernate; поставщики уже должны быть записаны
+@Repository
+@RequiredArgsConstructor
+public class ProductBatchRepository {
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, category, purchase_price, " +
+            "selling_price, quantity, min_stock_level, max_stock_level, supplier_id, location, updated_at, sku, created_at, id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE products SET name = ?, description = ?, category = ?, " +
+            "purchase_price = ?, selling_price = ?, quantity = ?, min_stock_level = ?, max_stock_level = ?, " +
+            "supplier_id = ?, location = ?, updated_at = ? WHERE sku = ? AND reserved_quantity <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Существующие строки пакета блокируются в порядке id до чтения остатков: параллельные движения
+    // ждут коммита пакета, а не затираются им, и пересекающиеся пакеты не взаимоблокируются
+    public void lockAllBySku(Collection<String> skus) {
+        if (skus.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(skus.size(), "?"));
+        jdbcTemplate.query("SELECT id FROM products WHERE sku IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                }, skus.toArray());
+    }
+
+    public void insertAll(List<Product> products, LocalDateTime now) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, products, BATCH_SIZE, (ps, product) -> {
+            bindCommon(ps, product, now);
+            ps.setObject(13, now);
+            ps.setLong(14, product.getId());
+        });
+    }
+
+    // Остаток не опускается ниже резервов товара: такая строка не обновляется, и пакет откатывается ошибкой
+    public void updateAllBySku(List<Product> products, LocalDateTime now) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, products, BATCH_SIZE, (ps, product) -> {
+            bindCommon(ps, product, now);
+            ps.setInt(13, product.getQuantity());
+        });
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new DataIntegrityViolationException("quantity of " + products.get(index).getSku()
+                            + " cannot go below reserved stock");
+                }
+                index++;
+            }
+        }
+    }
+
+    // Общие параметры 1-12: поля товара, updated_at и sku
+    private static void bindCommon(PreparedStatement ps, Product product, LocalDateTime now) throws SQLException {
+        ps.setString(1, product.getName());
+        ps.setString(2, product.getDescription());
+        ps.setString(3, product.getCategory());
+        ps.setDouble(4, product.getPurchasePrice());
+        ps.setDouble(5, product.getSellingPrice());
+        ps.setInt(6, product.getQuantity());
+        ps.setInt(7, product.getMinStockLevel());
+        ps.setInt(8, product.getMaxStockLevel());
+        ps.setObject(9, product.getSupplier() != null ? product.getSupplier().getId() : null, Types.BIGINT);
+        ps.setString(10, product.getLocation());
+        ps.setObject(11, now);
+        ps.setString(12, product.getSku());
+    }
+}
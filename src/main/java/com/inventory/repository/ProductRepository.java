@@ -1,15 +1,36 @@
 package com.inventory.repository;
 
+import com.inventory.dto.CategoryStats;
+import com.inventory.dto.ProductSummary;
+import com.inventory.dto.SupplierLowStockItem;
+import com.inventory.dto.SupplierStats;
 import com.inventory.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    // Карточка товара кэшируется отсоединённой (ProductCache), поэтому поставщик читается сразу, тем же запросом
+    @Override
+    @EntityGraph(attributePaths = "supplier")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "supplier")
     Optional<Product> findBySku(String sku);
 
     List<Product> findByCategory(String category);
@@ -20,4 +41,75 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findLowStockProducts();
 
     List<Product> findByNameContainingIgnoreCase(String name);
+
+    @Query(ProductRepositoryImpl.SUMMARY_SELECT + " WHERE p.id = :id")
+    Optional<ProductSummary> findSummaryById(Long id);
+
+    @Query(ProductRepositoryImpl.SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query(ProductRepositoryImpl.SUMMARY_SELECT + " WHERE p.sku IN :skus")
+    List<ProductSummary> findSummariesBySkuIn(Collection<String> skus);
+
+    @Query(ProductRepositoryImpl.SUMMARY_SELECT)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ProductSummary> streamAllSummaries();
+
+    @Query("SELECT new com.inventory.dto.CategoryStats(p.category, COUNT(p), SUM(p.quantity * p.purchasePrice)) " +
+            "FROM Product p GROUP BY p.category")
+    List<CategoryStats> aggregateByCategory();
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.quantity <= p.minStockLevel")
+    long countLowStockProducts();
+
+    @Query("SELECT new com.inventory.dto.SupplierStats(COUNT(p), SUM(p.quantity * p.purchasePrice), " +
+            "SUM(CASE WHEN p.quantity <= p.minStockLevel THEN 1 ELSE 0 END)) FROM Product p WHERE p.supplier IS NULL")
+    SupplierStats aggregateWithoutSupplier();
+
+    // Позиции с низким запасом сразу с поставщиком: строки идут подряд по поставщику, от самых пустых
+    @Query("SELECT new com.inventory.dto.SupplierLowStockItem(s.id, p.id, p.sku, p.name, p.quantity, " +
+            "p.minStockLevel, p.maxStockLevel) FROM Product p LEFT JOIN p.supplier s " +
+            "WHERE p.quantity <= p.minStockLevel ORDER BY s.id, p.quantity, p.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<SupplierLowStockItem> streamLowStockBySupplier();
+
+    @Query(ProductRepositoryImpl.SUMMARY_SELECT + " WHERE p.quantity <= p.minStockLevel")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ProductSummary> streamLowStockSummaries();
+
+    // Блокировка строк по возрастанию id: пересекающиеся пачки движений ждут друг друга, а не взаимоблокируются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> lockAllByIdIn(Collection<Long> ids);
+
+    // Правка карточки под блокировкой строки: движение остатка считается от актуального значения,
+    // параллельные атомарные изменения ждут коммита, а не затираются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> lockById(Long id);
+
+    // Атомарное изменение остатка одним UPDATE; 0 строк - товара нет или списание залезло бы в резерв
+    // (остаток не опускается ниже reservedQuantity, обещанное под заказы не уходит мимо них)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :delta, p.updatedAt = :now " +
+            "WHERE p.id = :id AND (:delta > 0 OR p.quantity + :delta >= p.reservedQuantity)")
+    int applyStockDelta(Long id, int delta, LocalDateTime now);
+
+    // Резерв только из свободного остатка (quantity - reservedQuantity); 0 строк - товара нет или не хватает
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity " +
+            "WHERE p.id = :id AND p.quantity - p.reservedQuantity >= :quantity")
+    int reserveStock(Long id, int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity " +
+            "WHERE p.id = :id AND p.reservedQuantity >= :quantity")
+    int releaseReservedStock(Long id, int quantity);
+
+    // Подтверждение резерва: списание и снятие удержания одним UPDATE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, " +
+            "p.reservedQuantity = p.reservedQuantity - :quantity, p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.reservedQuantity >= :quantity AND p.quantity >= :quantity")
+    int consumeReservedStock(Long id, int quantity, LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductCursor;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSummary;
+import com.inventory.model.Product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+    List<ProductSummary> findSummaries(ProductPageRequest request, ProductCursor after, int limit);
+
+    Stream<Product> streamForExport(String category, LocalDateTime updatedSince);
+}
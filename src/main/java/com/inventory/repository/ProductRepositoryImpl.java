@@ -0,0 +1,107 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductCursor;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
+import com.inventory.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    static final String SUMMARY_SELECT = "SELECT new com.inventory.dto.ProductSummary(" +
+            "p.id, p.sku, p.name, p.description, p.category, p.quantity, p.minStockLevel, " +
+            "p.maxStockLevel, p.purchasePrice, p.sellingPrice, p.location, p.updatedAt) FROM Product p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findSummaries(ProductPageRequest request, ProductCursor after, int limit) {
+        ProductSortField sort = request.getSort();
+        String column = "p." + sort.getProperty();
+        String order = request.getDirection().isAscending() ? "ASC" : "DESC";
+        String comparison = request.getDirection().isAscending() ? ">" : "<";
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (request.getKeyword() != null && !request.getKeyword().isBlank()) {
+            conditions.add("LOWER(p.name) LIKE :keyword ESCAPE '\\'");
+            parameters.put("keyword", "%" + escapeLike(request.getKeyword().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (request.isLowStockOnly()) {
+            conditions.add("p.quantity <= p.minStockLevel");
+        }
+        // Keyset-условие: строки строго после последней строки предыдущей страницы
+        if (after != null) {
+            if (sort == ProductSortField.ID) {
+                conditions.add("p.id " + comparison + " :afterId");
+            } else {
+                conditions.add("(" + column + ", p.id) " + comparison + " (:afterValue, :afterId)");
+                parameters.put("afterValue", after.getValue());
+            }
+            parameters.put("afterId", after.getId());
+        }
+
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (sort == ProductSortField.ID) {
+            jpql.append(" ORDER BY p.id ").append(order);
+        } else {
+            jpql.append(" ORDER BY ").append(column).append(' ').append(order).append(", p.id ").append(order);
+        }
+
+        TypedQuery<ProductSummary> query = entityManager.createQuery(jpql.toString(), ProductSummary.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    // Однопроходный курсор по таблице; read-only - без снимков для dirty checking
+    @Override
+    public Stream<Product> streamForExport(String category, LocalDateTime updatedSince) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (category != null && !category.isBlank()) {
+            conditions.add("p.category = :category");
+            parameters.put("category", category.trim());
+        }
+        if (updatedSince != null) {
+            conditions.add("p.updatedAt >= :updatedSince");
+            parameters.put("updatedSince", updatedSince);
+        }
+
+        // Поставщик нужен в каждой строке выгрузки: join fetch вместо отдельного запроса на товар
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p LEFT JOIN FETCH p.supplier");
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY p.id");
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class)
+                .setHint(HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true);
+        parameters.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
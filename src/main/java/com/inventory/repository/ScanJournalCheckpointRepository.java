@@ -0,0 +1,9 @@
+package com.inventory.repository;
+
+import com.inventory.model.ScanJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScanJournalCheckpointRepository extends JpaRepository<ScanJournalCheckpoint, String> {
+}
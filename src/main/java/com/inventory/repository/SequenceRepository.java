@@ -0,0 +1,43 @@
+package com.inventory.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Последовательности БД для выдачи идентификаторов блоками. Значение последовательности - верхняя граница
+// блока, как у pooled-оптимизатора Hibernate, поэтому блоки сущностей и блоки из кода не пересекаются
+@Repository
+public class SequenceRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public SequenceRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    public long nextValue(String sequence) {
+        Long value = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        if (value == null) {
+            throw new IllegalStateException("Sequence " + sequence + " returned no value");
+        }
+        return value;
+    }
+
+    public void createIfMissing(String sequence, int increment) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS %s START WITH %d INCREMENT BY %d"
+                .formatted(sequence, increment, increment));
+    }
+
+    public void restart(String sequence, long value) {
+        jdbcTemplate.execute("ALTER SEQUENCE %s RESTART WITH %d".formatted(sequence, value));
+    }
+
+    public long findMaxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+}
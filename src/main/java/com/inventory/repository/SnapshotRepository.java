@@ -0,0 +1,37 @@
+package com.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+
+// Потоковое чтение колонок снимка остатков по возрастанию id. Транзакция только на чтение: при настроенных
+// репликах снимок снимается с реплики, а fetchSize в PostgreSQL работает лишь внутри транзакции
+@Repository
+@RequiredArgsConstructor
+public class SnapshotRepository {
+    static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public void forEachProduct(SnapshotRowHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT id, sku, category, quantity, " +
+                    "min_stock_level, purchase_price, selling_price FROM products ORDER BY id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getInt(5),
+                    rs.getDouble(6), rs.getDouble(7));
+        });
+    }
+
+    @FunctionalInterface
+    public interface SnapshotRowHandler {
+        void accept(long id, String sku, String category, int quantity, int minStockLevel,
+                    double purchasePrice, double sellingPrice);
+    }
+}
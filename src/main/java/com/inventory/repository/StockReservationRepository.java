@@ -0,0 +1,34 @@
+package com.inventory.repository;
+
+import com.inventory.dto.StockHold;
+import com.inventory.model.ReservationStatus;
+import com.inventory.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    String HOLD_SELECT = "SELECT new com.inventory.dto.StockHold(r.id, r.product.id, r.quantity, r.status, " +
+            "r.reference, r.performedBy, r.createdAt, r.expiresAt, r.closedAt) FROM StockReservation r";
+
+    @Query(HOLD_SELECT + " WHERE r.id = :id")
+    Optional<StockHold> findHold(Long id);
+
+    // Восстановление таймеров истечения после рестарта
+    @Query(HOLD_SELECT + " WHERE r.status = com.inventory.model.ReservationStatus.ACTIVE ORDER BY r.expiresAt")
+    List<StockHold> findActiveHolds();
+
+    boolean existsByProductId(Long productId);
+
+    // Закрыть можно только активный резерв: из гонки подтверждения и истечения выигрывает ровно один
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :status, r.closedAt = :now " +
+            "WHERE r.id = :id AND r.status = com.inventory.model.ReservationStatus.ACTIVE")
+    int close(Long id, ReservationStatus status, LocalDateTime now);
+}
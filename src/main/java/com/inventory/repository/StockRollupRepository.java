@@ -0,0 +1,195 @@
+package com.inventory.repository;
+
+import com.inventory.model.CategoryDailyRollup;
+import com.inventory.model.ProductDailyRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Дневные сводки движений. Сводки товара считаются из журнала одним проходом с оконными функциями:
+// суммы по (товар, день) и остаток последнего движения дня. Сводки категорий - из сводок товаров
+@Repository
+@RequiredArgsConstructor
+public class StockRollupRepository {
+    static final int BATCH_SIZE = 500;
+
+    private static final String DAY = "CAST(t.transaction_date AS DATE)";
+    private static final String PARTITION = "PARTITION BY t.product_id, " + DAY;
+
+    private static final String AGGREGATE_SQL = "SELECT product_id, category, rollup_day, in_quantity, out_quantity, " +
+            "net_change, movement_count, quantity_after, transaction_date FROM (" +
+            "SELECT t.product_id, p.category, " + DAY + " AS rollup_day, " +
+            "SUM(CASE WHEN t.quantity > 0 THEN t.quantity ELSE 0 END) OVER (" + PARTITION + ") AS in_quantity, " +
+            "SUM(CASE WHEN t.quantity < 0 THEN -t.quantity ELSE 0 END) OVER (" + PARTITION + ") AS out_quantity, " +
+            "SUM(t.quantity) OVER (" + PARTITION + ") AS net_change, " +
+            "COUNT(*) OVER (" + PARTITION + ") AS movement_count, " +
+            "t.quantity_after, t.transaction_date, " +
+            "ROW_NUMBER() OVER (" + PARTITION + " ORDER BY t.transaction_date DESC, t.id DESC) AS rn " +
+            "FROM transactions t JOIN products p ON p.id = t.product_id " +
+            "WHERE %s AND t.transaction_date >= :fromTime AND t.transaction_date < :toTime" +
+            ") x WHERE rn = 1";
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO product_daily_rollups (product_id, category, " +
+            "rollup_day, in_quantity, out_quantity, net_change, movement_count, closing_quantity, last_movement_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REFRESH_CATEGORY_SQL = "INSERT INTO category_daily_rollups (category, rollup_day, " +
+            "in_quantity, out_quantity, net_change, movement_count) " +
+            "SELECT category, rollup_day, SUM(in_quantity), SUM(out_quantity), SUM(net_change), SUM(movement_count) " +
+            "FROM product_daily_rollups WHERE rollup_day BETWEEN :from AND :to %s GROUP BY category, rollup_day";
+
+    private static final RowMapper<ProductDailyRollup> AGGREGATE_MAPPER = (rs, row) -> ProductDailyRollup.builder()
+            .productId(rs.getLong("product_id"))
+            .category(rs.getString("category"))
+            .day(rs.getDate("rollup_day").toLocalDate())
+            .inQuantity(rs.getLong("in_quantity"))
+            .outQuantity(rs.getLong("out_quantity"))
+            .netChange(rs.getLong("net_change"))
+            .movementCount(rs.getLong("movement_count"))
+            .closingQuantity(rs.getInt("quantity_after"))
+            .lastMovementAt(rs.getTimestamp("transaction_date").toLocalDateTime())
+            .build();
+
+    private static final RowMapper<ProductDailyRollup> PRODUCT_MAPPER = (rs, row) -> ProductDailyRollup.builder()
+            .id(rs.getLong("id"))
+            .productId(rs.getLong("product_id"))
+            .category(rs.getString("category"))
+            .day(rs.getDate("rollup_day").toLocalDate())
+            .inQuantity(rs.getLong("in_quantity"))
+            .outQuantity(rs.getLong("out_quantity"))
+            .netChange(rs.getLong("net_change"))
+            .movementCount(rs.getLong("movement_count"))
+            .closingQuantity(rs.getInt("closing_quantity"))
+            .lastMovementAt(rs.getTimestamp("last_movement_at").toLocalDateTime())
+            .build();
+
+    private static final RowMapper<CategoryDailyRollup> CATEGORY_MAPPER = (rs, row) -> CategoryDailyRollup.builder()
+            .id(rs.getLong("id"))
+            .category(rs.getString("category"))
+            .day(rs.getDate("rollup_day").toLocalDate())
+            .inQuantity(rs.getLong("in_quantity"))
+            .outQuantity(rs.getLong("out_quantity"))
+            .netChange(rs.getLong("net_change"))
+            .movementCount(rs.getLong("movement_count"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    // Сводки из журнала за один день для указанных товаров (инкрементальный пересчёт)
+    public List<ProductDailyRollup> aggregate(Collection<Long> productIds, LocalDate day) {
+        return jdbc.query(AGGREGATE_SQL.formatted("t.product_id IN (:ids)"),
+                range(day, day).addValue("ids", productIds), AGGREGATE_MAPPER);
+    }
+
+    // Сводки из журнала за период для диапазона id товаров (перестроение частями)
+    public List<ProductDailyRollup> aggregate(long fromProductId, long toProductId, LocalDate from, LocalDate to) {
+        return jdbc.query(AGGREGATE_SQL.formatted("t.product_id BETWEEN :fromId AND :toId"),
+                range(from, to).addValue("fromId", fromProductId).addValue("toId", toProductId), AGGREGATE_MAPPER);
+    }
+
+    // Категории, в которые товары попадали в этот день: при смене категории пересчитать нужно и старую
+    public Set<String> findCategories(Collection<Long> productIds, LocalDate day) {
+        return new HashSet<>(jdbc.queryForList("SELECT DISTINCT category FROM product_daily_rollups " +
+                        "WHERE product_id IN (:ids) AND rollup_day = :day",
+                new MapSqlParameterSource("ids", productIds).addValue("day", Date.valueOf(day)), String.class));
+    }
+
+    public void deleteProductRollups(Collection<Long> productIds, LocalDate day) {
+        jdbc.update("DELETE FROM product_daily_rollups WHERE product_id IN (:ids) AND rollup_day = :day",
+                new MapSqlParameterSource("ids", productIds).addValue("day", Date.valueOf(day)));
+    }
+
+    public void deleteProductRollups(long fromProductId, long toProductId, LocalDate from, LocalDate to) {
+        jdbc.update("DELETE FROM product_daily_rollups WHERE product_id BETWEEN :fromId AND :toId " +
+                        "AND rollup_day BETWEEN :from AND :to",
+                days(from, to).addValue("fromId", fromProductId).addValue("toId", toProductId));
+    }
+
+    public void insertProductRollups(List<ProductDailyRollup> rollups) {
+        jdbc.getJdbcTemplate().batchUpdate(INSERT_PRODUCT_SQL, rollups, BATCH_SIZE, (ps, rollup) -> {
+            ps.setLong(1, rollup.getProductId());
+            ps.setString(2, rollup.getCategory());
+            ps.setDate(3, Date.valueOf(rollup.getDay()));
+            ps.setLong(4, rollup.getInQuantity());
+            ps.setLong(5, rollup.getOutQuantity());
+            ps.setLong(6, rollup.getNetChange());
+            ps.setLong(7, rollup.getMovementCount());
+            ps.setInt(8, rollup.getClosingQuantity());
+            ps.setTimestamp(9, Timestamp.valueOf(rollup.getLastMovementAt()));
+        });
+    }
+
+    // categories == null - все категории периода
+    public void refreshCategoryRollups(LocalDate from, LocalDate to, Collection<String> categories) {
+        MapSqlParameterSource params = days(from, to);
+        String filter = "";
+        if (categories != null) {
+            if (categories.isEmpty()) {
+                return;
+            }
+            filter = "AND category IN (:categories)";
+            params.addValue("categories", categories);
+        }
+        jdbc.update("DELETE FROM category_daily_rollups WHERE rollup_day BETWEEN :from AND :to " + filter, params);
+        jdbc.update(REFRESH_CATEGORY_SQL.formatted(filter), params);
+    }
+
+    // Границы id товаров с движениями за период; пусто - движений нет
+    public Optional<long[]> findProductIdBounds(LocalDate from, LocalDate to) {
+        return jdbc.query("SELECT MIN(product_id) AS min_id, MAX(product_id) AS max_id FROM transactions " +
+                        "WHERE transaction_date >= :fromTime AND transaction_date < :toTime",
+                range(from, to), rs -> {
+                    rs.next();
+                    long min = rs.getLong("min_id");
+                    return rs.wasNull() ? Optional.empty() : Optional.of(new long[]{min, rs.getLong("max_id")});
+                });
+    }
+
+    public List<ProductDailyRollup> findProductRollups(Long productId, LocalDate from, LocalDate to) {
+        return jdbc.query("SELECT * FROM product_daily_rollups WHERE product_id = :productId " +
+                        "AND rollup_day BETWEEN :from AND :to ORDER BY rollup_day",
+                days(from, to).addValue("productId", productId), PRODUCT_MAPPER);
+    }
+
+    public Optional<ProductDailyRollup> findLastProductRollupBefore(Long productId, LocalDate day) {
+        return jdbc.query("SELECT * FROM product_daily_rollups WHERE product_id = :productId " +
+                        "AND rollup_day < :day ORDER BY rollup_day DESC FETCH FIRST 1 ROWS ONLY",
+                new MapSqlParameterSource("productId", productId).addValue("day", Date.valueOf(day)),
+                PRODUCT_MAPPER).stream().findFirst();
+    }
+
+    public List<CategoryDailyRollup> findCategoryRollups(String category, LocalDate from, LocalDate to) {
+        return jdbc.query("SELECT * FROM category_daily_rollups WHERE category = :category " +
+                        "AND rollup_day BETWEEN :from AND :to ORDER BY rollup_day",
+                days(from, to).addValue("category", category), CATEGORY_MAPPER);
+    }
+
+    // Остаток категории на конец дня по журналу: сумма последних дневных остатков её товаров
+    public long findCategoryLevel(String category, LocalDate day) {
+        Long level = jdbc.queryForObject("SELECT COALESCE(SUM(r.closing_quantity), 0) FROM product_daily_rollups r " +
+                        "WHERE r.category = :category AND r.rollup_day = (SELECT MAX(r2.rollup_day) " +
+                        "FROM product_daily_rollups r2 WHERE r2.product_id = r.product_id AND r2.rollup_day <= :day)",
+                new MapSqlParameterSource("category", category).addValue("day", Date.valueOf(day)), Long.class);
+        return level != null ? level : 0;
+    }
+
+    private static MapSqlParameterSource range(LocalDate from, LocalDate to) {
+        return new MapSqlParameterSource("fromTime", Timestamp.valueOf(from.atStartOfDay()))
+                .addValue("toTime", Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    private static MapSqlParameterSource days(LocalDate from, LocalDate to) {
+        return new MapSqlParameterSource("from", Date.valueOf(from)).addValue("to", Date.valueOf(to));
+    }
+}
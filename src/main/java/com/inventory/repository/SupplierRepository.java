@@ -1,9 +1,13 @@
 package com.inventory.repository;
 
+import com.inventory.dto.SupplierStats;
 import com.inventory.model.Supplier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,13 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     Optional<Supplier> findByEmail(String email);
 
     Optional<Supplier> findByName(String name);
-}
\ No newline at end of file
+
+    List<Supplier> findByNameInOrderByIdAsc(Collection<String> names);
+
+    // Все поставщики одним запросом, включая тех, у кого товаров нет
+    @Query("SELECT new com.inventory.dto.SupplierStats(s.id, s.name, s.contactPerson, s.email, s.phone, COUNT(p), " +
+            "SUM(p.quantity * p.purchasePrice), SUM(CASE WHEN p.quantity <= p.minStockLevel THEN 1 ELSE 0 END)) " +
+            "FROM Supplier s LEFT JOIN s.products p " +
+            "GROUP BY s.id, s.name, s.contactPerson, s.email, s.phone ORDER BY s.name, s.id")
+    List<SupplierStats> aggregateBySupplier();
+}
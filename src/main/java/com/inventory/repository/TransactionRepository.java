@@ -0,0 +1,22 @@
+package com.inventory.repository;
+
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Transaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
+    String MOVEMENT_SELECT = "SELECT new com.inventory.dto.StockMovement(t.id, t.type, t.quantity, " +
+            "t.quantityAfter, t.reason, t.transactionDate, t.performedBy) FROM Transaction t";
+
+    boolean existsByProductId(Long productId);
+
+    // История движений товара от новых к старым, keyset по id
+    @Query(MOVEMENT_SELECT + " WHERE t.product.id = :productId AND t.id < :beforeId ORDER BY t.id DESC")
+    List<StockMovement> findHistory(Long productId, Long beforeId, Pageable pageable);
+}
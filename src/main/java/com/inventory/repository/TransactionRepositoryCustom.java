@@ -0,0 +1,10 @@
+package com.inventory.repository;
+
+import com.inventory.dto.LedgerEntry;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    Stream<LedgerEntry> streamLedger(Long productId, LocalDateTime since);
+}
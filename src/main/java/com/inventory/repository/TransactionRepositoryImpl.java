@@ -0,0 +1,50 @@
+package com.inventory.repository;
+
+import com.inventory.dto.LedgerEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+    static final String LEDGER_SELECT = "SELECT new com.inventory.dto.LedgerEntry(t.id, p.id, p.sku, t.type, " +
+            "t.quantity, t.quantityAfter, t.reason, t.transactionDate, t.performedBy) " +
+            "FROM Transaction t JOIN t.product p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Проекция, а не сущности: в контексте персистентности ничего не накапливается
+    @Override
+    public Stream<LedgerEntry> streamLedger(Long productId, LocalDateTime since) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (productId != null) {
+            conditions.add("p.id = :productId");
+            parameters.put("productId", productId);
+        }
+        if (since != null) {
+            conditions.add("t.transactionDate >= :since");
+            parameters.put("since", since);
+        }
+
+        StringBuilder jpql = new StringBuilder(LEDGER_SELECT);
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(" ORDER BY t.id");
+
+        TypedQuery<LedgerEntry> query = entityManager.createQuery(jpql.toString(), LedgerEntry.class)
+                .setHint(HINT_FETCH_SIZE, ProductRepositoryImpl.EXPORT_FETCH_SIZE);
+        parameters.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+}
@@ -0,0 +1,211 @@
+package com.inventory.service;
+
+import com.inventory.dto.CategoryStats;
+import com.inventory.dto.InventoryTotals;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Агрегаты для панели управления, поддерживаемые инкрементально по событиям записи
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryAggregateStore {
+    private static final double VALUE_TOLERANCE = 0.01;
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    private final ProductRepository productRepository;
+    private final AtomicReference<State> state = new AtomicReference<>(new State());
+
+    private final Object monitor = new Object();
+    // Число записей за время загрузки из БД (снимок тогда не ставится); -1 - загрузки нет
+    private int writesDuringLoad = -1;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (monitor) {
+            apply(state.get(), event);
+            if (writesDuringLoad >= 0) {
+                writesDuringLoad++;
+            }
+        }
+    }
+
+    public InventoryTotals getTotals() {
+        return state.get().toTotals();
+    }
+
+    // Новое состояние строится в стороне и ставится, только если за время загрузки не было записей:
+    // событие во время загрузки могло уже попасть в снимок БД, и доигрывание посчитало бы его дважды.
+    // При непрерывных записях после нескольких попыток ставится последний снимок - его поправит сверка
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            startLoad();
+            try {
+                State fresh = load();
+                synchronized (monitor) {
+                    boolean quiet = writesDuringLoad == 0;
+                    if (quiet || attempt == MAX_REBUILD_ATTEMPTS) {
+                        if (!quiet) {
+                            log.warn("Inventory aggregates rebuilt while {} writes were in flight, "
+                                    + "the next reconcile will correct them", writesDuringLoad);
+                        }
+                        state.set(fresh);
+                        break;
+                    }
+                }
+            } finally {
+                finishLoad();
+            }
+        }
+        log.info("Inventory aggregates rebuilt: {} products", state.get().toTotals().getTotalProducts());
+    }
+
+    // Сверка с БД: события обрабатываются после коммита, и гонки updateProduct могут дать дрейф.
+    // Снимок сравнивается, только если во время загрузки не было записей (по той же причине, что и
+    // в rebuild); иначе расхождение перепроверяется на следующей сверке
+    @Scheduled(fixedDelayString = "${inventory.aggregates.reconcile-interval:PT5M}",
+            initialDelayString = "${inventory.aggregates.reconcile-interval:PT5M}")
+    public void reconcile() {
+        startLoad();
+        try {
+            State fresh = load();
+            synchronized (monitor) {
+                if (writesDuringLoad > 0) {
+                    log.debug("{} writes were in flight while reconciling inventory aggregates, rechecking next time",
+                            writesDuringLoad);
+                    return;
+                }
+                InventoryTotals expected = fresh.toTotals();
+                InventoryTotals actual = getTotals();
+                if (matches(expected, actual)) {
+                    return;
+                }
+                log.warn("Inventory aggregates drifted (products {} vs {}, value {} vs {}, low stock {} vs {}), replacing",
+                        actual.getTotalProducts(), expected.getTotalProducts(),
+                        actual.getTotalValue(), expected.getTotalValue(),
+                        actual.getLowStockCount(), expected.getLowStockCount());
+                state.set(fresh);
+            }
+        } finally {
+            finishLoad();
+        }
+    }
+
+    private void startLoad() {
+        synchronized (monitor) {
+            writesDuringLoad = 0;
+        }
+    }
+
+    private void finishLoad() {
+        synchronized (monitor) {
+            writesDuringLoad = -1;
+        }
+    }
+
+    private static void apply(State target, ProductChangedEvent event) {
+        if (event.getBefore() != null) {
+            target.add(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            target.add(event.getAfter(), 1);
+        }
+    }
+
+    private State load() {
+        State fresh = new State();
+        List<CategoryStats> categories = productRepository.aggregateByCategory();
+        for (CategoryStats stats : categories) {
+            CategoryTotals totals = fresh.category(stats.getCategory());
+            totals.count.add(stats.getProductCount());
+            totals.value.add(stats.getTotalValue());
+        }
+        fresh.lowStockCount.add(productRepository.countLowStockProducts());
+        return fresh;
+    }
+
+    private static boolean matches(InventoryTotals expected, InventoryTotals actual) {
+        if (expected.getTotalProducts() != actual.getTotalProducts()
+                || expected.getLowStockCount() != actual.getLowStockCount()
+                || !expected.getCategoryCounts().equals(actual.getCategoryCounts())) {
+            return false;
+        }
+        for (Map.Entry<String, Double> entry : expected.getCategoryValues().entrySet()) {
+            double value = actual.getCategoryValues().getOrDefault(entry.getKey(), 0.0);
+            if (Math.abs(entry.getValue() - value) > VALUE_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double valueOf(ProductSummary product) {
+        if (product.getQuantity() == null || product.getPurchasePrice() == null) {
+            return 0.0;
+        }
+        return product.getQuantity() * product.getPurchasePrice();
+    }
+
+    private static boolean isLowStock(ProductSummary product) {
+        return product.getQuantity() != null && product.getMinStockLevel() != null
+                && product.getQuantity() <= product.getMinStockLevel();
+    }
+
+    private static class CategoryTotals {
+        final LongAdder count = new LongAdder();
+        final DoubleAdder value = new DoubleAdder();
+    }
+
+    private static class State {
+        final ConcurrentHashMap<String, CategoryTotals> categories = new ConcurrentHashMap<>();
+        final LongAdder lowStockCount = new LongAdder();
+
+        CategoryTotals category(String name) {
+            return categories.computeIfAbsent(name, key -> new CategoryTotals());
+        }
+
+        void add(ProductSummary product, int sign) {
+            CategoryTotals totals = category(product.getCategory());
+            totals.count.add(sign);
+            totals.value.add(sign * valueOf(product));
+            if (isLowStock(product)) {
+                lowStockCount.add(sign);
+            }
+        }
+
+        InventoryTotals toTotals() {
+            Map<String, Long> counts = new TreeMap<>();
+            Map<String, Double> values = new TreeMap<>();
+            long totalProducts = 0;
+            double totalValue = 0;
+            for (Map.Entry<String, CategoryTotals> entry : categories.entrySet()) {
+                long count = entry.getValue().count.sum();
+                double value = entry.getValue().value.sum();
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                    values.put(entry.getKey(), value);
+                }
+                totalProducts += count;
+                totalValue += value;
+            }
+            return new InventoryTotals(totalProducts, totalValue, lowStockCount.sum(), counts, values);
+        }
+    }
+}
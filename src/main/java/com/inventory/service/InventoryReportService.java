@@ -1,43 +1,56 @@
 package com.inventory.service;
 
-import com.inventory.model.Product;
+import com.inventory.dto.InventoryTotals;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
 import com.inventory.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "inventory.service", histogram = true)
 public class InventoryReportService {
+    static final int DASHBOARD_LOW_STOCK_LIMIT = 10;
+
     private final ProductRepository productRepository;
+    private final InventoryAggregateStore aggregateStore;
+    private final LowStockEngine lowStockEngine;
 
+    @Transactional(readOnly = true)
     public Map<String, Object> generateInventoryReport() {
         Map<String, Object> report = new HashMap<>();
-        List<Product> allProducts = productRepository.findAll();
-
-        // Общая стоимость инвентаря
-        double totalValue = allProducts.stream()
-                .mapToDouble(p -> p.getQuantity() * p.getPurchasePrice())
-                .sum();
-
-        // Товары с низким запасом
-        List<Product> lowStockProducts = productRepository.findLowStockProducts();
-
-        // Распределение по категориям
-        Map<String, Long> categoryDistribution = allProducts.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        Product::getCategory,
-                        java.util.stream.Collectors.counting()
-                ));
-
-        report.put("totalProducts", allProducts.size());
-        report.put("totalInventoryValue", totalValue);
-        report.put("lowStockCount", lowStockProducts.size());
+        // Итоги берутся из инкрементально поддерживаемых агрегатов, без чтения всей таблицы
+        InventoryTotals totals = aggregateStore.getTotals();
+
+        // Товары с низким запасом: первые позиции из памяти, полный список на /products/low-stock
+        long lowStockCount = totals.getLowStockCount();
+        List<ProductSummary> lowStockProducts;
+        if (lowStockEngine.isReady()) {
+            lowStockCount = lowStockEngine.size();
+            lowStockProducts = lowStockEngine.top(0, DASHBOARD_LOW_STOCK_LIMIT);
+        } else {
+            ProductPageRequest lowStockRequest = ProductPageRequest.builder()
+                    .lowStockOnly(true)
+                    .sort(ProductSortField.QUANTITY)
+                    .build();
+            lowStockProducts = productRepository.findSummaries(lowStockRequest, null, DASHBOARD_LOW_STOCK_LIMIT);
+        }
+
+        report.put("totalProducts", totals.getTotalProducts());
+        report.put("totalInventoryValue", totals.getTotalValue());
+        report.put("lowStockCount", lowStockCount);
         report.put("lowStockProducts", lowStockProducts);
-        report.put("categoryDistribution", categoryDistribution);
+        report.put("categoryDistribution", totals.getCategoryCounts());
+        report.put("categoryValues", totals.getCategoryValues());
 
         return report;
     }
-}
\ No newline at end of file
+}
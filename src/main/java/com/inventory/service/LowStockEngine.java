@@ -0,0 +1,241 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.event.StockThresholdCrossedEvent;
+import com.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Товары с остатком не выше минимального, упорядоченные по доле остатка от минимума.
+// Поддерживается по событиям записи; список для панели и /products/low-stock читается без БД
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LowStockEngine implements MeterBinder {
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Object monitor = new Object();
+    // Последнее событие по каждому товару, изменённому во время перестроения или сверки
+    private Map<Long, ProductChangedEvent> changedDuringRefresh;
+    private volatile State state;
+
+    private final LongAdder entered = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (monitor) {
+            if (state != null) {
+                apply(state, event.getProductId(), event.getAfter(), true);
+            }
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.put(event.getProductId(), event);
+            }
+        }
+    }
+
+    // Новое состояние строится в стороне и подменяет старое; изменения за время построения доигрываются.
+    // Перестроение не порождает событий пересечения - это не изменение остатков
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        startRefresh();
+        try {
+            State fresh = new State();
+            try (Stream<ProductSummary> products = productRepository.streamLowStockSummaries()) {
+                products.forEach(product -> apply(fresh, product.getId(), product, false));
+            }
+            synchronized (monitor) {
+                changedDuringRefresh.forEach((id, event) -> apply(fresh, id, event.getAfter(), false));
+                state = fresh;
+            }
+            log.info("Low stock set rebuilt: {} products", fresh.ordered.size());
+        } finally {
+            finishRefresh();
+        }
+    }
+
+    // Сверка с БД: события обрабатываются после коммита и конкурирующие транзакции могут прийти
+    // не по порядку. Расхождения исправляются с событиями пересечения; товары, изменённые во время
+    // сверки, не трогаются - для них последнее слово за событием
+    @Scheduled(fixedDelayString = "${inventory.low-stock.reconcile-interval:PT5M}",
+            initialDelayString = "${inventory.low-stock.reconcile-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        startRefresh();
+        try {
+            Map<Long, ProductSummary> expected = new HashMap<>();
+            try (Stream<ProductSummary> products = productRepository.streamLowStockSummaries()) {
+                products.forEach(product -> expected.put(product.getId(), product));
+            }
+            Set<Long> stale = new HashSet<>(current.members.keySet());
+            stale.removeAll(expected.keySet());
+            Map<Long, ProductSummary> recheck = new HashMap<>();
+            if (!stale.isEmpty()) {
+                productRepository.findSummariesByIdIn(stale)
+                        .forEach(product -> recheck.put(product.getId(), product));
+            }
+
+            int drifted = 0;
+            synchronized (monitor) {
+                for (ProductSummary product : expected.values()) {
+                    if (!changedDuringRefresh.containsKey(product.getId())
+                            && apply(current, product.getId(), product, true)) {
+                        drifted++;
+                    }
+                }
+                for (Long id : stale) {
+                    if (!changedDuringRefresh.containsKey(id) && apply(current, id, recheck.get(id), true)) {
+                        drifted++;
+                    }
+                }
+            }
+            if (drifted > 0) {
+                log.warn("Low stock set drifted by {} products, corrected", drifted);
+            }
+        } finally {
+            finishRefresh();
+        }
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public int size() {
+        State current = state;
+        return current == null ? 0 : current.ordered.size();
+    }
+
+    // Товары в порядке возрастания доли остатка от минимума, при равенстве - по id
+    public List<ProductSummary> top(int offset, int limit) {
+        State current = state;
+        if (current == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<ProductSummary> result = new ArrayList<>(Math.min(limit, current.ordered.size()));
+        int skipped = 0;
+        for (ProductSummary product : current.ordered.values()) {
+            if (skipped++ < offset) {
+                continue;
+            }
+            result.add(product);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.low-stock.size", this, LowStockEngine::size)
+                .description("Products at or below their minimum stock level")
+                .register(registry);
+        FunctionCounter.builder("inventory.low-stock.crossings", entered, LongAdder::sum)
+                .tag("direction", "entered")
+                .register(registry);
+        FunctionCounter.builder("inventory.low-stock.crossings", recovered, LongAdder::sum)
+                .tag("direction", "recovered")
+                .register(registry);
+    }
+
+    private void startRefresh() {
+        synchronized (monitor) {
+            changedDuringRefresh = new HashMap<>();
+        }
+    }
+
+    private void finishRefresh() {
+        synchronized (monitor) {
+            changedDuringRefresh = null;
+        }
+    }
+
+    // product == null - товар удалён. Возвращает true, если товар пересёк порог
+    private boolean apply(State target, Long id, ProductSummary product, boolean publish) {
+        boolean low = product != null && isLowStock(product);
+        Key key = low ? Key.of(product) : null;
+        Key previous = low ? target.members.put(id, key) : target.members.remove(id);
+        ProductSummary last = previous != null ? target.ordered.remove(previous) : null;
+        if (low) {
+            target.ordered.put(key, product);
+        }
+        boolean crossed = (previous != null) != low;
+        if (crossed && publish) {
+            // Публикация под монитором: пересечения одного товара не могут обогнать друг друга
+            if (low) {
+                entered.increment();
+                log.info("Product {} ({}) reached low stock: {} of minimum {}",
+                        id, product.getSku(), product.getQuantity(), product.getMinStockLevel());
+                eventPublisher.publishEvent(StockThresholdCrossedEvent.entered(product));
+            } else {
+                recovered.increment();
+                eventPublisher.publishEvent(StockThresholdCrossedEvent.recovered(product != null ? product : last));
+            }
+        }
+        return crossed;
+    }
+
+    private static boolean isLowStock(ProductSummary product) {
+        return product.getQuantity() != null && product.getMinStockLevel() != null
+                && product.getQuantity() <= product.getMinStockLevel();
+    }
+
+    private static class State {
+        final ConcurrentSkipListMap<Key, ProductSummary> ordered = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<Long, Key> members = new ConcurrentHashMap<>();
+    }
+
+    // Доля остатка от минимума; при нулевом минимуме товар с нулевым остатком идёт первым
+    private static final class Key implements Comparable<Key> {
+        final double ratio;
+        final long id;
+
+        private Key(double ratio, long id) {
+            this.ratio = ratio;
+            this.id = id;
+        }
+
+        static Key of(ProductSummary product) {
+            int minimum = product.getMinStockLevel();
+            double ratio = minimum > 0 ? (double) product.getQuantity() / minimum : 0.0;
+            return new Key(ratio, product.getId());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byRatio = Double.compare(ratio, other.ratio);
+            return byRatio != 0 ? byRatio : Long.compare(id, other.id);
+        }
+    }
+}
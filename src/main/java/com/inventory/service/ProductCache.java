@@ -0,0 +1,159 @@
+package com.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// Ограниченный кэш товаров по id и SKU. Наружу отдаются только копии, чтобы изменение
+// полученного объекта не портило кэш. Сбрасывается после коммита любого изменения товара
+@Component
+public class ProductCache implements MeterBinder {
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, Product> byId;
+    private final Cache<String, Long> idBySku;
+    // Поколения по полосам ключей: загрузка, начатая до сброса, не может положить в кэш старое значение
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    // При чтении с реплик сразу после сброса загрузка может вернуть ещё не доехавшую версию:
+    // такие значения отдаются, но не кэшируются, пока не пройдёт допустимое отставание реплик
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+    private final long replicaLagNanos;
+
+    public ProductCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, Duration.ZERO);
+    }
+
+    @Autowired
+    public ProductCache(@Value("${inventory.cache.products.maximum-size:10000}") long maximumSize,
+                        @Value("${inventory.cache.products.ttl:PT10M}") Duration ttl,
+                        @Value("${inventory.cache.products.replica-lag:PT0S}") Duration replicaLag) {
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idBySku = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Product> getById(Long id, Function<Long, Optional<Product>> loader) {
+        Product cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+        long generation = generation(id);
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> {
+            byId.put(id, copy(product));
+            // Сброс мог пройти между загрузкой и записью - тогда записанное значение уже устарело
+            if (generation(id) != generation || settling(id)) {
+                byId.invalidate(id);
+            }
+        });
+        return loaded;
+    }
+
+    public Optional<Product> getBySku(String sku, Function<String, Optional<Product>> loader) {
+        Long id = idBySku.getIfPresent(sku);
+        if (id != null) {
+            Product cached = byId.getIfPresent(id);
+            if (cached != null && sku.equals(cached.getSku())) {
+                return Optional.of(copy(cached));
+            }
+        }
+        long skuGeneration = generation(sku);
+        Optional<Product> loaded = loader.apply(sku);
+        loaded.ifPresent(product -> {
+            long idGeneration = generation(product.getId());
+            idBySku.put(sku, product.getId());
+            byId.put(product.getId(), copy(product));
+            if (generation(sku) != skuGeneration || generation(product.getId()) != idGeneration
+                    || settling(sku) || settling(product.getId())) {
+                idBySku.invalidate(sku);
+                byId.invalidate(product.getId());
+            }
+        });
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductId());
+        invalidateSku(event.getBefore());
+        invalidateSku(event.getAfter());
+    }
+
+    public void invalidate(Long id) {
+        bump(id);
+        byId.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+            if (replicaLagNanos > 0) {
+                invalidatedAt.set(i, now);
+            }
+        }
+        byId.invalidateAll();
+        idBySku.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "products");
+        CaffeineCacheMetrics.monitor(registry, idBySku, "products-by-sku");
+    }
+
+    private void invalidateSku(ProductSummary product) {
+        if (product != null && product.getSku() != null) {
+            bump(product.getSku());
+            idBySku.invalidate(product.getSku());
+        }
+    }
+
+    private void bump(Object key) {
+        int stripe = stripe(key);
+        generations.incrementAndGet(stripe);
+        if (replicaLagNanos > 0) {
+            invalidatedAt.set(stripe, System.nanoTime());
+        }
+    }
+
+    private boolean settling(Object key) {
+        return replicaLagNanos > 0 && System.nanoTime() - invalidatedAt.get(stripe(key)) < replicaLagNanos;
+    }
+
+    private long generation(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int hash = Objects.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static Product copy(Product product) {
+        return product.toBuilder().build();
+    }
+}
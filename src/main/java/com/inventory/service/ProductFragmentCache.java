@@ -0,0 +1,129 @@
+package com.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Кэш отрендеренных строк товаров (products/fragments): страница списка собирается из готового HTML,
+// рендерятся только изменившиеся строки. Запись действительна, пока совпадает проекция товара, из которой
+// она построена (включая updatedAt), и сбрасывается после коммита изменения товара.
+// При spring.thymeleaf.cache=false (разработка) строки рендерятся каждый раз
+@Component
+public class ProductFragmentCache implements MeterBinder {
+    public static final String ROW = "row";
+    public static final String LOW_STOCK_ROW = "lowStockRow";
+    static final String TEMPLATE = "products/fragments";
+
+    private final ITemplateEngine templateEngine;
+    private final boolean enabled;
+    private final Cache<Long, Entry> byProduct;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private volatile JakartaServletWebApplication application;
+
+    public ProductFragmentCache(ITemplateEngine templateEngine,
+                                @Value("${spring.thymeleaf.cache:true}") boolean enabled,
+                                @Value("${inventory.cache.fragments.maximum-size:20000}") long maximumSize) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        this.byProduct = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    // Рендер в рамках текущего веб-запроса: ссылки строятся с его context path и локалью
+    public List<String> render(String fragment, List<ProductSummary> products) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        Locale locale = RequestContextUtils.getLocale(request);
+        String variant = fragment + '|' + locale.toLanguageTag();
+
+        List<String> rows = new ArrayList<>(products.size());
+        WebContext context = null;
+        for (ProductSummary product : products) {
+            Entry entry = enabled ? byProduct.getIfPresent(product.getId()) : null;
+            String html = entry != null && entry.product.equals(product) ? entry.html.get(variant) : null;
+            if (html != null) {
+                hits.increment();
+                rows.add(html);
+                continue;
+            }
+            if (context == null) {
+                context = new WebContext(application(request).buildExchange(request, attributes.getResponse()), locale);
+            }
+            context.setVariable("product", product);
+            html = templateEngine.process(TEMPLATE, Set.of(fragment), context);
+            renders.increment();
+            if (enabled) {
+                if (entry == null || !entry.product.equals(product)) {
+                    entry = new Entry(product);
+                    byProduct.put(product.getId(), entry);
+                }
+                entry.html.put(variant, html);
+            }
+            rows.add(html);
+        }
+        return rows;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        byProduct.invalidate(event.getProductId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byProduct, "product-fragments");
+        FunctionCounter.builder("inventory.fragments.served", hits, LongAdder::sum)
+                .tag("source", "cache")
+                .description("Product rows served from the fragment cache")
+                .register(registry);
+        FunctionCounter.builder("inventory.fragments.served", renders, LongAdder::sum)
+                .tag("source", "render")
+                .description("Product rows rendered from the template")
+                .register(registry);
+    }
+
+    private JakartaServletWebApplication application(HttpServletRequest request) {
+        JakartaServletWebApplication current = application;
+        if (current == null) {
+            current = JakartaServletWebApplication.buildApplication(request.getServletContext());
+            application = current;
+        }
+        return current;
+    }
+
+    // Варианты одной версии товара: фрагмент и локаль (формат цены зависит от неё)
+    private static final class Entry {
+        final ProductSummary product;
+        final Map<String, String> html = new ConcurrentHashMap<>(4);
+
+        Entry(ProductSummary product) {
+            this.product = product;
+        }
+    }
+}
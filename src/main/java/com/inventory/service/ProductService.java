@@ -1,37 +1,111 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductCursor;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
+import com.inventory.dto.StockBatchRequest;
+import com.inventory.dto.StockBatchResult;
+import com.inventory.event.ProductChangedEvent;
 import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionType;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ids.SkuGenerator;
+import com.inventory.service.search.ProductSearchIndex;
+import com.inventory.service.search.SearchHits;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "inventory.service", histogram = true)
 public class ProductService {
+    static final int MAX_SEARCH_RESULTS = 10_000;
+    public static final int MAX_STOCK_BATCH_LINES = 1000;
+    static final String PRODUCT_EDIT_REASON = "Product edit";
+
     private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final StockLedgerService stockLedger;
+    private final ProductCache productCache;
+    private final LowStockEngine lowStockEngine;
+    private final SkuGenerator skuGenerator;
+    private final SupplierService supplierService;
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // Keyset-пагинация: стоимость страницы не зависит от её позиции в таблице
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> getProductPage(ProductPageRequest request) {
+        int size = request.getEffectiveSize();
+        ProductCursor after = ProductCursor.decode(request.getCursor(), request.getSort(), request.getDirection());
+        List<ProductSummary> rows = productRepository.findSummaries(request, after, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductSummary> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? ProductCursor.after(request.getSort(), request.getDirection(), content.get(size - 1)).encode()
+                : null;
+        return new CursorPage<>(content, nextCursor, request.getSort(), request.getDirection(), size);
+    }
+
+    // Чтение для показа - через кэш; изменять возвращённый объект бесполезно, это копия
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return productCache.getById(id, productRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    // Поиск по штрихкоду/SKU
+    public Product getProductBySku(String sku) {
+        return productCache.getBySku(sku, productRepository::findBySku)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    @Transactional
     public Product createProduct(Product product) {
         // Генерация SKU если не указан
         if (product.getSku() == null || product.getSku().isEmpty()) {
-            String sku = "PROD-" + System.currentTimeMillis();
-            product.setSku(sku);
+            product.setSku(skuGenerator.nextSku());
         }
-        return productRepository.save(product);
+        product.setSupplier(supplierService.resolve(product.getSupplier()));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(ProductSummary.from(saved)));
+        return saved;
     }
 
+    // Остаток из формы - тоже движение: в журнал пишется корректировка на разницу с текущим
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = productRepository.lockById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        ProductSummary before = ProductSummary.from(product);
+        int delta = productDetails.getQuantity() - product.getQuantity();
+        // Уменьшить остаток можно только до суммы резервов: снятое ниже должны отпустить сами заказы
+        if (delta < 0 && productDetails.getQuantity() < product.getReservedQuantity()) {
+            throw new IllegalStateException("Quantity of " + product.getSku() + " cannot go below reserved stock ("
+                    + product.getReservedQuantity() + ")");
+        }
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setCategory(productDetails.getCategory());
@@ -39,33 +113,216 @@ public class ProductService {
         product.setMinStockLevel(productDetails.getMinStockLevel());
         product.setMaxStockLevel(productDetails.getMaxStockLevel());
         product.setLocation(productDetails.getLocation());
-        return productRepository.save(product);
+        product.setSupplier(supplierService.resolve(productDetails.getSupplier()));
+        Product saved = productRepository.save(product);
+        if (delta != 0) {
+            stockLedger.record(id, TransactionType.ADJUSTMENT, delta, saved.getQuantity(), PRODUCT_EDIT_REASON, null);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, ProductSummary.from(saved)));
+        return saved;
     }
 
+    // Журнал движений только дополняется и ссылается на товар, поэтому товар с движениями или резервами
+    // не удаляется. Строка блокируется: параллельное движение не проскочит между проверкой и удалением
     @Transactional
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        Product product = productRepository.lockById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (stockLedger.hasMovements(id) || reservationRepository.existsByProductId(id)) {
+            throw new IllegalStateException(
+                    "Product " + product.getSku() + " has stock movements or reservations and cannot be deleted");
+        }
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(ProductSummary.from(product)));
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
         return productRepository.findLowStockProducts();
     }
 
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.findByNameContainingIgnoreCase(keyword);
+    // Товары с низким запасом из памяти, по возрастанию доли остатка от минимума; курсор - смещение
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> getLowStockPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, ProductPageRequest.MAX_SIZE));
+        if (!lowStockEngine.isReady()) {
+            // Набор ещё строится после старта - временно читаем из БД
+            return getProductPage(ProductPageRequest.builder()
+                    .lowStockOnly(true)
+                    .sort(ProductSortField.QUANTITY)
+                    .cursor(cursor)
+                    .size(pageSize)
+                    .build());
+        }
+        int offset = parseOffset(cursor, Integer.MAX_VALUE);
+        List<ProductSummary> rows = lowStockEngine.top(offset, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductSummary> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? String.valueOf(offset + pageSize) : null;
+        return new CursorPage<>(content, nextCursor, null, null, pageSize);
+    }
+
+    // Ранжированный поиск по триграммному индексу; курсор страницы - смещение в выдаче
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> searchProducts(String keyword, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, ProductPageRequest.MAX_SIZE));
+        if (!searchIndex.isReady()) {
+            // Индекс ещё строится после старта - временно ищем запросом к БД
+            return getProductPage(ProductPageRequest.builder().keyword(keyword).cursor(cursor).size(pageSize).build());
+        }
+        int offset = parseOffset(cursor, MAX_SEARCH_RESULTS);
+        SearchHits hits = searchIndex.search(keyword, offset, Math.min(pageSize, MAX_SEARCH_RESULTS - offset));
+
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIdIn(hits.getProductIds()).stream()
+                .collect(Collectors.toMap(ProductSummary::getId, Function.identity()));
+        List<ProductSummary> content = hits.getProductIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        int nextOffset = offset + pageSize;
+        String nextCursor = nextOffset < Math.min(hits.getTotal(), MAX_SEARCH_RESULTS) ? String.valueOf(nextOffset) : null;
+        return new CursorPage<>(content, nextCursor, null, null, pageSize);
+    }
+
+    @Transactional
+    public ProductSummary updateStock(Long productId, Integer quantityChange, String type) {
+        return updateStock(productId, quantityChange, type, null, null);
     }
 
+    // Остаток меняется одним условным UPDATE в БД, без чтения и сохранения всей сущности,
+    // поэтому параллельные движения по одному товару не теряются. Каждое движение пишется в журнал.
     @Transactional
-    public Product updateStock(Long productId, Integer quantityChange, String type) {
-        Product product = getProductById(productId);
-        int newQuantity = product.getQuantity() + quantityChange;
+    public ProductSummary updateStock(Long productId, Integer quantityChange, String type,
+                                      String reason, String performedBy) {
+        TransactionType transactionType = TransactionType.fromString(type);
+        int delta = transactionType.signed(quantityChange);
+        if (delta == 0) {
+            throw new IllegalArgumentException("Quantity change must not be zero");
+        }
 
-        if (newQuantity < 0) {
+        int updated = productRepository.applyStockDelta(productId, delta, LocalDateTime.now());
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found");
+            }
             throw new RuntimeException("Insufficient stock");
         }
 
-        product.setQuantity(newQuantity);
-        return productRepository.save(product);
+        // Строка заблокирована нашим UPDATE до конца транзакции - прочитанный остаток точно наш
+        ProductSummary after = productRepository.findSummaryById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        stockLedger.record(productId, transactionType, delta, after.getQuantity(), reason, performedBy);
+
+        ProductSummary before = after.withQuantity(after.getQuantity() - delta);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(before, after));
+        return after;
+    }
+
+    // Пачка движений в одной транзакции, всё или ничего. Товары блокируются одним запросом в порядке id,
+    // затем строки проверяются по порядку на заблокированных остатках (списание - не глубже резерва);
+    // при любой ошибке не пишется ничего.
+    // Остатки меняются через грязные сущности (пакетный UPDATE при flush), журнал - одним пакетом INSERT
+    @Transactional
+    public StockBatchResult applyStockBatch(StockBatchRequest request) {
+        List<StockBatchRequest.Line> lines = request.getLines();
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Stock batch must contain at least one line");
+        }
+        if (lines.size() > MAX_STOCK_BATCH_LINES) {
+            throw new IllegalArgumentException("Stock batch must not exceed " + MAX_STOCK_BATCH_LINES + " lines");
+        }
+
+        Set<Long> ids = new TreeSet<>();
+        for (StockBatchRequest.Line line : lines) {
+            if (line != null && line.getProductId() != null) {
+                ids.add(line.getProductId());
+            }
+        }
+        Map<Long, Product> products = new HashMap<>();
+        if (!ids.isEmpty()) {
+            productRepository.lockAllByIdIn(ids).forEach(product -> products.put(product.getId(), product));
+        }
+
+        Map<Long, Integer> running = new HashMap<>();
+        List<StockBatchResult.LineResult> results = new ArrayList<>(lines.size());
+        List<TransactionType> types = new ArrayList<>(lines.size());
+        int failed = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            StockBatchRequest.Line line = lines.get(i);
+            Long productId = line != null ? line.getProductId() : null;
+            TransactionType type = null;
+            Integer delta = null;
+            Integer before = null;
+            Integer after = null;
+            String error = null;
+            try {
+                if (line == null || productId == null || line.getQuantity() == null) {
+                    throw new IllegalArgumentException("productId, type and quantity are required");
+                }
+                type = TransactionType.fromString(line.getType());
+                delta = type.signed(line.getQuantity());
+                if (delta == 0) {
+                    throw new IllegalArgumentException("Quantity change must not be zero");
+                }
+                Product product = products.get(productId);
+                if (product == null) {
+                    throw new IllegalArgumentException("Product not found");
+                }
+                before = running.getOrDefault(productId, product.getQuantity());
+                after = before + delta;
+                if (delta < 0 && after < product.getReservedQuantity()) {
+                    throw new IllegalArgumentException("Insufficient stock");
+                }
+                running.put(productId, after);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+                failed++;
+            }
+            types.add(type);
+            results.add(new StockBatchResult.LineResult(i, productId, delta, before, after, error));
+        }
+        if (failed > 0) {
+            return new StockBatchResult(false, failed, results);
+        }
+
+        Map<Long, ProductSummary> beforeById = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : running.entrySet()) {
+            Product product = products.get(entry.getKey());
+            beforeById.put(product.getId(), ProductSummary.from(product));
+            product.setQuantity(entry.getValue());
+        }
+        List<Transaction> movements = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            StockBatchRequest.Line line = lines.get(i);
+            StockBatchResult.LineResult result = results.get(i);
+            movements.add(stockLedger.movement(result.getProductId(), types.get(i), result.getDelta(),
+                    result.getQuantityAfter(), line.getReason() != null ? line.getReason() : request.getReason(),
+                    request.getPerformedBy()));
+        }
+        stockLedger.recordAll(movements);
+        // flush до событий: updatedAt проставляется в @PreUpdate
+        productRepository.flush();
+
+        beforeById.forEach((id, before) -> eventPublisher.publishEvent(
+                ProductChangedEvent.updated(before, ProductSummary.from(products.get(id)))));
+        return new StockBatchResult(true, 0, results);
+    }
+
+    // Управляемая сущность для изменения - всегда из БД, мимо кэша
+    private Product loadProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
+
+    private static int parseOffset(String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Math.min(Integer.parseInt(cursor), limit - 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,26 @@
 package com.inventory.service;
 
+import com.inventory.dto.ProductSummary;
 import com.inventory.model.Product;
+import com.inventory.model.TransactionType;
 import com.inventory.repository.ProductRepository;
+import com.inventory.service.ids.SkuGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +29,21 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockLedgerService stockLedger;
+
+    @Mock
+    private SkuGenerator skuGenerator;
+
+    @Mock
+    private SupplierService supplierService;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private ProductService productService;
 
@@ -101,6 +124,7 @@ class ProductServiceTest {
     void createProduct_WhenSkuIsNull_ShouldGenerateSku() {
         // Arrange
         testProduct.setSku(null);
+        when(skuGenerator.nextSku()).thenReturn("PROD-00000042");
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
             Product product = invocation.getArgument(0);
             assertTrue(product.getSku().startsWith("PROD-"));
@@ -111,34 +135,38 @@ class ProductServiceTest {
         Product result = productService.createProduct(testProduct);
 
         // Assert
-        assertNotNull(result.getSku());
-        assertTrue(result.getSku().startsWith("PROD-"));
+        assertEquals("PROD-00000042", result.getSku());
     }
 
     @Test
     void updateStock_ShouldUpdateQuantity() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.applyStockDelta(eq(1L), eq(5), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findSummaryById(1L))
+                .thenReturn(Optional.of(ProductSummary.from(testProduct).withQuantity(15)));
 
         // Act
-        Product result = productService.updateStock(1L, 5, "IN");
+        ProductSummary result = productService.updateStock(1L, 5, "IN");
 
         // Assert
         assertEquals(15, result.getQuantity());
-        verify(productRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).applyStockDelta(eq(1L), eq(5), any(LocalDateTime.class));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(stockLedger, times(1)).record(1L, TransactionType.IN, 5, 15, null, null);
     }
 
     @Test
     void updateStock_WhenInsufficientStock_ShouldThrowException() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.applyStockDelta(eq(1L), eq(-20), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             productService.updateStock(1L, -20, "OUT");
         });
+        assertEquals("Insufficient stock", exception.getMessage());
+        verify(productRepository, never()).findSummaryById(1L);
     }
 
     @Test
@@ -0,0 +1,104 @@
+package com.inventory.service;
+
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.StockMovement;
+import com.inventory.event.StockMovementsRecordedEvent;
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class StockLedgerService {
+    public static final String DEFAULT_PERFORMER = "system";
+    public static final int DEFAULT_HISTORY_SIZE = 20;
+    private static final int MAX_HISTORY_SIZE = 200;
+
+    private final TransactionRepository transactionRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Запись добавляется в текущую транзакцию; INSERT уходит при flush вместе с остальными пакетом
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Transaction record(Long productId, TransactionType type, int quantity, int quantityAfter,
+                              String reason, String performedBy) {
+        Transaction saved = transactionRepository.save(
+                movement(productId, type, quantity, quantityAfter, reason, performedBy));
+        publishRecorded(List.of(saved));
+        return saved;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Transaction> recordAll(List<Transaction> movements) {
+        List<Transaction> saved = transactionRepository.saveAll(movements);
+        publishRecorded(saved);
+        return saved;
+    }
+
+    public Transaction movement(Long productId, TransactionType type, int quantity, int quantityAfter,
+                                String reason, String performedBy) {
+        return Transaction.builder()
+                .product(productRepository.getReferenceById(productId))
+                .type(type)
+                .quantity(quantity)
+                .quantityAfter(quantityAfter)
+                .reason(reason == null || reason.isBlank() ? type.name() : reason)
+                .performedBy(performedBy == null || performedBy.isBlank() ? DEFAULT_PERFORMER : performedBy)
+                .transactionDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasMovements(Long productId) {
+        return transactionRepository.existsByProductId(productId);
+    }
+
+    // Курсор страницы истории - id последней показанной записи
+    @Transactional(readOnly = true)
+    public CursorPage<StockMovement> getHistory(Long productId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_SIZE));
+        long beforeId = parseCursor(cursor);
+        List<StockMovement> rows = transactionRepository.findHistory(productId, beforeId, PageRequest.ofSize(pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<StockMovement> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? String.valueOf(content.get(pageSize - 1).getId()) : null;
+        return new CursorPage<>(content, nextCursor, null, null, pageSize);
+    }
+
+    // Дневные сводки пересчитываются по этому событию после коммита
+    private void publishRecorded(List<Transaction> movements) {
+        Map<LocalDate, Set<Long>> productIdsByDay = new HashMap<>();
+        for (Transaction movement : movements) {
+            productIdsByDay.computeIfAbsent(movement.getTransactionDate().toLocalDate(), day -> new HashSet<>())
+                    .add(movement.getProduct().getId());
+        }
+        eventPublisher.publishEvent(new StockMovementsRecordedEvent(productIdsByDay));
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
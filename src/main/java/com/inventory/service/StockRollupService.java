@@ -0,0 +1,271 @@
+package com.inventory.service;
+
+import com.inventory.dto.RollupBackfillReport;
+import com.inventory.dto.RollupGranularity;
+import com.inventory.dto.RollupPoint;
+import com.inventory.event.StockMovementsRecordedEvent;
+import com.inventory.model.CategoryDailyRollup;
+import com.inventory.model.ProductDailyRollup;
+import com.inventory.repository.StockRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Дневные сводки движений по товарам и категориям для графиков планирования.
+// После коммита движений их дни помечаются, и фоновая свёртка пересчитывает эти (товар, день) из журнала
+// целиком - повторная обработка безопасна, поздние и исправляющие движения пересчитывают свой день.
+// Перестроение за период идёт параллельными частями по диапазонам id; периодическая сверка последних
+// дней подбирает то, что не успело свернуться (например, при остановке приложения)
+@Slf4j
+@Service
+public class StockRollupService {
+    static final int MAX_RANGE_DAYS = 3660;
+    static final int FOLD_CHUNK_SIZE = 500;
+
+    private final StockRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillParallelism;
+    private final long backfillChunkProducts;
+    private final int settleDays;
+
+    // Свёртка и перестроение не идут одновременно: обе пишут сводки категорий
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentHashMap<LocalDate, Set<Long>> dirty = new ConcurrentHashMap<>();
+
+    public StockRollupService(StockRollupRepository rollupRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${inventory.rollup.backfill-parallelism:4}") int backfillParallelism,
+                              @Value("${inventory.rollup.backfill-chunk-products:2000}") long backfillChunkProducts,
+                              @Value("${inventory.rollup.settle-days:2}") int settleDays) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillParallelism = Math.max(1, backfillParallelism);
+        this.backfillChunkProducts = Math.max(1, backfillChunkProducts);
+        this.settleDays = settleDays;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovementsRecorded(StockMovementsRecordedEvent event) {
+        event.getProductIdsByDay().forEach(this::markDirty);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.rollup.fold-interval:PT10S}",
+            initialDelayString = "${inventory.rollup.fold-interval:PT10S}")
+    public void fold() {
+        writeLock.lock();
+        try {
+            for (LocalDate day : new ArrayList<>(dirty.keySet())) {
+                Set<Long> productIds = dirty.remove(day);
+                if (productIds == null || productIds.isEmpty()) {
+                    continue;
+                }
+                try {
+                    foldDay(day, productIds);
+                } catch (RuntimeException e) {
+                    markDirty(day, productIds);
+                    log.warn("Stock rollup fold for {} failed, will retry", day, e);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.rollup.settle-interval:PT1H}",
+            initialDelayString = "${inventory.rollup.settle-interval:PT1H}")
+    public void settle() {
+        LocalDate today = LocalDate.now();
+        backfill(today.minusDays(settleDays), today);
+    }
+
+    public RollupBackfillReport backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            Optional<long[]> bounds = rollupRepository.findProductIdBounds(from, to);
+            List<long[]> chunks = new ArrayList<>();
+            if (bounds.isPresent()) {
+                long min = bounds.get()[0];
+                long max = bounds.get()[1];
+                for (long start = min; start <= max; start += backfillChunkProducts) {
+                    chunks.add(new long[]{start, Math.min(max, start + backfillChunkProducts - 1)});
+                }
+                // Сводки вне границ остались бы от движений, которых в журнале уже нет
+                transactionTemplate.executeWithoutResult(status -> {
+                    rollupRepository.deleteProductRollups(Long.MIN_VALUE, min - 1, from, to);
+                    rollupRepository.deleteProductRollups(max + 1, Long.MAX_VALUE, from, to);
+                });
+            } else {
+                transactionTemplate.executeWithoutResult(status ->
+                        rollupRepository.deleteProductRollups(Long.MIN_VALUE, Long.MAX_VALUE, from, to));
+            }
+
+            long productRollups = rebuildChunks(chunks, from, to);
+            transactionTemplate.executeWithoutResult(status ->
+                    rollupRepository.refreshCategoryRollups(from, to, null));
+
+            long durationMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Stock rollups rebuilt for {}..{}: {} product-days in {} chunks, {} ms",
+                    from, to, productRollups, chunks.size(), durationMillis);
+            return new RollupBackfillReport(from, to, chunks.size(), productRollups, durationMillis);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<RollupPoint> getProductSeries(Long productId, LocalDate from, LocalDate to,
+                                              RollupGranularity granularity) {
+        validateRange(from, to);
+        List<LocalDate> starts = bucketStarts(from, to, granularity);
+        LocalDate rangeEnd = granularity.nextBucket(starts.get(starts.size() - 1)).minusDays(1);
+        List<ProductDailyRollup> rows = rollupRepository.findProductRollups(productId, starts.get(0), rangeEnd);
+        Long closing = rollupRepository.findLastProductRollupBefore(productId, starts.get(0))
+                .map(rollup -> (long) rollup.getClosingQuantity())
+                .orElse(null);
+
+        List<RollupPoint> points = new ArrayList<>(starts.size());
+        int next = 0;
+        for (LocalDate start : starts) {
+            LocalDate end = granularity.nextBucket(start).minusDays(1);
+            long in = 0, out = 0, net = 0, count = 0;
+            while (next < rows.size() && !rows.get(next).getDay().isAfter(end)) {
+                ProductDailyRollup row = rows.get(next++);
+                in += row.getInQuantity();
+                out += row.getOutQuantity();
+                net += row.getNetChange();
+                count += row.getMovementCount();
+                closing = (long) row.getClosingQuantity();
+            }
+            points.add(new RollupPoint(start, end, in, out, net, count, closing));
+        }
+        return points;
+    }
+
+    // Остаток категории восстанавливается назад от остатка на конец периода по чистым изменениям
+    @Transactional(readOnly = true)
+    public List<RollupPoint> getCategorySeries(String category, LocalDate from, LocalDate to,
+                                               RollupGranularity granularity) {
+        validateRange(from, to);
+        List<LocalDate> starts = bucketStarts(from, to, granularity);
+        LocalDate rangeEnd = granularity.nextBucket(starts.get(starts.size() - 1)).minusDays(1);
+        List<CategoryDailyRollup> rows = rollupRepository.findCategoryRollups(category, starts.get(0), rangeEnd);
+
+        long[][] sums = new long[starts.size()][4];
+        int next = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            LocalDate end = granularity.nextBucket(starts.get(i)).minusDays(1);
+            while (next < rows.size() && !rows.get(next).getDay().isAfter(end)) {
+                CategoryDailyRollup row = rows.get(next++);
+                sums[i][0] += row.getInQuantity();
+                sums[i][1] += row.getOutQuantity();
+                sums[i][2] += row.getNetChange();
+                sums[i][3] += row.getMovementCount();
+            }
+        }
+
+        RollupPoint[] points = new RollupPoint[starts.size()];
+        long level = rollupRepository.findCategoryLevel(category, rangeEnd);
+        for (int i = starts.size() - 1; i >= 0; i--) {
+            LocalDate end = granularity.nextBucket(starts.get(i)).minusDays(1);
+            points[i] = new RollupPoint(starts.get(i), end, sums[i][0], sums[i][1], sums[i][2], sums[i][3], level);
+            level -= sums[i][2];
+        }
+        return List.of(points);
+    }
+
+    private void markDirty(LocalDate day, Collection<Long> productIds) {
+        dirty.compute(day, (key, current) -> {
+            Set<Long> ids = current != null ? current : ConcurrentHashMap.newKeySet();
+            ids.addAll(productIds);
+            return ids;
+        });
+    }
+
+    private void foldDay(LocalDate day, Set<Long> productIds) {
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(productIds));
+        for (int from = 0; from < sorted.size(); from += FOLD_CHUNK_SIZE) {
+            List<Long> chunk = sorted.subList(from, Math.min(sorted.size(), from + FOLD_CHUNK_SIZE));
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> categories = new HashSet<>(rollupRepository.findCategories(chunk, day));
+                List<ProductDailyRollup> rollups = rollupRepository.aggregate(chunk, day);
+                rollups.forEach(rollup -> categories.add(rollup.getCategory()));
+                rollupRepository.deleteProductRollups(chunk, day);
+                rollupRepository.insertProductRollups(rollups);
+                rollupRepository.refreshCategoryRollups(day, day, categories);
+            });
+        }
+    }
+
+    // Каждая часть - своя транзакция в своём потоке: удаление сводок диапазона и вставка пересчитанных
+    private long rebuildChunks(List<long[]> chunks, LocalDate from, LocalDate to) {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("rollup-backfill-");
+        threads.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(backfillParallelism, chunks.size()), threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+            for (long[] chunk : chunks) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    List<ProductDailyRollup> rollups = rollupRepository.aggregate(chunk[0], chunk[1], from, to);
+                    rollupRepository.deleteProductRollups(chunk[0], chunk[1], from, to);
+                    rollupRepository.insertProductRollups(rollups);
+                    return rollups.size();
+                })));
+            }
+            long total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Stock rollup backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Stock rollup backfill failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<LocalDate> bucketStarts(LocalDate from, LocalDate to, RollupGranularity granularity) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = granularity.bucketStart(from); !start.isAfter(to); start = granularity.nextBucket(start)) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReplenishmentPlan;
+import com.inventory.dto.ReplenishmentSuggestion;
+import com.inventory.dto.SupplierLowStockItem;
+import com.inventory.dto.SupplierReport;
+import com.inventory.dto.SupplierReportLine;
+import com.inventory.dto.SupplierStats;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.SupplierRepository;
+import com.inventory.service.replenishment.ReplenishmentEngine;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Отчёт по поставщикам за фиксированное число запросов, сколько бы поставщиков ни было:
+// итоги - GROUP BY по поставщикам и отдельно по товарам без поставщика, позиции с низким запасом - один
+// проход с join поставщика. Пополнение берётся из последнего расчёта в памяти, без обращения к базе
+@Service
+@RequiredArgsConstructor
+@Timed(value = "inventory.service", histogram = true)
+public class SupplierReportService {
+    private final SupplierRepository supplierRepository;
+    private final ProductRepository productRepository;
+    private final ReplenishmentEngine replenishmentEngine;
+
+    @Value("${inventory.reports.suppliers.low-stock-items:20}")
+    private int lowStockItemLimit;
+
+    @Transactional(readOnly = true)
+    public SupplierReport generate() {
+        List<SupplierStats> stats = new ArrayList<>(supplierRepository.aggregateBySupplier());
+        SupplierStats withoutSupplier = productRepository.aggregateWithoutSupplier();
+        if (withoutSupplier.getProductCount() > 0) {
+            stats.add(withoutSupplier);
+        }
+
+        // Ключ null - товары без поставщика
+        Map<Long, List<SupplierLowStockItem>> lowStock = new HashMap<>();
+        try (Stream<SupplierLowStockItem> items = productRepository.streamLowStockBySupplier()) {
+            items.forEach(item -> {
+                List<SupplierLowStockItem> list = lowStock.computeIfAbsent(item.getSupplierId(), id -> new ArrayList<>());
+                if (list.size() < lowStockItemLimit) {
+                    list.add(item);
+                }
+            });
+        }
+
+        ReplenishmentPlan plan = replenishmentEngine.getLatestPlan().orElse(null);
+        Map<String, List<ReplenishmentSuggestion>> pending = plan != null ? plan.getSuppliers() : Map.of();
+
+        List<SupplierReportLine> lines = new ArrayList<>(stats.size());
+        for (SupplierStats supplier : stats) {
+            List<ReplenishmentSuggestion> suggestions = pending.getOrDefault(supplier.getName(), List.of());
+            lines.add(SupplierReportLine.builder()
+                    .stats(supplier)
+                    .lowStockItems(lowStock.getOrDefault(supplier.getSupplierId(), List.of()))
+                    .pendingReplenishmentItems(suggestions.size())
+                    .pendingReplenishmentQuantity(suggestions.stream()
+                            .mapToLong(ReplenishmentSuggestion::getSuggestedQuantity)
+                            .sum())
+                    .build());
+        }
+
+        return SupplierReport.builder()
+                .generatedAt(LocalDateTime.now())
+                .replenishmentPlanGeneratedAt(plan != null ? plan.getGeneratedAt() : null)
+                .lowStockItemLimit(lowStockItemLimit)
+                .suppliers(lines)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventory.service;
+
+import com.inventory.model.Supplier;
+import com.inventory.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Поставщик товара задаётся названием (форма, импорт): известные названия сопоставляются с существующими
+// записями, новые заводятся без контактов. При совпадающих названиях берётся поставщик с меньшим id
+@Service
+@RequiredArgsConstructor
+public class SupplierService {
+    private final SupplierRepository supplierRepository;
+
+    @Transactional
+    public Supplier resolve(Supplier supplier) {
+        if (supplier == null) {
+            return null;
+        }
+        if (supplier.getId() != null) {
+            return supplierRepository.findById(supplier.getId())
+                    .orElseThrow(() -> new RuntimeException("Supplier not found"));
+        }
+        String name = normalize(supplier.getName());
+        return name == null ? null : resolveAll(List.of(name)).get(name);
+    }
+
+    // Одна выборка на все названия пакета и одна пачка INSERT для недостающих
+    @Transactional
+    public Map<String, Supplier> resolveAll(Collection<String> names) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : names) {
+            String normalized = normalize(name);
+            if (normalized != null) {
+                wanted.add(normalized);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Supplier> byName = new HashMap<>();
+        for (Supplier existing : supplierRepository.findByNameInOrderByIdAsc(wanted)) {
+            byName.putIfAbsent(existing.getName(), existing);
+        }
+        List<Supplier> missing = wanted.stream()
+                .filter(name -> !byName.containsKey(name))
+                .map(name -> Supplier.builder().name(name).build())
+                .toList();
+        // flush сразу: пакетный импорт пишет товары через JDBC, и внешний ключ должен уже видеть поставщиков
+        for (Supplier created : supplierRepository.saveAllAndFlush(missing)) {
+            byName.put(created.getName(), created);
+        }
+        return byName;
+    }
+
+    public static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim();
+    }
+}
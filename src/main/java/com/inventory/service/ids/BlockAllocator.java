@@ -0,0 +1,56 @@
+package com.inventory.service.ids;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Выдача значений из заранее зарезервированного блока: потоки берут их из текущего блока одним
+// getAndIncrement без блокировок, за новым блоком к источнику идёт только один поток.
+// Источник возвращает верхнюю границу блока [last - blockSize + 1, last]
+public class BlockAllocator {
+    private final LongSupplier blockSource;
+    private final int blockSize;
+    private volatile Block current = new Block(1, 0);
+
+    public BlockAllocator(LongSupplier blockSource, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value <= block.last) {
+                return value;
+            }
+            synchronized (this) {
+                if (current == block) {
+                    current = reserve();
+                }
+            }
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private Block reserve() {
+        long last = blockSource.getAsLong();
+        // Первое значение новой последовательности (1) даёт неполный блок
+        return new Block(Math.max(1, last - blockSize + 1), last);
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long last;
+
+        Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
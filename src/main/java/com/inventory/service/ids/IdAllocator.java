@@ -0,0 +1,94 @@
+package com.inventory.service.ids;
+
+import com.inventory.repository.SequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Идентификаторы и номера SKU из пулов последовательностей БД. Узел резервирует блок одним запросом
+// и раздаёт его без обращений к БД; разные узлы получают разные блоки той же последовательности
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdAllocator implements SmartLifecycle {
+    public static final String PRODUCTS = "products_seq";
+    public static final String SUPPLIERS = "suppliers_seq";
+    public static final String TRANSACTIONS = "transactions_seq";
+    public static final String SKUS = "sku_seq";
+
+    // Совпадает с allocationSize в @SequenceGenerator сущностей
+    public static final int ENTITY_BLOCK_SIZE = 50;
+    static final int SKU_BLOCK_SIZE = 1000;
+
+    private static final Map<String, String> TABLES = Map.of(
+            PRODUCTS, "products",
+            SUPPLIERS, "suppliers",
+            TRANSACTIONS, "transactions");
+
+    private final SequenceRepository sequenceRepository;
+    private final ConcurrentHashMap<String, BlockAllocator> allocators = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    // Подготовка последовательностей - при запуске контекста до веб-сервера и фоновых задач,
+    // а не при создании бина: сборка контекста не обращается к БД
+    @Override
+    public void start() {
+        prepare();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    void prepare() {
+        sequenceRepository.createIfMissing(SKUS, SKU_BLOCK_SIZE);
+        TABLES.forEach(this::alignWithTable);
+    }
+
+    public long nextId(String sequence) {
+        if (!TABLES.containsKey(sequence)) {
+            throw new IllegalArgumentException("Unknown id sequence: " + sequence);
+        }
+        return allocator(sequence, ENTITY_BLOCK_SIZE).next();
+    }
+
+    public long nextSkuNumber() {
+        return allocator(SKUS, SKU_BLOCK_SIZE).next();
+    }
+
+    private BlockAllocator allocator(String sequence, int blockSize) {
+        return allocators.computeIfAbsent(sequence,
+                name -> new BlockAllocator(() -> sequenceRepository.nextValue(name), blockSize));
+    }
+
+    // Таблицы, заполнявшиеся через IDENTITY, уже содержат id: последовательность сдвигается за максимум.
+    // Выполняется до первых вставок; при одновременном первом старте нескольких узлов - по одному
+    private void alignWithTable(String sequence, String table) {
+        long maxId = sequenceRepository.findMaxId(table);
+        if (maxId == 0) {
+            return;
+        }
+        // Следующие блоки начнутся после этого значения
+        long last = sequenceRepository.nextValue(sequence);
+        if (last < maxId) {
+            sequenceRepository.restart(sequence, maxId + ENTITY_BLOCK_SIZE);
+            log.info("Sequence {} moved past existing {} ids (max {})", sequence, table, maxId);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventory.service.ids;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// SKU вида PROD-00000042: номер из пула sku_seq уникален между потоками и узлами,
+// в отличие от метки времени, которая повторяется при создании в одну миллисекунду
+@Component
+public class SequenceSkuGenerator implements SkuGenerator {
+    static final int MIN_DIGITS = 8;
+
+    private final IdAllocator idAllocator;
+    private final String prefix;
+
+    public SequenceSkuGenerator(IdAllocator idAllocator,
+                                @Value("${inventory.sku.prefix:PROD-}") String prefix) {
+        this.idAllocator = idAllocator;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String nextSku() {
+        String number = Long.toString(idAllocator.nextSkuNumber());
+        StringBuilder sku = new StringBuilder(prefix.length() + Math.max(MIN_DIGITS, number.length()));
+        sku.append(prefix);
+        for (int i = number.length(); i < MIN_DIGITS; i++) {
+            sku.append('0');
+        }
+        return sku.append(number).toString();
+    }
+}
@@ -0,0 +1,6 @@
+package com.inventory.service.ids;
+
+// Источник SKU для товаров, созданных без него. Другая схема подключается своим бином вместо SequenceSkuGenerator
+public interface SkuGenerator {
+    String nextSku();
+}
@@ -0,0 +1,119 @@
+package com.inventory.service.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Подписчик с ограниченным буфером: изменения по одному ключу схлопываются, при переполнении
+// новые изменения товаров отбрасываются (итоги и категории не ограничены - их немного), а клиент
+// со следующей пачкой получает команду перезагрузить состояние. Одновременно в отправке - одна пачка
+class LiveSubscriber {
+    private final SseEmitter emitter;
+    private final Long productId;
+    private final int capacity;
+
+    private final Map<String, LiveUpdate> pending = new LinkedHashMap<>();
+    private int droppablePending;
+    private boolean sending;
+    private boolean resync;
+    private boolean evicted;
+    private Thread sender;
+    private long sendStartedNanos;
+    private long lastSentNanos = System.nanoTime();
+
+    LiveSubscriber(SseEmitter emitter, Long productId, int capacity) {
+        this.emitter = emitter;
+        this.productId = productId;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    // Страница товара получает только свой товар, панель управления - всё
+    boolean accepts(LiveUpdate update) {
+        return productId == null || productId.equals(update.getProductId());
+    }
+
+    // false - изменение отброшено из-за переполнения
+    synchronized boolean offer(LiveUpdate update) {
+        if (pending.containsKey(update.getKey())) {
+            pending.put(update.getKey(), update);
+            return true;
+        }
+        if (update.isDroppable()) {
+            if (droppablePending >= capacity) {
+                resync = true;
+                return false;
+            }
+            droppablePending++;
+        }
+        pending.put(update.getKey(), update);
+        return true;
+    }
+
+    // null - отправлять нечего или предыдущая пачка ещё не ушла (медленный клиент)
+    synchronized List<LiveUpdate> takeBatch() {
+        if (sending || evicted || (pending.isEmpty() && !resync)) {
+            return null;
+        }
+        sending = true;
+        List<LiveUpdate> batch = new ArrayList<>(pending.size() + 1);
+        // Отброшенное уже не восстановить по частям: клиент перечитывает состояние целиком
+        if (resync) {
+            batch.add(LiveUpdate.reload());
+            resync = false;
+        }
+        batch.addAll(pending.values());
+        pending.clear();
+        droppablePending = 0;
+        return batch;
+    }
+
+    // Пинг, чтобы прокси не закрывали соединение, а оборванные клиенты обнаруживались
+    synchronized boolean takeHeartbeat(long idleNanos) {
+        if (sending || evicted || System.nanoTime() - lastSentNanos < idleNanos) {
+            return false;
+        }
+        sending = true;
+        return true;
+    }
+
+    // Отсчёт таймаута отправки - с момента, когда поток начал писать, а не с постановки в очередь
+    synchronized boolean startSend(Thread thread) {
+        if (evicted) {
+            return false;
+        }
+        sender = thread;
+        sendStartedNanos = System.nanoTime();
+        return true;
+    }
+
+    // false - подписчик отключён, пока пачка была в отправке
+    synchronized boolean sent() {
+        sending = false;
+        sender = null;
+        lastSentNanos = System.nanoTime();
+        return !evicted;
+    }
+
+    synchronized boolean isStalled(long now, long timeoutNanos) {
+        return sender != null && now - sendStartedNanos > timeoutNanos;
+    }
+
+    // Прерывание под монитором: поток ещё пишет именно эту пачку, а не взялся за чужую
+    synchronized void evict() {
+        evicted = true;
+        if (sender != null) {
+            sender.interrupt();
+        }
+    }
+
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+}
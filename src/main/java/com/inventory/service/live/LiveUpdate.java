@@ -0,0 +1,77 @@
+package com.inventory.service.live;
+
+import com.inventory.dto.ProductSummary;
+import lombok.Value;
+
+import java.util.Map;
+
+// Компактное изменение для браузера. key - ключ схлопывания: новое изменение с тем же ключом
+// заменяет ещё не отправленное. type - имя SSE-события, data уходит как JSON
+@Value
+public class LiveUpdate {
+    public static final String PRODUCT = "product";
+    public static final String SUMMARY = "summary";
+    public static final String CATEGORY = "category";
+    public static final String RELOAD = "reload";
+
+    String type;
+    String key;
+    Long productId;
+    Object data;
+
+    public static LiveUpdate product(ProductSummary product) {
+        boolean low = product.getQuantity() != null && product.getMinStockLevel() != null
+                && product.getQuantity() <= product.getMinStockLevel();
+        ProductDelta delta = new ProductDelta(product.getId(), product.getQuantity(),
+                product.getMinStockLevel(), product.getMaxStockLevel(), low, false);
+        return new LiveUpdate(PRODUCT, PRODUCT + ":" + product.getId(), product.getId(), delta);
+    }
+
+    public static LiveUpdate productDeleted(Long id) {
+        return new LiveUpdate(PRODUCT, PRODUCT + ":" + id, id, new ProductDelta(id, null, null, null, false, true));
+    }
+
+    public static LiveUpdate summary(SummaryDelta summary) {
+        return new LiveUpdate(SUMMARY, SUMMARY, null, summary);
+    }
+
+    public static LiveUpdate category(CategoryDelta category) {
+        return new LiveUpdate(CATEGORY, CATEGORY + ":" + category.getCategory(), null, category);
+    }
+
+    // Часть изменений для клиента отброшена - страница должна перечитать состояние
+    public static LiveUpdate reload() {
+        return new LiveUpdate(RELOAD, RELOAD, null, Map.of());
+    }
+
+    // Изменения товаров можно отбросить при переполнении буфера, итоги - нет: их немного и они схлопываются
+    public boolean isDroppable() {
+        return productId != null;
+    }
+
+    @Value
+    public static class ProductDelta {
+        Long id;
+        Integer quantity;
+        Integer minStockLevel;
+        Integer maxStockLevel;
+        boolean lowStock;
+        boolean deleted;
+    }
+
+    @Value
+    public static class SummaryDelta {
+        long totalProducts;
+        double totalInventoryValue;
+        long lowStockCount;
+        int categoryCount;
+    }
+
+    // count == 0 - категория опустела
+    @Value
+    public static class CategoryDelta {
+        String category;
+        long count;
+        double value;
+    }
+}
@@ -0,0 +1,296 @@
+package com.inventory.service.live;
+
+import com.inventory.dto.InventoryTotals;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.service.InventoryAggregateStore;
+import com.inventory.service.LowStockEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Рассылка изменений остатков и итогов панели управления по SSE.
+// Запись только отмечает изменённые товары; раз в flush-interval изменения раскладываются по буферам
+// подписчиков, а итоги сравниваются с последними разосланными и уходят, только если изменились.
+// Отправка идёт в ограниченном пуле: медленный клиент копит схлопнутые изменения и не задерживает остальных,
+// а клиент, запись которому висит дольше send-timeout, отключается и освобождает поток пула
+@Slf4j
+@Component
+public class LiveUpdateBroadcaster implements MeterBinder {
+    private final InventoryAggregateStore aggregateStore;
+    private final LowStockEngine lowStockEngine;
+    private final int bufferCapacity;
+    private final Duration flushInterval;
+    private final Duration heartbeatInterval;
+    private final Duration timeout;
+    private final int senderThreads;
+    private final long sendTimeoutNanos;
+
+    private final Set<LiveSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, LiveUpdate> changedProducts = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private Snapshot lastSnapshot;
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    public LiveUpdateBroadcaster(InventoryAggregateStore aggregateStore,
+                                 LowStockEngine lowStockEngine,
+                                 @Value("${inventory.live.buffer-capacity:256}") int bufferCapacity,
+                                 @Value("${inventory.live.flush-interval:PT0.25S}") Duration flushInterval,
+                                 @Value("${inventory.live.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                 @Value("${inventory.live.timeout:PT30M}") Duration timeout,
+                                 @Value("${inventory.live.sender-threads:4}") int senderThreads,
+                                 @Value("${inventory.live.send-timeout:PT10S}") Duration sendTimeout) {
+        this.aggregateStore = aggregateStore;
+        this.lowStockEngine = lowStockEngine;
+        this.bufferCapacity = bufferCapacity;
+        this.flushInterval = flushInterval;
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeout = timeout;
+        this.senderThreads = senderThreads;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+    }
+
+    @PostConstruct
+    void start() {
+        CustomizableThreadFactory tickerThreads = new CustomizableThreadFactory("live-updates-");
+        tickerThreads.setDaemon(true);
+        CustomizableThreadFactory sendThreads = new CustomizableThreadFactory("live-updates-send-");
+        sendThreads.setDaemon(true);
+        ticker = Executors.newSingleThreadScheduledExecutor(tickerThreads);
+        // Очередь пула не растёт дальше числа подписчиков: у каждого в отправке не больше одной пачки
+        senders = Executors.newFixedThreadPool(senderThreads, sendThreads);
+        long period = flushInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::flushSafely, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    // productId == null - панель управления: итоги, категории и все товары; иначе только этот товар
+    public SseEmitter subscribe(Long productId, ProductSummary current) {
+        return subscribe(new SseEmitter(timeout.toMillis()), productId, current);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long productId, ProductSummary current) {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, productId, bufferCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Начальное состояние: после переподключения клиент сразу догоняет пропущенное
+        // Под монитором рассылки: начальное состояние не может перезаписать более новое из flush
+        synchronized (this) {
+            if (productId == null) {
+                Snapshot snapshot = snapshot();
+                if (lastSnapshot == null) {
+                    lastSnapshot = snapshot;
+                }
+                subscriber.offer(LiveUpdate.summary(snapshot.summary));
+                snapshot.categories.values().forEach(category -> subscriber.offer(LiveUpdate.category(category)));
+            } else if (current != null) {
+                subscriber.offer(LiveUpdate.product(current));
+            }
+            subscribers.add(subscriber);
+        }
+        dispatch(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        changedProducts.put(event.getProductId(), event.isDeleted()
+                ? LiveUpdate.productDeleted(event.getProductId())
+                : LiveUpdate.product(event.getAfter()));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.live.subscribers", subscribers, Set::size)
+                .description("Open server-sent event connections")
+                .register(registry);
+        FunctionCounter.builder("inventory.live.dropped", dropped, LongAdder::sum)
+                .description("Product updates dropped because a subscriber buffer was full")
+                .register(registry);
+        FunctionCounter.builder("inventory.live.evicted", evicted, LongAdder::sum)
+                .description("Subscribers disconnected because a send stalled longer than the send timeout")
+                .register(registry);
+    }
+
+    synchronized void flush() {
+        if (subscribers.isEmpty()) {
+            changedProducts.clear();
+            lastSnapshot = null;
+            return;
+        }
+        List<LiveUpdate> updates = new ArrayList<>();
+        for (Long id : changedProducts.keySet()) {
+            LiveUpdate update = changedProducts.remove(id);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        updates.addAll(summaryChanges());
+
+        long now = System.nanoTime();
+        for (LiveSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, sendTimeoutNanos)) {
+                evict(subscriber);
+                continue;
+            }
+            for (LiveUpdate update : updates) {
+                if (subscriber.accepts(update) && !subscriber.offer(update)) {
+                    dropped.increment();
+                }
+            }
+            dispatch(subscriber);
+        }
+    }
+
+    // Завершить эмиттер отсюда нельзя - complete ждёт ту же блокировку, что и зависшая запись.
+    // Поток отправки прерывается, и эмиттер закрывает он сам, когда запись вернёт управление
+    private void evict(LiveSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.evict();
+        evicted.increment();
+        log.debug("Live update subscriber evicted: send stalled longer than {} ms",
+                TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Live update flush failed", e);
+        }
+    }
+
+    private List<LiveUpdate> summaryChanges() {
+        Snapshot current = snapshot();
+        Snapshot previous = lastSnapshot;
+        lastSnapshot = current;
+        if (previous == null) {
+            return List.of();
+        }
+        List<LiveUpdate> changes = new ArrayList<>();
+        if (!current.summary.equals(previous.summary)) {
+            changes.add(LiveUpdate.summary(current.summary));
+        }
+        for (LiveUpdate.CategoryDelta category : current.categories.values()) {
+            if (!category.equals(previous.categories.get(category.getCategory()))) {
+                changes.add(LiveUpdate.category(category));
+            }
+        }
+        for (String removed : previous.categories.keySet()) {
+            if (!current.categories.containsKey(removed)) {
+                changes.add(LiveUpdate.category(new LiveUpdate.CategoryDelta(removed, 0, 0.0)));
+            }
+        }
+        return changes;
+    }
+
+    // Итоги берутся из памяти, без обращения к БД
+    private Snapshot snapshot() {
+        InventoryTotals totals = aggregateStore.getTotals();
+        long lowStockCount = lowStockEngine.isReady() ? lowStockEngine.size() : totals.getLowStockCount();
+        Map<String, LiveUpdate.CategoryDelta> categories = new TreeMap<>();
+        totals.getCategoryCounts().forEach((category, count) -> categories.put(category,
+                new LiveUpdate.CategoryDelta(category, count, totals.getCategoryValues().getOrDefault(category, 0.0))));
+        LiveUpdate.SummaryDelta summary = new LiveUpdate.SummaryDelta(totals.getTotalProducts(),
+                totals.getTotalValue(), lowStockCount, categories.size());
+        return new Snapshot(summary, categories);
+    }
+
+    private void dispatch(LiveSubscriber subscriber) {
+        List<LiveUpdate> batch = subscriber.takeBatch();
+        if (batch != null) {
+            senders.execute(() -> send(subscriber, toEvents(batch)));
+        } else if (subscriber.takeHeartbeat(heartbeatInterval.toNanos())) {
+            senders.execute(() -> send(subscriber, SseEmitter.event().comment("ping").build()));
+        }
+    }
+
+    // Вся пачка уходит одной записью в ответ
+    private static Set<ResponseBodyEmitter.DataWithMediaType> toEvents(List<LiveUpdate> batch) {
+        Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+        for (LiveUpdate update : batch) {
+            events.addAll(SseEmitter.event()
+                    .name(update.getType())
+                    .data(update.getData(), MediaType.APPLICATION_JSON)
+                    .build());
+        }
+        return events;
+    }
+
+    private void send(LiveSubscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> events) {
+        if (!subscriber.startSend(Thread.currentThread())) {
+            return;
+        }
+        try {
+            subscriber.getEmitter().send(events);
+            if (!subscriber.sent()) {
+                // Отключён по таймауту, но запись всё же прошла: клиент переподключится и получит состояние заново
+                subscriber.getEmitter().complete();
+                return;
+            }
+            // Накопленное за время отправки уходит сразу, не дожидаясь следующего flush
+            if (subscriber.pendingCount() > 0) {
+                dispatch(subscriber);
+            }
+        } catch (Exception e) {
+            // Клиент ушёл: освобождаем подписку, соединение закроет контейнер
+            subscribers.remove(subscriber);
+            subscriber.getEmitter().completeWithError(e);
+            log.debug("Live update subscriber disconnected: {}", e.getMessage());
+        }
+    }
+
+    private static class Snapshot {
+        final LiveUpdate.SummaryDelta summary;
+        final Map<String, LiveUpdate.CategoryDelta> categories;
+
+        Snapshot(LiveUpdate.SummaryDelta summary, Map<String, LiveUpdate.CategoryDelta> categories) {
+            this.summary = summary;
+            this.categories = categories;
+        }
+    }
+}
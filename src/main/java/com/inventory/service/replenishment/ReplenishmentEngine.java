@@ -0,0 +1,163 @@
+package com.inventory.service.replenishment;
+
+import com.inventory.dto.ReplenishmentPlan;
+import com.inventory.dto.ReplenishmentSuggestion;
+import com.inventory.repository.DemandRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Точки заказа и объёмы пополнения по истории расхода. Товары и спрос читаются одним потоковым проходом
+// в примитивные массивы, расчёт идёт частями в ForkJoinPool. Пороги товаров не меняются - это предложения
+@Slf4j
+@Service
+public class ReplenishmentEngine {
+    private final DemandRepository demandRepository;
+    private final int historyDays;
+    private final int leadTimeDays;
+    private final int reviewDays;
+    private final double serviceLevelZ;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    private volatile ReplenishmentPlan latestPlan;
+
+    public ReplenishmentEngine(DemandRepository demandRepository,
+                               @Value("${inventory.replenishment.history-days:90}") int historyDays,
+                               @Value("${inventory.replenishment.lead-time-days:7}") int leadTimeDays,
+                               @Value("${inventory.replenishment.review-days:14}") int reviewDays,
+                               @Value("${inventory.replenishment.service-level-z:1.65}") double serviceLevelZ,
+                               @Value("${inventory.replenishment.chunk-size:4096}") int chunkSize,
+                               @Value("${inventory.replenishment.parallelism:0}") int parallelism) {
+        if (historyDays < 1 || leadTimeDays < 0 || reviewDays < 0) {
+            throw new IllegalArgumentException("Invalid replenishment settings");
+        }
+        this.demandRepository = demandRepository;
+        this.historyDays = historyDays;
+        this.leadTimeDays = leadTimeDays;
+        this.reviewDays = reviewDays;
+        this.serviceLevelZ = serviceLevelZ;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${inventory.replenishment.cron:0 30 2 * * *}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.warn("Nightly replenishment run failed", e);
+        }
+    }
+
+    // История - последние historyDays полных дней, сегодняшний неполный день не учитывается
+    public synchronized ReplenishmentPlan run() {
+        long started = System.nanoTime();
+        LocalDate to = LocalDate.now().minusDays(1);
+        LocalDate from = to.minusDays(historyDays - 1);
+
+        ReplenishmentTable table = new ReplenishmentTable(demandRepository.countProducts());
+        demandRepository.forEachProduct(table::addProduct);
+        demandRepository.forEachDailyDemand(from, to, table::addDemand);
+        pool.invoke(new ComputeTask(table, 0, table.size));
+
+        Map<String, List<ReplenishmentSuggestion>> bySupplier = group(table);
+        long suggestions = bySupplier.values().stream().mapToLong(List::size).sum();
+        ReplenishmentPlan plan = ReplenishmentPlan.builder()
+                .generatedAt(LocalDateTime.now())
+                .historyFrom(from)
+                .historyTo(to)
+                .leadTimeDays(leadTimeDays)
+                .productsEvaluated(table.size)
+                .suggestionCount(suggestions)
+                .durationMillis((System.nanoTime() - started) / 1_000_000)
+                .suppliers(bySupplier)
+                .build();
+        latestPlan = plan;
+        log.info("Replenishment plan: {} products, {} suggestions across {} suppliers in {} ms",
+                plan.getProductsEvaluated(), suggestions, bySupplier.size(), plan.getDurationMillis());
+        return plan;
+    }
+
+    public Optional<ReplenishmentPlan> getLatestPlan() {
+        return Optional.ofNullable(latestPlan);
+    }
+
+    // Страховой запас z·σ·√L, но не больше, чем нужно, чтобы пиковый день держался весь срок поставки.
+    // Заказ - до maxStockLevel; без верхнего порога - до точки заказа плюс спрос за период пересмотра
+    void compute(ReplenishmentTable table, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double average = table.demandSums[i] / (double) historyDays;
+            double variance = Math.max(0, table.demandSquares[i] / historyDays - average * average);
+            double safety = Math.min(serviceLevelZ * Math.sqrt(variance * leadTimeDays),
+                    Math.max(0, table.demandPeaks[i] - average) * leadTimeDays);
+            int max = table.maxStockLevels[i];
+            long reorderPoint = (long) Math.ceil(average * leadTimeDays + safety);
+            if (max > 0) {
+                reorderPoint = Math.min(reorderPoint, max);
+            }
+
+            long suggested = 0;
+            if (average > 0 && table.quantities[i] <= reorderPoint) {
+                long orderUpTo = max > 0 ? max : (long) Math.ceil(reorderPoint + average * reviewDays);
+                suggested = Math.max(0, orderUpTo - table.quantities[i]);
+            }
+            table.reorderPoints[i] = (int) Math.min(Integer.MAX_VALUE, reorderPoint);
+            table.suggestedQuantities[i] = (int) Math.min(Integer.MAX_VALUE, suggested);
+        }
+    }
+
+    private Map<String, List<ReplenishmentSuggestion>> group(ReplenishmentTable table) {
+        Map<String, List<ReplenishmentSuggestion>> bySupplier = new TreeMap<>();
+        for (int i = 0; i < table.size; i++) {
+            if (table.suggestedQuantities[i] == 0) {
+                continue;
+            }
+            bySupplier.computeIfAbsent(table.supplierNames.get(table.suppliers[i]), name -> new ArrayList<>())
+                    .add(new ReplenishmentSuggestion(table.ids[i], table.skus[i], table.quantities[i],
+                            table.minStockLevels[i], table.maxStockLevels[i],
+                            table.demandSums[i] / (double) historyDays, table.demandPeaks[i],
+                            table.reorderPoints[i], table.suggestedQuantities[i]));
+        }
+        return bySupplier;
+    }
+
+    private class ComputeTask extends RecursiveAction {
+        private final ReplenishmentTable table;
+        private final int from;
+        private final int to;
+
+        ComputeTask(ReplenishmentTable table, int from, int to) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                ReplenishmentEngine.this.compute(table, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ComputeTask(table, from, middle), new ComputeTask(table, middle, to));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.inventory.service.replenishment;
+
+import com.inventory.dto.ReplenishmentPlan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Товары и их спрос в параллельных примитивных массивах, индекс - позиция товара по возрастанию id.
+// Поставщики хранятся словарём: у товара только номер строки в нём
+final class ReplenishmentTable {
+    long[] ids;
+    String[] skus;
+    int[] suppliers;
+    int[] quantities;
+    int[] minStockLevels;
+    int[] maxStockLevels;
+
+    long[] demandSums;
+    long[] demandPeaks;
+    double[] demandSquares;
+
+    int[] reorderPoints;
+    int[] suggestedQuantities;
+
+    final List<String> supplierNames = new ArrayList<>();
+    private final Map<String, Integer> supplierIndex = new HashMap<>();
+    int size;
+    private int demandCursor;
+
+    ReplenishmentTable(int capacity) {
+        allocate(Math.max(16, capacity));
+    }
+
+    void addProduct(long id, String sku, String supplier, int quantity, int minStockLevel, int maxStockLevel) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        skus[size] = sku;
+        suppliers[size] = supplierIndex.computeIfAbsent(supplier == null || supplier.isBlank()
+                ? ReplenishmentPlan.NO_SUPPLIER : supplier, name -> {
+            supplierNames.add(name);
+            return supplierNames.size() - 1;
+        });
+        quantities[size] = quantity;
+        minStockLevels[size] = minStockLevel;
+        maxStockLevels[size] = maxStockLevel;
+        size++;
+    }
+
+    // Строки спроса идут по возрастанию id товара - слияние с массивом id за один проход, без поиска
+    void addDemand(long productId, long demand) {
+        while (demandCursor < size && ids[demandCursor] < productId) {
+            demandCursor++;
+        }
+        if (demandCursor == size || ids[demandCursor] != productId) {
+            return;
+        }
+        demandSums[demandCursor] += demand;
+        demandSquares[demandCursor] += (double) demand * demand;
+        if (demand > demandPeaks[demandCursor]) {
+            demandPeaks[demandCursor] = demand;
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        skus = new String[capacity];
+        suppliers = new int[capacity];
+        quantities = new int[capacity];
+        minStockLevels = new int[capacity];
+        maxStockLevels = new int[capacity];
+        demandSums = new long[capacity];
+        demandPeaks = new long[capacity];
+        demandSquares = new double[capacity];
+        reorderPoints = new int[capacity];
+        suggestedQuantities = new int[capacity];
+    }
+
+    // Товары, созданные после подсчёта
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        skus = Arrays.copyOf(skus, capacity);
+        suppliers = Arrays.copyOf(suppliers, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        minStockLevels = Arrays.copyOf(minStockLevels, capacity);
+        maxStockLevels = Arrays.copyOf(maxStockLevels, capacity);
+        demandSums = Arrays.copyOf(demandSums, capacity);
+        demandPeaks = Arrays.copyOf(demandPeaks, capacity);
+        demandSquares = Arrays.copyOf(demandSquares, capacity);
+        reorderPoints = Arrays.copyOf(reorderPoints, capacity);
+        suggestedQuantities = Arrays.copyOf(suggestedQuantities, capacity);
+    }
+}
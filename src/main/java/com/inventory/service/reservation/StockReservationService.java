@@ -0,0 +1,289 @@
+package com.inventory.service.reservation;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.dto.StockAvailability;
+import com.inventory.dto.StockHold;
+import com.inventory.dto.StockHoldRequest;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.event.StockReservationChangedEvent;
+import com.inventory.model.ReservationStatus;
+import com.inventory.model.StockReservation;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ProductCache;
+import com.inventory.service.StockLedgerService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Резервы под заказы. Удержание в БД - products.reserved_quantity, которое меняется условными UPDATE
+// (резерв только из свободного остатка, без блокировок строк). Истечение ведёт колесо таймеров в памяти,
+// а не опрос БД; после рестарта оно заполняется активными резервами из БД. Доступный остаток читается
+// без блокировок: остаток - из кэша товаров, удержание - из счётчиков в памяти
+@Slf4j
+@Service
+public class StockReservationService implements MeterBinder, SmartLifecycle {
+    // Раньше веб-сервера: запросы приходят уже к восстановленным таймерам и счётчикам
+    static final int LIFECYCLE_PHASE = 0;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockLedgerService stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final Duration retryDelay;
+
+    // Колесо не потокобезопасно: постановка и продвижение - под его монитором, операции O(1)
+    private final TimingWheel wheel;
+    private final Map<Long, AtomicInteger> reservedByProduct = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private volatile boolean running;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ProductRepository productRepository,
+                                   ProductCache productCache,
+                                   StockLedgerService stockLedger,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${inventory.reservations.default-ttl:PT15M}") Duration defaultTtl,
+                                   @Value("${inventory.reservations.max-ttl:PT24H}") Duration maxTtl,
+                                   @Value("${inventory.reservations.tick:PT1S}") Duration tick,
+                                   @Value("${inventory.reservations.retry-delay:PT5S}") Duration retryDelay) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.retryDelay = retryDelay;
+        this.wheel = new TimingWheel(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    // Активные резервы читаются в пишущей транзакции: отстающая реплика вернула бы уже закрытые
+    @Override
+    public void start() {
+        List<StockHold> holds = transactionTemplate.execute(status -> reservationRepository.findActiveHolds());
+        synchronized (wheel) {
+            for (StockHold hold : holds) {
+                wheel.schedule(hold.getId(), toMillis(hold.getExpiresAt()));
+            }
+        }
+        for (StockHold hold : holds) {
+            reserved(hold.getProductId()).addAndGet(hold.getQuantity());
+        }
+        if (!holds.isEmpty()) {
+            log.info("Stock reservations: restored {} active holds", holds.size());
+        }
+        running = true;
+    }
+
+    // Таймеры не сохраняются: источник истины - статусы в БД, при запуске колесо строится заново
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LIFECYCLE_PHASE;
+    }
+
+    @Transactional
+    public StockHold hold(StockHoldRequest request) {
+        if (request.getProductId() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("productId and a positive quantity are required");
+        }
+        Duration ttl = request.getTtl() != null ? request.getTtl() : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Reservation ttl must be positive and not exceed " + maxTtl);
+        }
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new IllegalArgumentException("Product not found");
+            }
+            throw new IllegalStateException("Insufficient available stock");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation saved = reservationRepository.save(StockReservation.builder()
+                .product(productRepository.getReferenceById(productId))
+                .quantity(quantity)
+                .status(ReservationStatus.ACTIVE)
+                .reference(request.getReference())
+                .performedBy(request.getPerformedBy() == null || request.getPerformedBy().isBlank()
+                        ? StockLedgerService.DEFAULT_PERFORMER : request.getPerformedBy())
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        eventPublisher.publishEvent(StockReservationChangedEvent.held(saved.getId(), productId, quantity,
+                saved.getExpiresAt()));
+        return new StockHold(saved.getId(), productId, quantity, saved.getStatus(), saved.getReference(),
+                saved.getPerformedBy(), saved.getCreatedAt(), saved.getExpiresAt(), null);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<StockHold> find(Long id) {
+        return reservationRepository.findHold(id);
+    }
+
+    // Списание зарезервированного: движение OUT в журнал, удержание снимается тем же UPDATE
+    @Transactional
+    public Optional<StockHold> confirm(Long id, String performedBy) {
+        Optional<StockHold> found = reservationRepository.findHold(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        StockHold hold = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (reservationRepository.close(id, ReservationStatus.CONFIRMED, now) == 0) {
+            throw new IllegalStateException("Reservation " + id + " is no longer active");
+        }
+        // Прямые движения меняют физический остаток и могут опустить его ниже удержания
+        if (productRepository.consumeReservedStock(hold.getProductId(), hold.getQuantity(), now) == 0) {
+            throw new IllegalStateException("Insufficient stock to confirm reservation " + id);
+        }
+
+        ProductSummary after = productRepository.findSummaryById(hold.getProductId())
+                .orElseThrow(() -> new IllegalStateException("Product not found"));
+        String performer = performedBy != null && !performedBy.isBlank() ? performedBy : hold.getPerformedBy();
+        stockLedger.record(hold.getProductId(), TransactionType.OUT, -hold.getQuantity(), after.getQuantity(),
+                hold.getReference() != null ? hold.getReference() : "Reservation #" + id, performer);
+
+        eventPublisher.publishEvent(ProductChangedEvent.updated(
+                after.withQuantity(after.getQuantity() + hold.getQuantity()), after));
+        eventPublisher.publishEvent(StockReservationChangedEvent.closed(id, hold.getProductId(), hold.getQuantity()));
+        return Optional.of(hold.withStatus(ReservationStatus.CONFIRMED).withClosedAt(now));
+    }
+
+    @Transactional
+    public Optional<StockHold> release(Long id) {
+        Optional<StockHold> found = reservationRepository.findHold(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!close(found.get(), ReservationStatus.RELEASED, now)) {
+            throw new IllegalStateException("Reservation " + id + " is no longer active");
+        }
+        return Optional.of(found.get().withStatus(ReservationStatus.RELEASED).withClosedAt(now));
+    }
+
+    // Чтение без блокировок и, как правило, без БД: остаток - копия из кэша товаров
+    public Optional<StockAvailability> getAvailability(Long productId) {
+        return productCache.getById(productId, productRepository::findById).map(product -> {
+            AtomicInteger reserved = reservedByProduct.get(productId);
+            int held = reserved != null ? reserved.get() : 0;
+            return new StockAvailability(productId, product.getQuantity(), held,
+                    Math.max(0, product.getQuantity() - held));
+        });
+    }
+
+    public int getActiveCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(StockReservationChangedEvent event) {
+        reserved(event.getProductId()).addAndGet(event.getReservedDelta());
+        synchronized (wheel) {
+            if (event.getExpiresAt() != null) {
+                wheel.schedule(event.getReservationId(), toMillis(event.getExpiresAt()));
+            } else {
+                wheel.cancel(event.getReservationId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick:PT1S}")
+    public void expireDue() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    // Каждый резерв - своя короткая транзакция; уже подтверждённый или отменённый просто пропускается
+    void expireDue(long nowMillis) {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(nowMillis);
+        }
+        for (Long id : due) {
+            try {
+                Boolean closed = transactionTemplate.execute(status -> reservationRepository.findHold(id)
+                        .map(hold -> close(hold, ReservationStatus.EXPIRED, LocalDateTime.now()))
+                        .orElse(false));
+                if (Boolean.TRUE.equals(closed)) {
+                    expired.increment();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Expiring stock reservation {} failed, retrying in {}", id, retryDelay, e);
+                synchronized (wheel) {
+                    wheel.schedule(id, nowMillis + retryDelay.toMillis());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.reservations.active", this, StockReservationService::getActiveCount)
+                .description("Active stock reservations tracked by the expiry timing wheel")
+                .register(registry);
+        FunctionCounter.builder("inventory.reservations.expired", expired, LongAdder::sum)
+                .description("Stock reservations released because their ttl ran out")
+                .register(registry);
+    }
+
+    private boolean close(StockHold hold, ReservationStatus status, LocalDateTime now) {
+        if (reservationRepository.close(hold.getId(), status, now) == 0) {
+            return false;
+        }
+        if (productRepository.releaseReservedStock(hold.getProductId(), hold.getQuantity()) == 0) {
+            throw new IllegalStateException("Reserved stock of product " + hold.getProductId() + " is out of sync");
+        }
+        eventPublisher.publishEvent(StockReservationChangedEvent.closed(hold.getId(), hold.getProductId(),
+                hold.getQuantity()));
+        return true;
+    }
+
+    private AtomicInteger reserved(Long productId) {
+        return reservedByProduct.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
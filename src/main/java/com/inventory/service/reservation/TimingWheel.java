@@ -0,0 +1,156 @@
+package com.inventory.service.reservation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Иерархическое колесо таймеров: 4 уровня по 64 ячейки, ячейка уровня L покрывает 64^L тиков
+// (при тике в 1 с - до ~194 суток вперёд без переполнения). Постановка и отмена - O(1), продвижение -
+// O(1) на тик плюс перенос ячейки старшего уровня на младшие, когда до неё доходит время.
+// Таймер срабатывает на первой границе тика не раньше срока. Не потокобезопасно
+final class TimingWheel {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timer[][] buckets = new Timer[LEVELS][WHEEL_SIZE];
+    private final Map<Long, Timer> timers = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Timing wheel tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (Timer[] level : buckets) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                level[slot] = Timer.sentinel();
+            }
+        }
+    }
+
+    // Повторная постановка того же id переносит срок
+    void schedule(long id, long deadlineMillis) {
+        cancel(id);
+        Timer timer = new Timer(id, -Math.floorDiv(-deadlineMillis, tickMillis));
+        timers.put(id, timer);
+        place(timer);
+    }
+
+    boolean cancel(long id) {
+        Timer timer = timers.remove(id);
+        if (timer == null) {
+            return false;
+        }
+        timer.unlink();
+        return true;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    // id таймеров, чей срок наступил к nowMillis, в порядке срабатывания по тикам
+    List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            if (timers.isEmpty()) {
+                // Пустое колесо не нужно прокручивать по тику - например, после долгого простоя
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            // Сначала старшие уровни: их таймеры могут спуститься в ячейку младшего, которая переносится сейчас же
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(buckets[level][slot(currentTick, level)], due);
+                }
+            }
+            Timer head = buckets[0][slot(currentTick, 0)];
+            while (head.next != head) {
+                Timer timer = head.next;
+                timer.unlink();
+                fire(timer, due);
+            }
+        }
+        return due;
+    }
+
+    private void cascade(Timer head, List<Long> due) {
+        Timer timer = head.next;
+        head.next = head;
+        head.prev = head;
+        while (timer != head) {
+            Timer next = timer.next;
+            fire(timer, due);
+            timer = next;
+        }
+    }
+
+    // Таймер со сроком дальше текущего тика (перенос со старшего уровня, переполнение) ставится заново
+    private void fire(Timer timer, List<Long> due) {
+        if (timer.deadlineTick > currentTick) {
+            place(timer);
+        } else {
+            timers.remove(timer.id);
+            due.add(timer.id);
+        }
+    }
+
+    // Уровень - наименьший, в диапазон которого укладывается срок; ячейка - по абсолютному тику срока,
+    // поэтому до переноса на младший уровень таймер не двигается. Просроченный - на ближайший тик
+    private void place(Timer timer) {
+        long tick = Math.max(timer.deadlineTick, currentTick + 1);
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        buckets[level][slot(tick, level)].append(timer);
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & MASK);
+    }
+
+    // Элемент двусвязного кольцевого списка ячейки; у ячейки - заглавный элемент-страж
+    private static final class Timer {
+        final long id;
+        final long deadlineTick;
+        Timer prev;
+        Timer next;
+
+        Timer(long id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+
+        static Timer sentinel() {
+            Timer head = new Timer(-1, Long.MAX_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void append(Timer timer) {
+            timer.prev = prev;
+            timer.next = this;
+            prev.next = timer;
+            prev = timer;
+        }
+
+        void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.inventory.service.scan;
+
+import com.inventory.dto.ScanAck;
+import com.inventory.dto.ScanRequest;
+import com.inventory.dto.StockBatchRequest;
+import com.inventory.dto.StockBatchResult;
+import com.inventory.model.ScanJournalCheckpoint;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.ScanJournalCheckpointRepository;
+import com.inventory.service.ProductService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Приём сканирований с отложенной записью: событие пишется в локальный журнал и сразу подтверждается,
+// а фоновый поток забирает всё накопленное, схлопывает по товару и применяет одной пачкой вместе
+// с номером последнего события. После рестарта журнал повторяется с этого номера
+@Slf4j
+@Service
+public class ScanIngestService implements MeterBinder, SmartLifecycle {
+    static final String PERFORMED_BY = "scanner";
+    // Раньше веб-сервера: приём открывается уже восстановленным журналом, а останавливается после него
+    static final int LIFECYCLE_PHASE = 0;
+
+    private final ProductService productService;
+    private final ScanJournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String journalName;
+    private final ScanJournal journal;
+    private final int maxBatchSize;
+    private final int maxPending;
+    private final Duration retryDelay;
+
+    private final LinkedBlockingQueue<ScanRecord> pending = new LinkedBlockingQueue<>();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long committedSequence;
+    private volatile boolean running;
+    private Thread committer;
+
+    public ScanIngestService(ProductService productService,
+                             ScanJournalCheckpointRepository checkpointRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${inventory.scan.journal-name:default}") String journalName,
+                             @Value("${inventory.scan.journal-dir:data/scan-journal}") Path journalDir,
+                             @Value("${inventory.scan.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${inventory.scan.sync-on-ack:false}") boolean syncOnAck,
+                             @Value("${inventory.scan.max-batch-size:1000}") int maxBatchSize,
+                             @Value("${inventory.scan.max-pending:100000}") int maxPending,
+                             @Value("${inventory.scan.retry-delay:PT1S}") Duration retryDelay) {
+        this.productService = productService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journalName = journalName;
+        this.journal = new ScanJournal(journalDir.resolve(journalName), Math.toIntExact(segmentSize.toBytes()), syncOnAck);
+        // Каждый товар пачки - одна строка пакетного движения
+        this.maxBatchSize = Math.max(1, Math.min(maxBatchSize, ProductService.MAX_STOCK_BATCH_LINES));
+        this.maxPending = maxPending;
+        this.retryDelay = retryDelay;
+    }
+
+    // Восстановление - при запуске контекста, а не при создании бина: сборка контекста не обращается
+    // к БД, и обучающий запуск для CDS-архива обходится без неё
+    @Override
+    public void start() {
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Scan journal recovery failed", e);
+        }
+        running = true;
+    }
+
+    void recover() throws IOException {
+        // Отметка читается в пишущей транзакции: отстающая реплика дала бы повторное применение
+        committedSequence = transactionTemplate.execute(status -> checkpointRepository.findById(journalName)
+                .map(ScanJournalCheckpoint::getCommittedSequence)
+                .orElse(0L));
+        List<ScanRecord> backlog = journal.open(committedSequence);
+        pending.addAll(backlog);
+        if (!backlog.isEmpty()) {
+            log.info("Scan journal '{}': replaying {} events after sequence {}",
+                    journalName, backlog.size(), committedSequence);
+        }
+    }
+
+    // Применение начинается, когда приложение поднято и слушатели изменений готовы
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCommitter() {
+        committer = new Thread(this::commitLoop, "scan-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Неприменённые события остаются в журнале и будут повторены при следующем запуске
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (committer != null) {
+                committer.interrupt();
+                committer.join(TimeUnit.SECONDS.toMillis(10));
+            }
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Closing scan journal '{}' failed", journalName, e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return LIFECYCLE_PHASE;
+    }
+
+    public ScanAck accept(ScanRequest request) {
+        List<ScanRequest.Event> events = request.getEvents();
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("Scan request must contain at least one event");
+        }
+        if (events.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Scan request must not exceed " + maxBatchSize + " events");
+        }
+        long now = System.currentTimeMillis();
+        List<ScanRecord> records = new ArrayList<>(events.size());
+        for (ScanRequest.Event event : events) {
+            if (event == null || event.getProductId() == null) {
+                throw new IllegalArgumentException("productId is required");
+            }
+            int quantity = event.getQuantity() != null ? event.getQuantity() : 1;
+            int delta = TransactionType.fromString(event.getType()).signed(quantity);
+            if (delta == 0) {
+                throw new IllegalArgumentException("Quantity change must not be zero");
+            }
+            records.add(new ScanRecord(0, event.getProductId(), delta,
+                    event.getScannedAt() != null ? event.getScannedAt() : now, request.getScannerId()));
+        }
+
+        List<ScanRecord> appended;
+        synchronized (this) {
+            // Журнал - буфер пиков, но не бесконечный: если БД не успевает, терминалы повторят позже
+            if (pending.size() + records.size() > maxPending) {
+                throw new IllegalStateException("Scan backlog is full, retry later");
+            }
+            try {
+                appended = journal.append(records);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Scan journal write failed", e);
+            }
+            pending.addAll(appended);
+        }
+        return new ScanAck(appended.size(), appended.get(0).getSequence(),
+                appended.get(appended.size() - 1).getSequence());
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("inventory.scan.pending", pending, LinkedBlockingQueue::size)
+                .description("Acknowledged scan events not yet applied to stock")
+                .register(registry);
+        FunctionCounter.builder("inventory.scan.applied", applied, LongAdder::sum)
+                .description("Scan events applied to stock")
+                .register(registry);
+        FunctionCounter.builder("inventory.scan.rejected", rejected, LongAdder::sum)
+                .description("Scan events dropped because the product is gone or stock would go negative")
+                .register(registry);
+    }
+
+    // Групповая запись: пока применяется одна пачка, следующая копится в очереди
+    private void commitLoop() {
+        List<ScanRecord> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (batch.isEmpty()) {
+                    batch.add(pending.take());
+                    // Под тем же монитором, что и постановка: запрос терминала не делится между пачками
+                    synchronized (this) {
+                        pending.drainTo(batch, maxBatchSize - 1);
+                    }
+                }
+                commit(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | IOException e) {
+                // Пачка остаётся и повторяется; журнал её тоже хранит
+                log.warn("Applying {} scan events failed, retrying in {}", batch.size(), retryDelay, e);
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    void commit(List<ScanRecord> batch) throws IOException {
+        Map<Long, Coalesced> byProduct = new LinkedHashMap<>();
+        for (ScanRecord record : batch) {
+            byProduct.computeIfAbsent(record.getProductId(), id -> new Coalesced()).add(record);
+        }
+        long lastSequence = batch.get(batch.size() - 1).getSequence();
+        int[] rejectedEvents = new int[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            rejectedEvents[0] = apply(byProduct);
+            ScanJournalCheckpoint checkpoint = checkpointRepository.findById(journalName)
+                    .orElseGet(() -> new ScanJournalCheckpoint(journalName, 0, null));
+            checkpoint.setCommittedSequence(lastSequence);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+        committedSequence = lastSequence;
+        applied.add(batch.size() - rejectedEvents[0]);
+        rejected.add(rejectedEvents[0]);
+        journal.release(lastSequence);
+    }
+
+    // Строки, которые нельзя применить (товар удалён, остаток ушёл бы в минус), отбрасываются,
+    // остальные применяются: подтверждённые события одного товара не должны держать другие.
+    // Отклонённая свёрнутая строка разворачивается в события по порядку номеров - отбрасываются
+    // только те события, что сами не проходят, а приход перед неудачным списанием остаётся
+    private int apply(Map<Long, Coalesced> byProduct) {
+        List<StockBatchRequest.Line> lines = new ArrayList<>();
+        List<Coalesced> sources = new ArrayList<>();
+        byProduct.forEach((productId, coalesced) -> {
+            if (coalesced.delta != 0) {
+                lines.add(coalesced.line());
+                sources.add(coalesced);
+            }
+        });
+        int rejectedEvents = 0;
+        while (!lines.isEmpty()) {
+            StockBatchResult result = productService.applyStockBatch(StockBatchRequest.builder()
+                    .performedBy(PERFORMED_BY)
+                    .lines(lines)
+                    .build());
+            if (result.isApplied()) {
+                break;
+            }
+            // С конца: развёрнутые события встают на место строки, не сдвигая ещё не просмотренные
+            for (int i = result.getLines().size() - 1; i >= 0; i--) {
+                StockBatchResult.LineResult line = result.getLines().get(i);
+                if (line.getError() == null) {
+                    continue;
+                }
+                Coalesced dropped = sources.remove(i);
+                lines.remove(i);
+                if (dropped.events > 1) {
+                    List<Coalesced> single = dropped.records.stream().map(Coalesced::of).toList();
+                    sources.addAll(i, single);
+                    lines.addAll(i, single.stream().map(Coalesced::line).toList());
+                    continue;
+                }
+                rejectedEvents += dropped.events;
+                log.warn("Dropping {} scan events for product {} (sequences {}..{}): {}",
+                        dropped.events, line.getProductId(), dropped.firstSequence, dropped.lastSequence,
+                        line.getError());
+            }
+        }
+        return rejectedEvents;
+    }
+
+    private static final class Coalesced {
+        final List<ScanRecord> records = new ArrayList<>();
+        int delta;
+        int events;
+        long firstSequence;
+        long lastSequence;
+
+        static Coalesced of(ScanRecord record) {
+            Coalesced single = new Coalesced();
+            single.add(record);
+            return single;
+        }
+
+        void add(ScanRecord record) {
+            if (events == 0) {
+                firstSequence = record.getSequence();
+            }
+            records.add(record);
+            delta += record.getDelta();
+            events++;
+            lastSequence = record.getSequence();
+        }
+
+        StockBatchRequest.Line line() {
+            return new StockBatchRequest.Line(records.get(0).getProductId(), delta > 0 ? "IN" : "OUT",
+                    Math.abs(delta), "Сканирование: событий " + events);
+        }
+    }
+}
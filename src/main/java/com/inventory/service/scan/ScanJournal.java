@@ -0,0 +1,224 @@
+package com.inventory.service.scan;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Журнал событий сканирования: сегменты фиксированного размера, отображённые в память, только дозапись.
+// Запись: длина (4), CRC32C данных (4), данные. Длина пишется последней, поэтому запись становится видна
+// целиком; после падения JVM данные уже в page cache ОС. Чтение при старте идёт до первой нулевой длины
+// или несовпадения CRC - хвост после неё считается оборванным и затирается
+public class ScanJournal implements Closeable {
+    static final int HEADER_BYTES = 8;
+    static final int MAX_SCANNER_BYTES = 64;
+    // sequence, productId, delta, scannedAt, длина scannerId
+    static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 4 + 8 + 2;
+    private static final String PREFIX = "scan-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnAppend;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSequence = 1;
+
+    public ScanJournal(Path directory, int segmentSize, boolean syncOnAppend) {
+        if (segmentSize < HEADER_BYTES + FIXED_PAYLOAD_BYTES + MAX_SCANNER_BYTES + 4) {
+            throw new IllegalArgumentException("Journal segment is too small");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnAppend = syncOnAppend;
+    }
+
+    // Восстановление: возвращает записи после committedSequence, которые ещё не попали в БД
+    public synchronized List<ScanRecord> open(long committedSequence) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        List<ScanRecord> pending = new ArrayList<>();
+        long lastSequence = committedSequence;
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentSize);
+            segments.addLast(segment);
+            ScanRecord record;
+            while ((record = segment.read()) != null) {
+                lastSequence = Math.max(lastSequence, record.getSequence());
+                segment.lastSequence = record.getSequence();
+                if (record.getSequence() > committedSequence) {
+                    pending.add(record);
+                }
+            }
+            segment.truncateTail();
+        }
+        nextSequence = lastSequence + 1;
+        release(committedSequence);
+        return pending;
+    }
+
+    // Все записи под одной блокировкой и с одним force: пачка со сканера подтверждается целиком
+    public synchronized List<ScanRecord> append(List<ScanRecord> records) throws IOException {
+        List<ScanRecord> appended = new ArrayList<>(records.size());
+        for (ScanRecord record : records) {
+            ScanRecord sequenced = record.withSequence(nextSequence);
+            byte[] payload = encode(sequenced);
+            Segment segment = segments.peekLast();
+            if (segment == null || !segment.fits(payload.length)) {
+                segment = roll();
+            }
+            segment.write(payload);
+            segment.lastSequence = sequenced.getSequence();
+            nextSequence++;
+            appended.add(sequenced);
+        }
+        if (syncOnAppend && !segments.isEmpty()) {
+            segments.peekLast().buffer.force();
+        }
+        return appended;
+    }
+
+    // Сегменты, целиком записанные в БД, больше не нужны; текущий остаётся для дозаписи
+    public synchronized void release(long committedSequence) throws IOException {
+        while (segments.size() > 1 && segments.peekFirst().lastSequence <= committedSequence) {
+            Segment segment = segments.pollFirst();
+            segment.close();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    private Segment roll() throws IOException {
+        Segment previous = segments.peekLast();
+        if (previous != null) {
+            previous.buffer.force();
+        }
+        Path path = directory.resolve(PREFIX + "%020d".formatted(nextSequence) + SUFFIX);
+        Segment segment = Segment.open(path, segmentSize);
+        segment.lastSequence = nextSequence - 1;
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private static byte[] encode(ScanRecord record) {
+        byte[] scanner = record.getScannerId() != null
+                ? record.getScannerId().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        if (scanner.length > MAX_SCANNER_BYTES) {
+            throw new IllegalArgumentException("Scanner id must not exceed " + MAX_SCANNER_BYTES + " bytes");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_PAYLOAD_BYTES + scanner.length);
+        payload.putLong(record.getSequence())
+                .putLong(record.getProductId())
+                .putInt(record.getDelta())
+                .putLong(record.getScannedAt())
+                .putShort((short) scanner.length)
+                .put(scanner);
+        return payload.array();
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        long lastSequence;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        // Место под запись и под нулевую длину за ней
+        boolean fits(int payloadLength) {
+            return buffer.remaining() >= HEADER_BYTES + payloadLength + 4;
+        }
+
+        void write(byte[] payload) {
+            int start = buffer.position();
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            buffer.position(start + HEADER_BYTES);
+            buffer.put(payload);
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start, payload.length);
+        }
+
+        ScanRecord read() {
+            int start = buffer.position();
+            if (buffer.remaining() < HEADER_BYTES) {
+                return null;
+            }
+            int length = buffer.getInt(start);
+            if (length < FIXED_PAYLOAD_BYTES || length > FIXED_PAYLOAD_BYTES + MAX_SCANNER_BYTES
+                    || buffer.remaining() < HEADER_BYTES + length) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(start + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+                return null;
+            }
+            buffer.position(start + HEADER_BYTES + length);
+
+            ByteBuffer data = ByteBuffer.wrap(payload);
+            long sequence = data.getLong();
+            long productId = data.getLong();
+            int delta = data.getInt();
+            long scannedAt = data.getLong();
+            byte[] scanner = new byte[data.getShort()];
+            data.get(scanner);
+            return new ScanRecord(sequence, productId, delta, scannedAt,
+                    scanner.length > 0 ? new String(scanner, StandardCharsets.UTF_8) : null);
+        }
+
+        // Оборванной может быть только одна запись - затирается место под самую длинную запись за концом данных
+        void truncateTail() {
+            int position = buffer.position();
+            int length = Math.min(buffer.remaining(), HEADER_BYTES + FIXED_PAYLOAD_BYTES + MAX_SCANNER_BYTES);
+            buffer.put(new byte[length]);
+            buffer.position(position);
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
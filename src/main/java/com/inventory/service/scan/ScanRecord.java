@@ -0,0 +1,15 @@
+package com.inventory.service.scan;
+
+import lombok.Value;
+import lombok.With;
+
+// Событие сканирования в журнале: изменение остатка со знаком, номер присваивает журнал
+@Value
+public class ScanRecord {
+    @With
+    long sequence;
+    long productId;
+    int delta;
+    long scannedAt;
+    String scannerId;
+}
@@ -0,0 +1,93 @@
+package com.inventory.service.search;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Словарь long -> объект без упаковки ключей; ключ 0 зарезервирован
+final class LongObjectHashMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    LongObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return (V) values[slot];
+            }
+            if (current == 0) {
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(long key, Supplier<V> factory) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            if (keys[slot] == 0) {
+                V value = factory.get();
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                for (int slot = slot(oldKeys[i]); ; slot = (slot + 1) & mask) {
+                    if (keys[slot] == 0) {
+                        keys[slot] = oldKeys[i];
+                        values[slot] = oldValues[i];
+                        size++;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.service.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Список документов для одной триграммы: отсортированные номера документов и маски полей
+final class Postings {
+    private int[] docs = new int[4];
+    private byte[] fields = new byte[4];
+    private int size;
+
+    // Номера документов выдаются по возрастанию, поэтому добавление сохраняет сортировку
+    void add(int doc, int fieldMask) {
+        if (size > 0 && docs[size - 1] == doc) {
+            fields[size - 1] |= (byte) fieldMask;
+            return;
+        }
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+        }
+        docs[size] = doc;
+        fields[size] = (byte) fieldMask;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int fields(int index) {
+        return fields[index];
+    }
+
+    // Маска полей документа или 0, если документа нет в списке
+    int fieldsOf(int doc) {
+        int index = Arrays.binarySearch(docs, 0, size, doc);
+        return index >= 0 ? fields[index] : 0;
+    }
+
+    void removeAll(BitSet deadDocs) {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (!deadDocs.get(docs[read])) {
+                docs[write] = docs[read];
+                fields[write] = fields[read];
+                write++;
+            }
+        }
+        size = write;
+        if (docs.length > 16 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, Math.max(4, size));
+            fields = Arrays.copyOf(fields, Math.max(4, size));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.service.search;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Поиск товаров по названию, SKU, описанию и категории без обращения к БД
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    private final ProductRepository productRepository;
+
+    private final Object monitor = new Object();
+    private final List<ProductChangedEvent> pendingDuringRebuild = new ArrayList<>();
+    private volatile TrigramIndex index;
+    private boolean rebuilding;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (monitor) {
+            if (index != null) {
+                apply(index, event);
+            }
+            if (rebuilding) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+    }
+
+    // Новый индекс строится в стороне и подменяет старый; изменения за время построения доигрываются
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (monitor) {
+            rebuilding = true;
+            pendingDuringRebuild.clear();
+        }
+        try {
+            long started = System.nanoTime();
+            TrigramIndex fresh = new TrigramIndex((int) Math.min(Integer.MAX_VALUE, productRepository.count()));
+            try (Stream<ProductSummary> products = productRepository.streamAllSummaries()) {
+                products.forEach(product -> put(fresh, product));
+            }
+            synchronized (monitor) {
+                pendingDuringRebuild.forEach(event -> apply(fresh, event));
+                index = fresh;
+            }
+            log.info("Product search index built: {} products in {} ms",
+                    fresh.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (monitor) {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        TrigramIndex current = index;
+        if (current == null) {
+            return SearchHits.empty();
+        }
+        return current.search(query, offset, limit);
+    }
+
+    private static void apply(TrigramIndex target, ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getProductId());
+        } else if (event.isCreated() || !sameText(event.getBefore(), event.getAfter())) {
+            // Движения остатков не меняют текст, поэтому не переиндексируются
+            put(target, event.getAfter());
+        }
+    }
+
+    private static void put(TrigramIndex target, ProductSummary product) {
+        target.put(product.getId(), product.getName(), product.getSku(),
+                product.getCategory(), product.getDescription());
+    }
+
+    private static boolean sameText(ProductSummary before, ProductSummary after) {
+        return Objects.equals(before.getName(), after.getName())
+                && Objects.equals(before.getSku(), after.getSku())
+                && Objects.equals(before.getCategory(), after.getCategory())
+                && Objects.equals(before.getDescription(), after.getDescription());
+    }
+}
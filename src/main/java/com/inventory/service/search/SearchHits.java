@@ -0,0 +1,15 @@
+package com.inventory.service.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class SearchHits {
+    List<Long> productIds;
+    int total;
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0);
+    }
+}
@@ -0,0 +1,239 @@
+package com.inventory.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Триграммный инвертированный индекс по товарам.
+// Документы только добавляются: при изменении текста товар получает новый номер документа,
+// старый помечается удалённым и вычищается из списков при уплотнении.
+final class TrigramIndex {
+    static final int NAME = 1;
+    static final int SKU = 2;
+    static final int CATEGORY = 4;
+    static final int DESCRIPTION = 8;
+
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final int BOOST_FACTOR = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<Postings> postings;
+    private final LongIntHashMap docByProduct;
+    private final BitSet deadDocs = new BitSet();
+    private long[] productByDoc;
+    private int nextDoc;
+    private int liveDocs;
+    private int deadInPostings;
+
+    TrigramIndex(int expectedDocs) {
+        postings = new LongObjectHashMap<>(Math.max(1024, expectedDocs));
+        docByProduct = new LongIntHashMap(expectedDocs);
+        productByDoc = new long[Math.max(16, expectedDocs)];
+    }
+
+    void put(long productId, String name, String sku, String category, String description) {
+        LongIntHashMap trigrams = new LongIntHashMap(64);
+        collect(name, NAME, trigrams);
+        collect(sku, SKU, trigrams);
+        collect(category, CATEGORY, trigrams);
+        collect(description, DESCRIPTION, trigrams);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int doc = nextDoc++;
+            if (doc == productByDoc.length) {
+                productByDoc = Arrays.copyOf(productByDoc, doc + (doc >> 1));
+            }
+            productByDoc[doc] = productId;
+            docByProduct.put(productId, doc);
+            liveDocs++;
+            trigrams.forEach((key, fields) -> postings.computeIfAbsent(key, Postings::new).add(doc, fields));
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SearchHits search(String query, int offset, int limit) {
+        Set<Long> requiredKeys = new LinkedHashSet<>();
+        Set<Long> boostKeys = new LinkedHashSet<>();
+        for (String word : Trigrams.words(query)) {
+            List<Long> required = new ArrayList<>();
+            List<Long> boost = new ArrayList<>();
+            Trigrams.required(word, required);
+            Trigrams.boost(word, boost);
+            requiredKeys.addAll(required);
+            boostKeys.addAll(boost);
+        }
+        if (requiredKeys.isEmpty() || limit <= 0) {
+            return SearchHits.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> required = new ArrayList<>(requiredKeys.size());
+            for (long key : requiredKeys) {
+                Postings list = postings.get(key);
+                if (list == null) {
+                    return SearchHits.empty();
+                }
+                required.add(list);
+            }
+            // Пересечение начинается с самого редкого списка
+            required.sort(Comparator.comparingInt(Postings::size));
+            List<Postings> boosts = new ArrayList<>(boostKeys.size());
+            for (long key : boostKeys) {
+                Postings list = postings.get(key);
+                if (list != null) {
+                    boosts.add(list);
+                }
+            }
+            return collectTop(required, boosts, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private SearchHits collectTop(List<Postings> required, List<Postings> boosts, int offset, int limit) {
+        int capacity = offset + limit;
+        long[] heap = new long[capacity];
+        int heapSize = 0;
+        int total = 0;
+
+        Postings rarest = required.get(0);
+        candidates:
+        for (int i = 0; i < rarest.size(); i++) {
+            int doc = rarest.doc(i);
+            if (deadDocs.get(doc)) {
+                continue;
+            }
+            int score = weight(rarest.fields(i));
+            for (int j = 1; j < required.size(); j++) {
+                int fields = required.get(j).fieldsOf(doc);
+                if (fields == 0) {
+                    continue candidates;
+                }
+                score += weight(fields);
+            }
+            for (Postings boost : boosts) {
+                score += BOOST_FACTOR * weight(boost.fieldsOf(doc));
+            }
+            total++;
+
+            // Ключ кучи: ранг в старших битах, при равенстве выше более ранний документ
+            long entry = ((long) score << 32) | (Integer.MAX_VALUE - doc);
+            if (heapSize < capacity) {
+                heap[heapSize] = entry;
+                siftUp(heap, heapSize++);
+            } else if (entry > heap[0]) {
+                heap[0] = entry;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Arrays.sort(heap, 0, heapSize);
+        List<Long> page = new ArrayList<>(limit);
+        for (int rank = offset; rank < heapSize; rank++) {
+            int doc = Integer.MAX_VALUE - (int) heap[heapSize - 1 - rank];
+            page.add(productByDoc[doc]);
+        }
+        return new SearchHits(page, total);
+    }
+
+    private void removeLocked(long productId) {
+        int doc = docByProduct.remove(productId);
+        if (doc != LongIntHashMap.MISSING) {
+            deadDocs.set(doc);
+            liveDocs--;
+            deadInPostings++;
+        }
+    }
+
+    private void compactIfNeededLocked() {
+        if (deadInPostings >= COMPACT_MIN_DEAD && deadInPostings * 4L > liveDocs) {
+            postings.forEachValue(list -> list.removeAll(deadDocs));
+            deadInPostings = 0;
+        }
+    }
+
+    private static void collect(String text, int field, LongIntHashMap target) {
+        for (String word : Trigrams.words(text)) {
+            Trigrams.forIndex(word, target, field);
+        }
+    }
+
+    private static int weight(int fields) {
+        int weight = 0;
+        if ((fields & NAME) != 0) {
+            weight += 8;
+        }
+        if ((fields & SKU) != 0) {
+            weight += 6;
+        }
+        if ((fields & CATEGORY) != 0) {
+            weight += 3;
+        }
+        if ((fields & DESCRIPTION) != 0) {
+            weight += 1;
+        }
+        return weight;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long entry = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= entry) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Нормализация текста и разбиение на триграммы в духе pg_trgm:
+// слово дополняется двумя пробелами слева и одним справа
+final class Trigrams {
+    private static final char PAD = ' ';
+
+    private Trigrams() {
+    }
+
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    // Все триграммы слова для индексации (с границами слова)
+    static void forIndex(String word, LongIntHashMap target, int fieldMask) {
+        String padded = "" + PAD + PAD + word + PAD;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            long key = key(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+            int existing = target.get(key);
+            target.put(key, existing == LongIntHashMap.MISSING ? fieldMask : existing | fieldMask);
+        }
+    }
+
+    // Обязательные триграммы запроса: подстрока для длинных слов, префикс для коротких
+    static void required(String word, List<Long> target) {
+        if (word.length() >= 3) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                target.add(key(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)));
+            }
+        } else if (word.length() == 2) {
+            target.add(key(PAD, PAD, word.charAt(0)));
+            target.add(key(PAD, word.charAt(0), word.charAt(1)));
+        } else {
+            target.add(key(PAD, PAD, word.charAt(0)));
+        }
+    }
+
+    // Дополнительные триграммы: совпадение с началом слова повышает ранг
+    static void boost(String word, List<Long> target) {
+        if (word.length() >= 3) {
+            target.add(key(PAD, PAD, word.charAt(0)));
+            target.add(key(PAD, word.charAt(0), word.charAt(1)));
+        }
+    }
+
+    static long key(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+}
@@ -0,0 +1,200 @@
+package com.inventory.service.snapshot;
+
+import com.inventory.dto.CategoryStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Снимок остатков, отображённый в память только для чтения. Формат:
+//   заголовок: magic (4), версия (2), число колонок (2), время снимка (8), число товаров (4),
+//              по колонке: смещение (8), длина (8), CRC32C (4); CRC32C заголовка (4)
+//   колонки SnapshotColumn подряд, каждая с границы 8 байт
+// Значения читаются по номеру строки прямо из отображения, на куче только словарь категорий.
+// Контрольные суммы всех колонок проверяются при открытии
+public final class InventorySnapshot {
+    static final int MAGIC = 0x494E5653;
+    static final short VERSION = 1;
+    private static final int FIXED_HEADER_BYTES = 4 + 2 + 2 + 8 + 4;
+    private static final int COLUMN_ENTRY_BYTES = 8 + 8 + 4;
+
+    private final Path path;
+    private final LocalDateTime createdAt;
+    private final int rows;
+    private final MappedByteBuffer[] columns;
+    private final String[] categories;
+
+    private InventorySnapshot(Path path, LocalDateTime createdAt, int rows, MappedByteBuffer[] columns) {
+        this.path = path;
+        this.createdAt = createdAt;
+        this.rows = rows;
+        this.columns = columns;
+        this.categories = readCategories(columns[SnapshotColumn.CATEGORIES.ordinal()]);
+    }
+
+    // Отображение остаётся действительным и после закрытия канала
+    public static InventorySnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            SnapshotColumn[] layout = SnapshotColumn.values();
+            ByteBuffer header = ByteBuffer.allocate(headerBytes(layout.length));
+            if (channel.size() < header.capacity()) {
+                throw corrupted(path, "truncated header");
+            }
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw corrupted(path, "not a snapshot file");
+            }
+            short version = header.getShort();
+            short columnCount = header.getShort();
+            if (version != VERSION || columnCount != layout.length) {
+                throw corrupted(path, "unsupported version " + version);
+            }
+            CRC32C headerCrc = new CRC32C();
+            headerCrc.update(header.array(), 0, header.capacity() - 4);
+            if ((int) headerCrc.getValue() != header.getInt(header.capacity() - 4)) {
+                throw corrupted(path, "header checksum mismatch");
+            }
+            long createdAtMillis = header.getLong();
+            int rows = header.getInt();
+
+            MappedByteBuffer[] columns = new MappedByteBuffer[layout.length];
+            for (SnapshotColumn column : layout) {
+                long offset = header.getLong();
+                long length = header.getLong();
+                int crc = header.getInt();
+                if (offset < 0 || length < 0 || offset + length > channel.size() || length > Integer.MAX_VALUE
+                        || column.width > 0 && length != (long) column.width * (rows + (column == SnapshotColumn.SKU_OFFSETS ? 1 : 0))) {
+                    throw corrupted(path, "bad bounds of column " + column);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                CRC32C columnCrc = new CRC32C();
+                columnCrc.update(buffer.duplicate());
+                if ((int) columnCrc.getValue() != crc) {
+                    throw corrupted(path, "checksum mismatch in column " + column);
+                }
+                columns[column.ordinal()] = buffer;
+            }
+            LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAtMillis), ZoneId.systemDefault());
+            return new InventorySnapshot(path, createdAt, rows, columns);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public long id(int row) {
+        return column(SnapshotColumn.ID).getLong(row * 8);
+    }
+
+    public int quantity(int row) {
+        return column(SnapshotColumn.QUANTITY).getInt(row * 4);
+    }
+
+    public int minStockLevel(int row) {
+        return column(SnapshotColumn.MIN_STOCK_LEVEL).getInt(row * 4);
+    }
+
+    public double purchasePrice(int row) {
+        return column(SnapshotColumn.PURCHASE_PRICE).getDouble(row * 8);
+    }
+
+    public double sellingPrice(int row) {
+        return column(SnapshotColumn.SELLING_PRICE).getDouble(row * 8);
+    }
+
+    public int categoryIndex(int row) {
+        return column(SnapshotColumn.CATEGORY).getInt(row * 4);
+    }
+
+    public String category(int row) {
+        return categories[categoryIndex(row)];
+    }
+
+    // SKU декодируется только для строк, попавших в ответ
+    public String sku(int row) {
+        MappedByteBuffer offsets = column(SnapshotColumn.SKU_OFFSETS);
+        int start = offsets.getInt(row * 4);
+        byte[] sku = new byte[offsets.getInt(row * 4 + 4) - start];
+        column(SnapshotColumn.SKU_BYTES).get(start, sku);
+        return new String(sku, StandardCharsets.UTF_8);
+    }
+
+    public List<String> getCategories() {
+        return List.of(categories);
+    }
+
+    // Срез на момент снимка в тех же показателях, что отчёт по складу: стоимость по закупочной цене
+    public List<CategoryStats> categoryStats() {
+        long[] counts = new long[categories.length];
+        double[] values = new double[categories.length];
+        for (int row = 0; row < rows; row++) {
+            int category = categoryIndex(row);
+            counts[category]++;
+            values[category] += quantity(row) * purchasePrice(row);
+        }
+        List<CategoryStats> stats = new ArrayList<>(categories.length);
+        for (int i = 0; i < categories.length; i++) {
+            stats.add(new CategoryStats(categories[i], counts[i], values[i]));
+        }
+        return stats;
+    }
+
+    public long lowStockCount() {
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (quantity(row) <= minStockLevel(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int headerBytes(int columnCount) {
+        return FIXED_HEADER_BYTES + columnCount * COLUMN_ENTRY_BYTES + 4;
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private MappedByteBuffer column(SnapshotColumn column) {
+        return columns[column.ordinal()];
+    }
+
+    private static String[] readCategories(MappedByteBuffer dictionary) {
+        ByteBuffer buffer = dictionary.duplicate();
+        String[] names = new String[buffer.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    private static IllegalStateException corrupted(Path path, String reason) {
+        return new IllegalStateException("Snapshot " + path.getFileName() + " is corrupted: " + reason);
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.service.snapshot;
+
+// Колонки файла снимка в порядке записи. width - байт на товар, 0 - колонка переменной длины
+enum SnapshotColumn {
+    ID(8),
+    QUANTITY(4),
+    MIN_STOCK_LEVEL(4),
+    PURCHASE_PRICE(8),
+    SELLING_PRICE(8),
+    // Номер категории в словаре CATEGORIES
+    CATEGORY(4),
+    // Начало SKU товара в SKU_BYTES; n + 1 значений, последнее - общая длина
+    SKU_OFFSETS(4),
+    SKU_BYTES(0),
+    // Количество, затем длина и UTF-8 каждого названия
+    CATEGORIES(0);
+
+    final int width;
+
+    SnapshotColumn(int width) {
+        this.width = width;
+    }
+}
@@ -0,0 +1,209 @@
+package com.inventory.service.snapshot;
+
+import com.inventory.dto.CategorySnapshotDelta;
+import com.inventory.dto.ProductSnapshotDelta;
+import com.inventory.dto.SnapshotComparison;
+import com.inventory.dto.SnapshotInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Сравнение двух снимков слиянием по id (оба файла упорядочены по id): один проход по отображениям,
+// итоги категорий в примитивных массивах, на куче - только лимит самых крупных изменений товаров
+public final class SnapshotComparator {
+
+    private SnapshotComparator() {
+    }
+
+    public static SnapshotComparison compare(InventorySnapshot from, SnapshotInfo fromInfo,
+                                             InventorySnapshot to, SnapshotInfo toInfo, int productLimit) {
+        // Общая нумерация категорий обоих снимков: словари у файлов свои
+        Map<String, Integer> union = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] fromCategory = unionIndexes(from, union, names);
+        int[] toCategory = unionIndexes(to, union, names);
+        Totals totals = new Totals(names.size());
+        PriorityQueue<Change> largest = new PriorityQueue<>(Comparator.comparingDouble(Change::magnitude));
+
+        long added = 0;
+        long removed = 0;
+        long changed = 0;
+        long unchanged = 0;
+        int i = 0;
+        int j = 0;
+        while (i < from.size() || j < to.size()) {
+            long fromId = i < from.size() ? from.id(i) : Long.MAX_VALUE;
+            long toId = j < to.size() ? to.id(j) : Long.MAX_VALUE;
+            Change change;
+            if (fromId < toId) {
+                double value = from.quantity(i) * from.purchasePrice(i);
+                totals.before(fromCategory[from.categoryIndex(i)], from.quantity(i), from.purchasePrice(i));
+                change = new Change(i++, -1, -value);
+                removed++;
+            } else if (toId < fromId) {
+                double value = to.quantity(j) * to.purchasePrice(j);
+                totals.after(toCategory[to.categoryIndex(j)], to.quantity(j), to.purchasePrice(j), 0);
+                change = new Change(-1, j++, value);
+                added++;
+            } else {
+                int quantityBefore = from.quantity(i);
+                int quantityAfter = to.quantity(j);
+                double priceBefore = from.purchasePrice(i);
+                double priceAfter = to.purchasePrice(j);
+                int categoryBefore = fromCategory[from.categoryIndex(i)];
+                int categoryAfter = toCategory[to.categoryIndex(j)];
+                totals.before(categoryBefore, quantityBefore, priceBefore);
+                // Переоценку учитываем, только если товар остался в той же категории
+                double drift = categoryBefore == categoryAfter ? quantityAfter * (priceAfter - priceBefore) : 0;
+                totals.after(categoryAfter, quantityAfter, priceAfter, drift);
+                if (quantityBefore == quantityAfter && priceBefore == priceAfter && categoryBefore == categoryAfter) {
+                    unchanged++;
+                    i++;
+                    j++;
+                    continue;
+                }
+                change = new Change(i++, j++, quantityAfter * priceAfter - quantityBefore * priceBefore);
+                changed++;
+            }
+            if (productLimit > 0 && (largest.size() < productLimit || change.magnitude() > largest.peek().magnitude())) {
+                if (largest.size() == productLimit) {
+                    largest.poll();
+                }
+                largest.add(change);
+            }
+        }
+
+        List<ProductSnapshotDelta> products = new ArrayList<>(largest.size());
+        for (Change change : largest) {
+            products.add(change.toDelta(from, to));
+        }
+        products.sort(Comparator.comparingDouble((ProductSnapshotDelta delta) ->
+                Math.abs(delta.getValueAfter() - delta.getValueBefore())).reversed());
+
+        List<CategorySnapshotDelta> categories = new ArrayList<>(names.size());
+        for (int c = 0; c < names.size(); c++) {
+            categories.add(totals.delta(c, names.get(c)));
+        }
+        categories.sort(Comparator.comparing(CategorySnapshotDelta::getCategory));
+
+        return SnapshotComparison.builder()
+                .from(fromInfo)
+                .to(toInfo)
+                .added(added)
+                .removed(removed)
+                .changed(changed)
+                .unchanged(unchanged)
+                .valueBefore(sum(totals.valueBefore))
+                .valueAfter(sum(totals.valueAfter))
+                .priceDrift(sum(totals.priceDrift))
+                .categories(categories)
+                .products(products)
+                .productsTruncated(added + removed + changed > products.size())
+                .build();
+    }
+
+    private static int[] unionIndexes(InventorySnapshot snapshot, Map<String, Integer> union, List<String> names) {
+        List<String> categories = snapshot.getCategories();
+        int[] indexes = new int[categories.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = union.computeIfAbsent(categories.get(i), name -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+        }
+        return indexes;
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static final class Totals {
+        final long[] productsBefore;
+        final long[] productsAfter;
+        final long[] quantityBefore;
+        final long[] quantityAfter;
+        final double[] valueBefore;
+        final double[] valueAfter;
+        final double[] priceDrift;
+
+        Totals(int categories) {
+            productsBefore = new long[categories];
+            productsAfter = new long[categories];
+            quantityBefore = new long[categories];
+            quantityAfter = new long[categories];
+            valueBefore = new double[categories];
+            valueAfter = new double[categories];
+            priceDrift = new double[categories];
+        }
+
+        void before(int category, int quantity, double price) {
+            productsBefore[category]++;
+            quantityBefore[category] += quantity;
+            valueBefore[category] += quantity * price;
+        }
+
+        void after(int category, int quantity, double price, double drift) {
+            productsAfter[category]++;
+            quantityAfter[category] += quantity;
+            valueAfter[category] += quantity * price;
+            priceDrift[category] += drift;
+        }
+
+        CategorySnapshotDelta delta(int category, String name) {
+            return CategorySnapshotDelta.builder()
+                    .category(name)
+                    .productsBefore(productsBefore[category])
+                    .productsAfter(productsAfter[category])
+                    .quantityBefore(quantityBefore[category])
+                    .quantityAfter(quantityAfter[category])
+                    .valueBefore(valueBefore[category])
+                    .valueAfter(valueAfter[category])
+                    .priceDrift(priceDrift[category])
+                    .build();
+        }
+    }
+
+    // Строки изменения в обоих снимках; -1 - товара в снимке нет
+    private static final class Change {
+        final int fromRow;
+        final int toRow;
+        final double valueDelta;
+
+        Change(int fromRow, int toRow, double valueDelta) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.valueDelta = valueDelta;
+        }
+
+        double magnitude() {
+            return Math.abs(valueDelta);
+        }
+
+        ProductSnapshotDelta toDelta(InventorySnapshot from, InventorySnapshot to) {
+            InventorySnapshot source = toRow >= 0 ? to : from;
+            int row = toRow >= 0 ? toRow : fromRow;
+            return ProductSnapshotDelta.builder()
+                    .productId(source.id(row))
+                    .sku(source.sku(row))
+                    .category(source.category(row))
+                    .change(fromRow < 0 ? ProductSnapshotDelta.Change.ADDED
+                            : toRow < 0 ? ProductSnapshotDelta.Change.REMOVED : ProductSnapshotDelta.Change.CHANGED)
+                    .quantityBefore(fromRow >= 0 ? from.quantity(fromRow) : 0)
+                    .quantityAfter(toRow >= 0 ? to.quantity(toRow) : 0)
+                    .purchasePriceBefore(fromRow >= 0 ? from.purchasePrice(fromRow) : 0)
+                    .purchasePriceAfter(toRow >= 0 ? to.purchasePrice(toRow) : 0)
+                    .valueBefore(fromRow >= 0 ? from.quantity(fromRow) * from.purchasePrice(fromRow) : 0)
+                    .valueAfter(toRow >= 0 ? to.quantity(toRow) * to.purchasePrice(toRow) : 0)
+                    .build();
+        }
+    }
+}
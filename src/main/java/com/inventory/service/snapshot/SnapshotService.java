@@ -0,0 +1,182 @@
+package com.inventory.service.snapshot;
+
+import com.inventory.dto.CategoryStats;
+import com.inventory.dto.SnapshotComparison;
+import com.inventory.dto.SnapshotInfo;
+import com.inventory.dto.SnapshotSummary;
+import com.inventory.repository.SnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Снимки остатков для аудита: ночью вся таблица товаров одним потоковым чтением пишется в файл
+// (SnapshotWriter), дальше срезы на дату и сравнения считаются только по файлам, без обращения к базе
+@Slf4j
+@Service
+public class SnapshotService {
+    static final String PREFIX = "inventory-";
+    static final String SUFFIX = ".snap";
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{8}-\\d{6}-\\d{3}");
+
+    private final SnapshotRepository snapshotRepository;
+    private final Path directory;
+    private final int retentionDays;
+    private final int maxProductDeltas;
+
+    public SnapshotService(SnapshotRepository snapshotRepository,
+                           @Value("${inventory.snapshots.dir:data/snapshots}") Path directory,
+                           @Value("${inventory.snapshots.retention-days:400}") int retentionDays,
+                           @Value("${inventory.snapshots.max-product-deltas:1000}") int maxProductDeltas) {
+        this.snapshotRepository = snapshotRepository;
+        this.directory = directory;
+        this.retentionDays = retentionDays;
+        this.maxProductDeltas = maxProductDeltas;
+    }
+
+    @Scheduled(cron = "${inventory.snapshots.cron:0 0 1 * * *}")
+    public void runNightly() {
+        try {
+            takeSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Nightly inventory snapshot failed", e);
+        }
+    }
+
+    public synchronized SnapshotInfo takeSnapshot() {
+        long started = System.nanoTime();
+        LocalDateTime createdAt = LocalDateTime.now();
+        Path target = directory.resolve(PREFIX + ID_FORMAT.format(createdAt) + SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            removeLeftovers();
+            int rows;
+            try (SnapshotWriter writer = SnapshotWriter.create(target, createdAt)) {
+                snapshotRepository.forEachProduct(writer::append);
+                writer.finish();
+                rows = writer.getRows();
+            }
+            removeExpired(createdAt);
+            SnapshotInfo info = info(target);
+            log.info("Inventory snapshot {}: {} products, {} bytes in {} ms", info.getId(), rows, info.getSizeBytes(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return info;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Inventory snapshot failed", e);
+        }
+    }
+
+    public List<SnapshotInfo> list() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(SnapshotService::isSnapshot)
+                    .sorted()
+                    .map(SnapshotService::info)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list inventory snapshots", e);
+        }
+    }
+
+    public Optional<SnapshotInfo> find(String id) {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(PREFIX + id + SUFFIX);
+        return Files.exists(path) ? Optional.of(info(path)) : Optional.empty();
+    }
+
+    // Последний снимок, снятый не позже конца указанного дня
+    public Optional<SnapshotInfo> findAt(LocalDate date) {
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        return list().stream()
+                .filter(snapshot -> snapshot.getCreatedAt().isBefore(end))
+                .max(Comparator.comparing(SnapshotInfo::getCreatedAt));
+    }
+
+    public Optional<SnapshotInfo> latest() {
+        List<SnapshotInfo> snapshots = list();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    public SnapshotSummary summarize(SnapshotInfo info) {
+        InventorySnapshot snapshot = open(info);
+        List<CategoryStats> categories = snapshot.categoryStats();
+        return SnapshotSummary.builder()
+                .snapshot(info)
+                .totalProducts(snapshot.size())
+                .totalInventoryValue(categories.stream().mapToDouble(CategoryStats::getTotalValue).sum())
+                .lowStockCount(snapshot.lowStockCount())
+                .categories(categories)
+                .build();
+    }
+
+    public SnapshotComparison compare(SnapshotInfo from, SnapshotInfo to) {
+        return SnapshotComparator.compare(open(from), from, open(to), to, maxProductDeltas);
+    }
+
+    private InventorySnapshot open(SnapshotInfo info) {
+        try {
+            return InventorySnapshot.open(directory.resolve(PREFIX + info.getId() + SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read inventory snapshot " + info.getId(), e);
+        }
+    }
+
+    private void removeExpired(LocalDateTime now) throws IOException {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = now.minusDays(retentionDays);
+        for (SnapshotInfo snapshot : list()) {
+            if (snapshot.getCreatedAt().isBefore(cutoff)) {
+                Files.deleteIfExists(directory.resolve(PREFIX + snapshot.getId() + SUFFIX));
+            }
+        }
+    }
+
+    // Временные колонки и недописанный файл от прерванного снятия
+    private void removeLeftovers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && !name.endsWith(SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static boolean isSnapshot(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                && ID_PATTERN.matcher(name.substring(PREFIX.length(), name.length() - SUFFIX.length())).matches();
+    }
+
+    private static SnapshotInfo info(Path path) {
+        String name = path.getFileName().toString();
+        String id = name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+        try {
+            return new SnapshotInfo(id, LocalDateTime.parse(id, ID_FORMAT), Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read inventory snapshot " + id, e);
+        }
+    }
+}
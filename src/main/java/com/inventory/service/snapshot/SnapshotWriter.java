@@ -0,0 +1,189 @@
+package com.inventory.service.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Запись снимка за один проход по товарам: каждая колонка пишется в свой временный файл, затем колонки
+// склеиваются за заголовком. Память не зависит от числа товаров (кроме словаря категорий).
+// Файл появляется под итоговым именем только целиком - через атомарное переименование
+public class SnapshotWriter implements Closeable {
+    private static final int SPOOL_BUFFER_BYTES = 64 * 1024;
+
+    private final Path target;
+    private final Path partial;
+    private final long createdAtMillis;
+    private final Map<SnapshotColumn, Spool> spools = new EnumMap<>(SnapshotColumn.class);
+    private final Map<String, Integer> categories = new LinkedHashMap<>();
+    private int rows;
+    private long skuBytes;
+    private long lastId = Long.MIN_VALUE;
+    private boolean finished;
+
+    private SnapshotWriter(Path target, LocalDateTime createdAt) {
+        this.target = target;
+        this.partial = target.resolveSibling(target.getFileName() + ".partial");
+        this.createdAtMillis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static SnapshotWriter create(Path target, LocalDateTime createdAt) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter(target, createdAt);
+        try {
+            for (SnapshotColumn column : SnapshotColumn.values()) {
+                writer.spools.put(column, Spool.open(target.resolveSibling(target.getFileName() + "." + column.name().toLowerCase())));
+            }
+            writer.spool(SnapshotColumn.SKU_OFFSETS).writeInt(0);
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+
+    // Товары - строго по возрастанию id: сравнение снимков идёт слиянием по id без индексов
+    public void append(long id, String sku, String category, int quantity, int minStockLevel,
+                       double purchasePrice, double sellingPrice) {
+        if (id <= lastId) {
+            throw new IllegalArgumentException("Snapshot rows must be ordered by id: " + id + " after " + lastId);
+        }
+        byte[] skuUtf8 = sku.getBytes(StandardCharsets.UTF_8);
+        if (skuBytes + skuUtf8.length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot SKU column exceeds 2 GB");
+        }
+        int categoryIndex = categories.computeIfAbsent(category, name -> categories.size());
+        try {
+            spool(SnapshotColumn.ID).writeLong(id);
+            spool(SnapshotColumn.QUANTITY).writeInt(quantity);
+            spool(SnapshotColumn.MIN_STOCK_LEVEL).writeInt(minStockLevel);
+            spool(SnapshotColumn.PURCHASE_PRICE).writeDouble(purchasePrice);
+            spool(SnapshotColumn.SELLING_PRICE).writeDouble(sellingPrice);
+            spool(SnapshotColumn.CATEGORY).writeInt(categoryIndex);
+            spool(SnapshotColumn.SKU_BYTES).write(skuUtf8);
+            skuBytes += skuUtf8.length;
+            spool(SnapshotColumn.SKU_OFFSETS).writeInt((int) skuBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot write failed", e);
+        }
+        lastId = id;
+        rows++;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public Path finish() throws IOException {
+        DataOutputStream dictionary = spool(SnapshotColumn.CATEGORIES);
+        dictionary.writeInt(categories.size());
+        for (String category : categories.keySet()) {
+            byte[] name = category.getBytes(StandardCharsets.UTF_8);
+            dictionary.writeInt(name.length);
+            dictionary.write(name);
+        }
+        for (Spool spool : spools.values()) {
+            spool.out.close();
+        }
+
+        SnapshotColumn[] columns = SnapshotColumn.values();
+        ByteBuffer header = ByteBuffer.allocate(InventorySnapshot.headerBytes(columns.length));
+        header.putInt(InventorySnapshot.MAGIC)
+                .putShort(InventorySnapshot.VERSION)
+                .putShort((short) columns.length)
+                .putLong(createdAtMillis)
+                .putInt(rows);
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            // Место под заголовок: он пишется последним, когда известны смещения и суммы колонок
+            long position = pad(out, 0, header.capacity());
+            for (SnapshotColumn column : columns) {
+                Spool spool = spools.get(column);
+                long length = Files.size(spool.path);
+                try (FileChannel in = FileChannel.open(spool.path, StandardOpenOption.READ)) {
+                    for (long copied = 0; copied < length; ) {
+                        long transferred = out.transferFrom(in, position + copied, length - copied);
+                        if (transferred == 0) {
+                            throw new IOException("Snapshot column " + column + " was not copied");
+                        }
+                        copied += transferred;
+                    }
+                }
+                header.putLong(position).putLong(length).putInt((int) spool.crc.getValue());
+                position = pad(out, position + length, 0);
+            }
+            CRC32C headerCrc = new CRC32C();
+            headerCrc.update(header.array(), 0, header.position());
+            header.putInt((int) headerCrc.getValue());
+            header.flip();
+            out.write(header, 0);
+            out.force(true);
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        finished = true;
+        return target;
+    }
+
+    // Без finish() файл снимка не появляется; временные колонки удаляются в любом случае
+    @Override
+    public void close() throws IOException {
+        for (Spool spool : spools.values()) {
+            try {
+                spool.out.close();
+            } finally {
+                Files.deleteIfExists(spool.path);
+            }
+        }
+        spools.clear();
+        if (!finished) {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    // Нули до следующей границы 8 байт: transferFrom не пишет за концом файла, поэтому разрыв заполняется явно
+    private static long pad(FileChannel out, long position, int reserved) throws IOException {
+        long aligned = InventorySnapshot.align(position + reserved);
+        ByteBuffer zeros = ByteBuffer.allocate((int) (aligned - position));
+        while (zeros.hasRemaining()) {
+            out.write(zeros, position + zeros.position());
+        }
+        return aligned;
+    }
+
+    private DataOutputStream spool(SnapshotColumn column) {
+        return spools.get(column).out;
+    }
+
+    private static final class Spool {
+        final Path path;
+        final CRC32C crc;
+        final DataOutputStream out;
+
+        private Spool(Path path, CRC32C crc, DataOutputStream out) {
+            this.path = path;
+            this.crc = crc;
+            this.out = out;
+        }
+
+        static Spool open(Path path) throws IOException {
+            CRC32C crc = new CRC32C();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Files.newOutputStream(path), crc), SPOOL_BUFFER_BYTES));
+            return new Spool(path, crc, out);
+        }
+    }
+}
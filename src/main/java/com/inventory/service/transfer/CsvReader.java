@@ -0,0 +1,117 @@
+package com.inventory.service.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Потоковый разбор CSV (RFC 4180): в памяти только текущая запись
+public class CsvReader implements Closeable {
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final char delimiter;
+    private int pushback = NONE;
+    private boolean started;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    // Номер строки файла, с которой началась последняя прочитанная запись
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    // null - конец файла; пустые строки пропускаются
+    public List<String> next() throws IOException {
+        while (true) {
+            List<String> record = readRecord();
+            if (record == null || record.size() > 1 || !record.get(0).isEmpty()) {
+                return record;
+            }
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                fields.add(field.toString());
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushback = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                return fields;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != NONE) {
+            int c = pushback;
+            pushback = NONE;
+            return c;
+        }
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            // BOM из Excel
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
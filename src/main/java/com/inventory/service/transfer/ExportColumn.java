@@ -0,0 +1,15 @@
+package com.inventory.service.transfer;
+
+import lombok.Value;
+
+import java.util.function.Function;
+
+@Value
+public class ExportColumn<T> {
+    String name;
+    Function<T, Object> value;
+
+    public static <T> ExportColumn<T> of(String name, Function<T, Object> value) {
+        return new ExportColumn<>(name, value);
+    }
+}
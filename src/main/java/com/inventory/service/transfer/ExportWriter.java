@@ -0,0 +1,122 @@
+package com.inventory.service.transfer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Построчная запись выгрузки прямо в выходной поток; набор колонок общий для CSV и NDJSON
+public abstract class ExportWriter<T> implements Flushable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final List<ExportColumn<T>> columns;
+
+    protected ExportWriter(List<ExportColumn<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> ExportWriter<T> open(TransferFormat format, OutputStream output, ObjectMapper objectMapper,
+                                           List<ExportColumn<T>> columns) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return switch (format) {
+            case CSV -> new Csv<>(writer, columns);
+            case NDJSON -> new Ndjson<>(writer, objectMapper, columns);
+        };
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    private static class Csv<T> extends ExportWriter<T> {
+        private final Writer writer;
+
+        Csv(Writer writer, List<ExportColumn<T>> columns) throws IOException {
+            super(columns);
+            this.writer = writer;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).getName());
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).getValue().apply(row);
+                if (value != null) {
+                    writeField(format(value));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        // Без экспоненты: 1.0E7 не поймёт ни Excel, ни ERP
+        private static String format(Object value) {
+            if (value instanceof Double number) {
+                return BigDecimal.valueOf(number).toPlainString();
+            }
+            if (value instanceof Enum<?> constant) {
+                return constant.name();
+            }
+            return value.toString();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class Ndjson<T> extends ExportWriter<T> {
+        private final JsonGenerator generator;
+
+        Ndjson(Writer writer, ObjectMapper objectMapper, List<ExportColumn<T>> columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeObjectField(column.getName(), column.getValue().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventory.service.transfer;
+
+import lombok.Value;
+
+import java.util.Map;
+
+// Одна строка входного файла: значения по нормализованным именам колонок
+@Value
+public class ImportRecord {
+    long line;
+    Map<String, String> fields;
+    String error;
+
+    public static ImportRecord of(long line, Map<String, String> fields) {
+        return new ImportRecord(line, fields, null);
+    }
+
+    public static ImportRecord malformed(long line, String error) {
+        return new ImportRecord(line, Map.of(), error);
+    }
+
+    public String get(String column) {
+        String value = fields.get(normalize(column));
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // purchase_price, Purchase Price и purchasePrice - одна и та же колонка
+    static String normalize(String column) {
+        StringBuilder result = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toLowerCase(c));
+            }
+        }
+        return result.toString();
+    }
+}
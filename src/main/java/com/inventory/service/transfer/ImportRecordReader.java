@@ -0,0 +1,129 @@
+package com.inventory.service.transfer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Построчное чтение импорта; файл целиком в память не загружается
+public abstract class ImportRecordReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final BufferedReader reader;
+
+    protected ImportRecordReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static ImportRecordReader open(TransferFormat format, InputStream input, ObjectMapper objectMapper,
+                                          Collection<String> requiredColumns) {
+        return switch (format) {
+            case CSV -> new Csv(input, requiredColumns);
+            case NDJSON -> new Ndjson(input, objectMapper);
+        };
+    }
+
+    // null - конец файла
+    public abstract ImportRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static class Csv extends ImportRecordReader {
+        private final CsvReader csv;
+        private final Collection<String> requiredColumns;
+        private List<String> header;
+
+        Csv(InputStream input, Collection<String> requiredColumns) {
+            super(input);
+            this.csv = new CsvReader(reader);
+            this.requiredColumns = requiredColumns;
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            if (header == null) {
+                List<String> names = csv.next();
+                if (names == null) {
+                    return null;
+                }
+                header = names.stream().map(ImportRecord::normalize).toList();
+                // Опечатка в заголовке испортила бы каждую строку - сообщаем сразу
+                List<String> missing = requiredColumns.stream()
+                        .filter(column -> !header.contains(ImportRecord.normalize(column)))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    throw new IllegalArgumentException("Missing required columns: " + String.join(", ", missing));
+                }
+            }
+            List<String> values;
+            try {
+                values = csv.next();
+            } catch (IllegalArgumentException e) {
+                return ImportRecord.malformed(csv.getRecordLine(), e.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+            if (values.size() != header.size()) {
+                return ImportRecord.malformed(csv.getRecordLine(),
+                        "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < header.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return ImportRecord.of(csv.getRecordLine(), fields);
+        }
+    }
+
+    private static class Ndjson extends ImportRecordReader {
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        Ndjson(InputStream input, ObjectMapper objectMapper) {
+            super(input);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return ImportRecord.malformed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return ImportRecord.malformed(line, "Expected a JSON object");
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                if (!field.getValue().isNull()) {
+                    fields.put(ImportRecord.normalize(field.getKey()), field.getValue().asText());
+                }
+            }
+            return ImportRecord.of(line, fields);
+        }
+    }
+}
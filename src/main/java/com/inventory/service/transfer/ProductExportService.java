@@ -0,0 +1,101 @@
+package com.inventory.service.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.LedgerEntry;
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Выгрузка каталога и журнала движений потоком: память не зависит от числа строк.
+// Транзакция нужна драйверу PostgreSQL, чтобы fetch size работал как курсор, а не читал всё сразу
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+    static final int CLEAR_INTERVAL = 1000;
+
+    // Колонки совпадают с форматом импорта - выгрузку можно загрузить обратно
+    static final List<ExportColumn<Product>> PRODUCT_COLUMNS = List.of(
+            ExportColumn.of("id", Product::getId),
+            ExportColumn.of("sku", Product::getSku),
+            ExportColumn.of("name", Product::getName),
+            ExportColumn.of("description", Product::getDescription),
+            ExportColumn.of("category", Product::getCategory),
+            ExportColumn.of("purchasePrice", Product::getPurchasePrice),
+            ExportColumn.of("sellingPrice", Product::getSellingPrice),
+            ExportColumn.of("quantity", Product::getQuantity),
+            ExportColumn.of("minStockLevel", Product::getMinStockLevel),
+            ExportColumn.of("maxStockLevel", Product::getMaxStockLevel),
+            ExportColumn.of("supplier", product -> product.getSupplier() != null ? product.getSupplier().getName() : null),
+            ExportColumn.of("location", Product::getLocation),
+            ExportColumn.of("createdAt", Product::getCreatedAt),
+            ExportColumn.of("updatedAt", Product::getUpdatedAt)
+    );
+
+    static final List<ExportColumn<LedgerEntry>> LEDGER_COLUMNS = List.of(
+            ExportColumn.of("id", LedgerEntry::getId),
+            ExportColumn.of("productId", LedgerEntry::getProductId),
+            ExportColumn.of("sku", LedgerEntry::getSku),
+            ExportColumn.of("type", LedgerEntry::getType),
+            ExportColumn.of("quantity", LedgerEntry::getQuantity),
+            ExportColumn.of("quantityAfter", LedgerEntry::getQuantityAfter),
+            ExportColumn.of("reason", LedgerEntry::getReason),
+            ExportColumn.of("transactionDate", LedgerEntry::getTransactionDate),
+            ExportColumn.of("performedBy", LedgerEntry::getPerformedBy)
+    );
+
+    private final ProductRepository productRepository;
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(TransferFormat format, String category, LocalDateTime updatedSince,
+                               OutputStream output) throws IOException {
+        ExportWriter<Product> writer = ExportWriter.open(format, output, objectMapper, PRODUCT_COLUMNS);
+        long rows = 0;
+        try (Stream<Product> products = productRepository.streamForExport(category, updatedSince)) {
+            for (Iterator<Product> it = products.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                // Прочитанные сущности отпускаем пачками, иначе контекст персистентности растёт до размера таблицы
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} products ({})", rows, format);
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportLedger(TransferFormat format, Long productId, LocalDateTime since,
+                             OutputStream output) throws IOException {
+        ExportWriter<LedgerEntry> writer = ExportWriter.open(format, output, objectMapper, LEDGER_COLUMNS);
+        long rows = 0;
+        try (Stream<LedgerEntry> entries = transactionRepository.streamLedger(productId, since)) {
+            for (Iterator<LedgerEntry> it = entries.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} stock movements ({})", rows, format);
+        return rows;
+    }
+}
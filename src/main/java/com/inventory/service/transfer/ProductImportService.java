@@ -0,0 +1,293 @@
+package com.inventory.service.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.ImportReport;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.model.Product;
+import com.inventory.model.Supplier;
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.ProductBatchRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.StockLedgerService;
+import com.inventory.service.SupplierService;
+import com.inventory.service.ids.IdAllocator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Импорт каталога: потоковый разбор, проверка строк и upsert по SKU пакетами,
+// каждый пакет - отдельная транзакция
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+    static final List<String> REQUIRED_COLUMNS = List.of("sku", "name", "category", "purchasePrice",
+            "sellingPrice", "quantity", "minStockLevel", "maxStockLevel", "location");
+    static final String IMPORT_REASON = "Catalog import";
+
+    private final ProductRepository productRepository;
+    private final ProductBatchRepository batchRepository;
+    private final IdAllocator idAllocator;
+    private final SupplierService supplierService;
+    private final StockLedgerService stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ImportReport importProducts(InputStream input, TransferFormat format) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress(maxReportedErrors);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (ImportRecordReader reader = ImportRecordReader.open(format, input, objectMapper, REQUIRED_COLUMNS)) {
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                progress.total++;
+                ImportRow row = parse(record, progress);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    write(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(chunk, progress);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = progress.total * 1e9 / Math.max(elapsedNanos, 1);
+        recordMetrics(format, progress, elapsedNanos, rowsPerSecond);
+        log.info("Product import ({}): {} rows, {} created, {} updated, {} failed in {} ms ({} rows/s)",
+                format, progress.total, progress.created, progress.updated, progress.failed,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(rowsPerSecond));
+
+        return ImportReport.builder()
+                .totalRows(progress.total)
+                .created(progress.created)
+                .updated(progress.updated)
+                .failed(progress.failed)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(rowsPerSecond)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    private ImportRow parse(ImportRecord record, Progress progress) {
+        if (record.getError() != null) {
+            progress.fail(record.getLine(), null, record.getError());
+            return null;
+        }
+        Map<String, String> errors = new TreeMap<>();
+        String supplier = record.get("supplier");
+        Product product = Product.builder()
+                .sku(record.get("sku"))
+                .name(record.get("name"))
+                .description(record.get("description"))
+                .category(record.get("category"))
+                .purchasePrice(parseDouble(record, "purchasePrice", errors))
+                .sellingPrice(parseDouble(record, "sellingPrice", errors))
+                .quantity(parseInt(record, "quantity", errors))
+                .minStockLevel(parseInt(record, "minStockLevel", errors))
+                .maxStockLevel(parseInt(record, "maxStockLevel", errors))
+                // Пока только название: сопоставление с поставщиками - при записи пакета
+                .supplier(supplier != null ? Supplier.builder().name(supplier).build() : null)
+                .location(record.get("location"))
+                .build();
+        // Без SKU строку не с чем сопоставить при upsert
+        if (product.getSku() == null) {
+            errors.put("sku", "must not be blank");
+        }
+        for (ConstraintViolation<Product> violation : validator.validate(product)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            String message = errors.entrySet().stream()
+                    .map(error -> error.getKey() + ": " + error.getValue())
+                    .collect(Collectors.joining("; "));
+            progress.fail(record.getLine(), product.getSku(), message);
+            return null;
+        }
+        return new ImportRow(record.getLine(), product);
+    }
+
+    private void write(List<ImportRow> chunk, Progress progress) {
+        try {
+            Integer created = transactionTemplate.execute(status -> writeChunk(chunk));
+            progress.created += created;
+            progress.updated += chunk.size() - created;
+        } catch (DataAccessException | TransactionException e) {
+            if (chunk.size() == 1) {
+                ImportRow row = chunk.get(0);
+                progress.fail(row.getLine(), row.getProduct().getSku(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            // Пакет откатился целиком - повторяем построчно, чтобы найти виновные строки
+            log.warn("Import chunk of {} rows starting at line {} failed, retrying row by row: {}",
+                    chunk.size(), chunk.get(0).getLine(), e.getMessage());
+            for (ImportRow row : chunk) {
+                write(List.of(row), progress);
+            }
+        }
+    }
+
+    private int writeChunk(List<ImportRow> chunk) {
+        // Повтор SKU внутри пакета: побеждает последняя строка, как при последовательной записи
+        Map<String, Product> bySku = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            bySku.put(row.getProduct().getSku(), row.getProduct());
+        }
+        batchRepository.lockAllBySku(bySku.keySet());
+        Map<String, ProductSummary> before = productRepository.findSummariesBySkuIn(bySku.keySet()).stream()
+                .collect(Collectors.toMap(ProductSummary::getSku, Function.identity()));
+
+        List<Product> inserts = new ArrayList<>();
+        List<Product> updates = new ArrayList<>();
+        // Поставщики всего пакета разрешаются по названию разом; повтор пакета после отката разрешает их заново
+        Map<String, Supplier> suppliers = supplierService.resolveAll(bySku.values().stream()
+                .filter(product -> product.getSupplier() != null)
+                .map(product -> product.getSupplier().getName())
+                .toList());
+        for (Product product : bySku.values()) {
+            if (product.getSupplier() != null) {
+                product.setSupplier(suppliers.get(SupplierService.normalize(product.getSupplier().getName())));
+            }
+            (before.containsKey(product.getSku()) ? updates : inserts).add(product);
+        }
+        // id выдаётся заново при каждой попытке: после отката пакета прежние значения просто пропадают
+        inserts.forEach(product -> product.setId(idAllocator.nextId(IdAllocator.PRODUCTS)));
+        LocalDateTime now = LocalDateTime.now();
+        batchRepository.insertAll(inserts, now);
+        batchRepository.updateAllBySku(updates, now);
+
+        // События доставляются слушателям после коммита пакета. Изменение остатка существующего товара -
+        // корректировка в журнале, одним пакетом INSERT на весь пакет импорта
+        List<Transaction> movements = new ArrayList<>();
+        for (ProductSummary after : productRepository.findSummariesBySkuIn(bySku.keySet())) {
+            ProductSummary previous = before.get(after.getSku());
+            eventPublisher.publishEvent(previous == null
+                    ? ProductChangedEvent.created(after)
+                    : ProductChangedEvent.updated(previous, after));
+            if (previous != null && !previous.getQuantity().equals(after.getQuantity())) {
+                movements.add(stockLedger.movement(after.getId(), TransactionType.ADJUSTMENT,
+                        after.getQuantity() - previous.getQuantity(), after.getQuantity(), IMPORT_REASON, null));
+            }
+        }
+        if (!movements.isEmpty()) {
+            stockLedger.recordAll(movements);
+        }
+        return inserts.size();
+    }
+
+    private void recordMetrics(TransferFormat format, Progress progress, long elapsedNanos, double rowsPerSecond) {
+        String formatTag = format.name().toLowerCase();
+        rowCounter(formatTag, "created").increment(progress.created);
+        rowCounter(formatTag, "updated").increment(progress.updated);
+        rowCounter(formatTag, "failed").increment(progress.failed);
+        Timer.builder("inventory.import.duration")
+                .tag("format", formatTag)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("inventory.import.throughput")
+                .baseUnit("rows_per_second")
+                .tag("format", formatTag)
+                .register(meterRegistry)
+                .record(rowsPerSecond);
+    }
+
+    private Counter rowCounter(String format, String outcome) {
+        return Counter.builder("inventory.import.rows")
+                .tag("format", format)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Double parseDouble(ImportRecord record, String column, Map<String, String> errors) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            errors.put(column, "not a number '" + value + "'");
+            return null;
+        }
+    }
+
+    private static Integer parseInt(ImportRecord record, String column, Map<String, String> errors) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            errors.put(column, "not an integer '" + value + "'");
+            return null;
+        }
+    }
+
+    @lombok.Value
+    private static class ImportRow {
+        long line;
+        Product product;
+    }
+
+    private static class Progress {
+        final int maxErrors;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+        long total;
+        long created;
+        long updated;
+        long failed;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReport.RowError(line, sku, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventory.service.transfer;
+
+import org.springframework.http.MediaType;
+
+public enum TransferFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    TransferFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // Явный параметр format важнее заголовка Content-Type и расширения файла
+    public static TransferFormat resolve(String format, String contentType, String filename) {
+        if (format != null && !format.isBlank()) {
+            for (TransferFormat candidate : values()) {
+                if (candidate.name().equalsIgnoreCase(format.trim())) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        if (contentType != null && contentType.toLowerCase().contains("ndjson")) {
+            return NDJSON;
+        }
+        if (filename != null && (filename.toLowerCase().endsWith(".ndjson") || filename.toLowerCase().endsWith(".jsonl"))) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,47 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Последовательности id заводятся сразу за уже выданными IDENTITY значениями. Значение последовательности -
+// верхняя граница блока из 50 id (allocationSize сущностей), поэтому первый блок начинается с max(id) + 1.
+// На Java, а не SQL: PostgreSQL не принимает выражение в START WITH, а setval нет в H2
+public class V5__id_sequences extends BaseJavaMigration {
+    // Значения зафиксированы в миграции и не меняются вместе с кодом IdAllocator
+    private static final int ENTITY_BLOCK_SIZE = 50;
+    private static final int SKU_BLOCK_SIZE = 1000;
+
+    private static final Map<String, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put("products_seq", "products");
+        TABLES.put("suppliers_seq", "suppliers");
+        TABLES.put("transactions_seq", "transactions");
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> sequence : TABLES.entrySet()) {
+                long start = maxId(statement, sequence.getValue()) + ENTITY_BLOCK_SIZE;
+                statement.execute("create sequence %s start with %d increment by %d"
+                        .formatted(sequence.getKey(), start, ENTITY_BLOCK_SIZE));
+            }
+            statement.execute("create sequence sku_seq start with %d increment by %d"
+                    .formatted(SKU_BLOCK_SIZE, SKU_BLOCK_SIZE));
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+-- Исходная схема ровно в том виде, в каком её создавал ddl-auto=update до перехода на миграции:
+-- id через IDENTITY, последовательностей нет. На существующей базе без истории Flyway эта версия
+-- считается уже применённой (spring.flyway.baseline-on-migrate в профиле prod), поэтому всё новое -
+-- только в следующих версиях
+
+create table products (
+    max_stock_level integer not null,
+    min_stock_level integer not null,
+    purchase_price float(53) not null,
+    quantity integer not null,
+    selling_price float(53) not null,
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    category varchar(255) not null,
+    description varchar(255),
+    location varchar(255) not null,
+    name varchar(255) not null,
+    sku varchar(255) not null unique,
+    supplier varchar(255),
+    primary key (id)
+);
+
+create table suppliers (
+    id bigint generated by default as identity,
+    address varchar(255),
+    contact_person varchar(255) not null,
+    email varchar(255) not null unique,
+    name varchar(255) not null,
+    phone varchar(255),
+    primary key (id)
+);
+
+create table transactions (
+    quantity integer not null,
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    transaction_date timestamp(6) not null,
+    performed_by varchar(255) not null,
+    reason varchar(255) not null,
+    type varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists transactions
+    add constraint FKcdpkn7bkq15bjvlw9mo46l9ft
+    foreign key (product_id)
+    references products;
@@ -0,0 +1,23 @@
+-- Товар ссылается на поставщика по id вместо свободного текста. Поставщики, которые до сих пор были
+-- только названием в products.supplier, заводятся без контактов; одинаковые названия - один поставщик
+
+alter table suppliers alter column email drop not null;
+alter table suppliers alter column contact_person drop not null;
+create index idx_suppliers_name on suppliers (name);
+
+-- id продолжают существующие: последовательность при старте сдвигает за максимальный id IdAllocator
+insert into suppliers (id, name)
+select (select coalesce(max(id), 0) from suppliers) + row_number() over (order by names.name), names.name
+from (select distinct trim(supplier) as name from products where trim(supplier) <> '') names
+where not exists (select 1 from suppliers s where s.name = names.name);
+
+alter table products add column supplier_id bigint;
+
+update products
+set supplier_id = (select min(s.id) from suppliers s where s.name = trim(products.supplier))
+where trim(supplier) <> '';
+
+alter table products add constraint fk_products_supplier foreign key (supplier_id) references suppliers (id);
+create index idx_products_supplier_id on products (supplier_id);
+
+alter table products drop column supplier;
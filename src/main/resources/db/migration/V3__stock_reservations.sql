@@ -0,0 +1,23 @@
+-- Резервы под заказы: products.reserved_quantity - сумма активных резервов товара,
+-- доступно к обещанию quantity - reserved_quantity
+
+alter table products add column reserved_quantity integer default 0 not null;
+
+create sequence stock_reservations_seq start with 1 increment by 50;
+
+create table stock_reservations (
+    id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    status varchar(16) not null check (status in ('ACTIVE', 'CONFIRMED', 'RELEASED', 'EXPIRED')),
+    reference varchar(255),
+    performed_by varchar(255) not null,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    closed_at timestamp(6),
+    primary key (id),
+    constraint fk_stock_reservations_product foreign key (product_id) references products (id)
+);
+
+create index idx_stock_reservations_status_expires_at on stock_reservations (status, expires_at);
+create index idx_stock_reservations_product_id on stock_reservations (product_id);
@@ -0,0 +1,60 @@
+-- Схема поверх исходной: журнал движений с остатком после движения, индексы keyset-выборок,
+-- дневные агрегаты движений и контрольные точки журнала сканов.
+-- id больше не IDENTITY: их выдают последовательности (V5) блоками через IdAllocator и Hibernate
+
+alter table products alter column id drop identity;
+alter table suppliers alter column id drop identity;
+alter table transactions alter column id drop identity;
+
+create index idx_products_name_id on products (name, id);
+create index idx_products_category_id on products (category, id);
+create index idx_products_quantity_id on products (quantity, id);
+create index idx_products_updated_at_id on products (updated_at, id);
+
+alter table transactions alter column type set data type varchar(16);
+alter table transactions add constraint ck_transactions_type check (type in ('IN', 'OUT', 'ADJUSTMENT'));
+
+-- Исходная версия журнал не вела; для строк, внесённых в обход приложения, остаток после движения
+-- не восстановить - берётся текущий остаток товара
+alter table transactions add column quantity_after integer;
+update transactions
+set quantity_after = (select p.quantity from products p where p.id = transactions.product_id);
+alter table transactions alter column quantity_after set not null;
+
+create index idx_transactions_product_id_id on transactions (product_id, id);
+
+create table product_daily_rollups (
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    category varchar(255) not null,
+    rollup_day date not null,
+    in_quantity bigint not null,
+    out_quantity bigint not null,
+    net_change bigint not null,
+    movement_count bigint not null,
+    closing_quantity integer not null,
+    last_movement_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_product_daily_rollups_product_day unique (product_id, rollup_day)
+);
+
+create index idx_product_daily_rollups_category_day on product_daily_rollups (category, rollup_day);
+
+create table category_daily_rollups (
+    id bigint generated by default as identity,
+    category varchar(255) not null,
+    rollup_day date not null,
+    in_quantity bigint not null,
+    out_quantity bigint not null,
+    net_change bigint not null,
+    movement_count bigint not null,
+    primary key (id),
+    constraint uk_category_daily_rollups_category_day unique (category, rollup_day)
+);
+
+create table scan_journal_checkpoints (
+    journal varchar(64) not null,
+    committed_sequence bigint not null,
+    updated_at timestamp(6) not null,
+    primary key (journal)
+);
@@ -133,4 +133,81 @@ document.addEventListener('DOMContentLoaded', function() {
     if (notification) {
         showToast(decodeURIComponent(notification), 'success');
     }
-});
\ No newline at end of file
+});
+// Живые обновления по SSE: страница с data-live-url получает изменения и применяет их на месте
+document.addEventListener('DOMContentLoaded', function() {
+    const root = document.querySelector('[data-live-url]');
+    if (!root || !window.EventSource) {
+        return;
+    }
+
+    let totalProducts = 0;
+    const money = value => '$' + Number(value).toLocaleString(undefined, {
+        minimumFractionDigits: 2,
+        maximumFractionDigits: 2
+    });
+    const setText = (scope, name, value) => {
+        scope.querySelectorAll(`[data-live="${name}"]`).forEach(element => {
+            element.textContent = value;
+        });
+    };
+    const byData = (attribute, value) => Array.from(document.querySelectorAll(`[${attribute}]`))
+        .filter(element => element.getAttribute(attribute) === String(value));
+
+    // EventSource сам переподключается; сервер при подключении присылает текущее состояние
+    const source = new EventSource(root.dataset.liveUrl);
+
+    source.addEventListener('summary', function(event) {
+        const summary = JSON.parse(event.data);
+        totalProducts = summary.totalProducts;
+        setText(document, 'totalProducts', summary.totalProducts);
+        setText(document, 'totalInventoryValue', money(summary.totalInventoryValue));
+        setText(document, 'lowStockCount', summary.lowStockCount);
+        setText(document, 'categoryCount', summary.categoryCount);
+    });
+
+    source.addEventListener('category', function(event) {
+        const category = JSON.parse(event.data);
+        byData('data-live-category', category.category).forEach(row => {
+            if (category.count === 0) {
+                row.remove();
+                return;
+            }
+            setText(row, 'count', category.count);
+            const share = totalProducts > 0 ? category.count / totalProducts * 100 : 0;
+            row.querySelectorAll('[data-live="share"]').forEach(bar => {
+                bar.style.width = share + '%';
+                bar.setAttribute('aria-valuenow', share);
+            });
+        });
+    });
+
+    source.addEventListener('product', function(event) {
+        const product = JSON.parse(event.data);
+        byData('data-live-product', product.id).forEach(element => {
+            if (product.deleted) {
+                element.classList.add('opacity-50');
+                return;
+            }
+            setText(element, 'quantity', product.quantity);
+            element.querySelectorAll('[data-live="stock-indicator"]').forEach(indicator => {
+                indicator.classList.remove('stock-low', 'stock-normal', 'stock-high');
+                indicator.classList.add(product.lowStock ? 'stock-low'
+                    : (product.quantity >= product.maxStockLevel ? 'stock-high' : 'stock-normal'));
+            });
+            element.querySelectorAll('[data-live="status"]').forEach(status => {
+                status.classList.toggle('bg-danger', product.lowStock);
+                status.classList.toggle('bg-success', !product.lowStock);
+                status.textContent = product.lowStock ? 'Критический' : 'Пополнен';
+            });
+        });
+    });
+
+    // Сервер отбросил часть изменений для этой страницы - точечно её уже не догнать
+    source.addEventListener('reload', function() {
+        source.close();
+        window.location.reload();
+    });
+
+    window.addEventListener('beforeunload', () => source.close());
+});
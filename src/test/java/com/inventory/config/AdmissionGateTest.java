@@ -0,0 +1,115 @@
+package com.inventory.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionGateTest {
+    private static final AdmissionGate.Settings ONE_AT_A_TIME =
+            new AdmissionGate.Settings(1, 1, 1, 0, Duration.ZERO, Duration.ofSeconds(1));
+
+    @Test
+    void tryAcquire_ShouldShedWhenLimitAndQueueAreFull() {
+        AdmissionGate gate = new AdmissionGate(10, 2, Map.of(WorkloadClass.REPORT, ONE_AT_A_TIME));
+
+        AdmissionGate.Permit permit = gate.tryAcquire(WorkloadClass.REPORT);
+        assertThat(permit).isNotNull();
+        assertThat(gate.tryAcquire(WorkloadClass.REPORT)).isNull();
+        assertThat(gate.getShed(WorkloadClass.REPORT)).isEqualTo(1);
+
+        gate.release(permit);
+        assertThat(gate.getInFlight(WorkloadClass.REPORT)).isZero();
+        assertThat(gate.tryAcquire(WorkloadClass.REPORT)).isNotNull();
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepReservedCapacityForStockWrites() {
+        AdmissionGate.Settings wide = new AdmissionGate.Settings(10, 1, 10, 0, Duration.ZERO, Duration.ofSeconds(1));
+        AdmissionGate gate = new AdmissionGate(4, 2, Map.of(WorkloadClass.REPORT, wide, WorkloadClass.STOCK_WRITE, wide));
+
+        assertThat(gate.tryAcquire(WorkloadClass.REPORT)).isNotNull();
+        assertThat(gate.tryAcquire(WorkloadClass.REPORT)).isNotNull();
+        assertThat(gate.tryAcquire(WorkloadClass.REPORT)).isNull();
+
+        assertThat(gate.tryAcquire(WorkloadClass.STOCK_WRITE)).isNotNull();
+        assertThat(gate.tryAcquire(WorkloadClass.STOCK_WRITE)).isNotNull();
+        assertThat(gate.tryAcquire(WorkloadClass.STOCK_WRITE)).isNull();
+    }
+
+    @Test
+    void tryAcquire_ShouldAdmitQueuedRequestWhenPermitIsReleased() throws Exception {
+        AdmissionGate gate = new AdmissionGate(10, 2, Map.of(WorkloadClass.STOCK_WRITE,
+                ONE_AT_A_TIME.withQueueCapacity(1).withMaxWait(Duration.ofSeconds(10))));
+        AdmissionGate.Permit first = gate.tryAcquire(WorkloadClass.STOCK_WRITE);
+
+        CompletableFuture<AdmissionGate.Permit> queued = CompletableFuture.supplyAsync(
+                () -> gate.tryAcquire(WorkloadClass.STOCK_WRITE));
+        while (gate.getQueued(WorkloadClass.STOCK_WRITE) == 0) {
+            Thread.onSpinWait();
+        }
+        // Очередь на одно место: следующий уже не ждёт
+        assertThat(gate.tryAcquire(WorkloadClass.STOCK_WRITE)).isNull();
+
+        gate.release(first);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(gate.getInFlight(WorkloadClass.STOCK_WRITE)).isEqualTo(1);
+    }
+
+    @Test
+    void adaptiveLimit_ShouldGrowWhileFastAndBackOffOncePerTargetWhenSlow() {
+        long target = Duration.ofMillis(100).toNanos();
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 20, Duration.ofMillis(100));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(target / 2, 10, now);
+        }
+        assertThat(limit.current()).isEqualTo(10);
+        limit.onSample(target / 2, 10, now);
+        assertThat(limit.current()).isEqualTo(11);
+        // Недогруженный лимит не растёт
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(target / 2, 1, now);
+        }
+        assertThat(limit.current()).isEqualTo(11);
+
+        limit.onSample(target * 3, 11, now);
+        limit.onSample(target * 3, 11, now + 1);
+        assertThat(limit.current()).isEqualTo(9);
+        limit.onSample(target * 3, 9, now + target);
+        assertThat(limit.current()).isEqualTo(8);
+    }
+
+    @Test
+    void interceptor_ShouldRejectWithRetryAfterWhenClassIsSaturated() throws Exception {
+        AdmissionGate gate = new AdmissionGate(10, 2, Map.of(WorkloadClass.REPORT, ONE_AT_A_TIME));
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(gate, Duration.ofSeconds(3));
+        HandlerMethod handler = new HandlerMethod(new ReportHandler(), ReportHandler.class.getMethod("report"));
+
+        MockHttpServletRequest admitted = new MockHttpServletRequest();
+        assertThat(interceptor.preHandle(admitted, new MockHttpServletResponse(), handler)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), rejected, handler)).isFalse();
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("3");
+
+        interceptor.afterCompletion(admitted, new MockHttpServletResponse(), handler, null);
+        assertThat(gate.getInFlight(WorkloadClass.REPORT)).isZero();
+    }
+
+    @Workload(WorkloadClass.REPORT)
+    static class ReportHandler {
+        public String report() {
+            return "report";
+        }
+    }
+}
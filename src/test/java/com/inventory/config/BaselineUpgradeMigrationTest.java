@@ -0,0 +1,90 @@
+package com.inventory.config;
+
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Product;
+import com.inventory.model.Supplier;
+import com.inventory.service.ProductService;
+import com.inventory.service.StockLedgerService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// База, которую вёл ddl-auto=update до миграций: IDENTITY id, последовательностей нет, истории Flyway нет.
+// Профиль prod помечает её версией 1 и доводит до текущей схемы остальными миграциями
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + BaselineUpgradeMigrationTest.URL,
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+@ActiveProfiles({"test", "prod"})
+class BaselineUpgradeMigrationTest {
+    static final String URL = "jdbc:h2:mem:baseline_upgrade;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    // До подъёма контекста: Flyway должен застать уже заполненную исходную схему
+    @BeforeAll
+    static void seedBaselineDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO suppliers (name, email, contact_person) "
+                + "VALUES ('Acme', 'acme@example.com', 'Ivanov')");
+        for (int i = 1; i <= 3; i++) {
+            jdbc.update("INSERT INTO products (sku, name, category, purchase_price, selling_price, quantity, "
+                    + "min_stock_level, max_stock_level, supplier, location, created_at, updated_at) "
+                    + "VALUES (?, ?, 'Legacy', 1, 2, 10, 1, 100, ?, 'A-1', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                    "OLD-" + i, "Old " + i, i == 1 ? "Acme" : "Beta");
+        }
+    }
+
+    @Test
+    void baselineDatabase_ShouldUpgradeAndKeepIssuingIdsPastExistingRows() {
+        // Версия 1 не выполнялась, а отмечена как исходная
+        assertThat(jdbcTemplate.queryForList("SELECT \"type\" || ':' || \"version\" FROM \"flyway_schema_history\" "
+                + "WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class))
+                .containsExactly("BASELINE:1", "SQL:2", "SQL:3", "SQL:4", "JDBC:5");
+        long maxProductId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        long maxSupplierId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM suppliers", Long.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE supplier_id IS NOT NULL",
+                Long.class)).isEqualTo(3);
+
+        Product created = productService.createProduct(Product.builder()
+                .name("After upgrade")
+                .category("Legacy")
+                .quantity(5)
+                .minStockLevel(1)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("A-2")
+                .supplier(Supplier.builder().name("Gamma").build())
+                .build());
+        Long legacyId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'OLD-1'", Long.class);
+        productService.updateStock(legacyId, 4, "IN");
+
+        assertThat(created.getId()).isGreaterThan(maxProductId);
+        assertThat(created.getSupplier().getId()).isGreaterThan(maxSupplierId);
+        List<StockMovement> history = stockLedger.getHistory(legacyId, null, 10).getContent();
+        assertThat(history).singleElement()
+                .satisfies(movement -> assertThat(movement.getQuantityAfter()).isEqualTo(14));
+    }
+}
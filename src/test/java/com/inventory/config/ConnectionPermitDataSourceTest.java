@@ -0,0 +1,46 @@
+package com.inventory.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectionPermitDataSourceTest {
+    private final ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:permits;DB_CLOSE_DELAY=-1", "sa", ""), 2, Duration.ofMillis(100));
+
+    @Test
+    void getConnection_ShouldTimeOutWhenAllPermitsAreTaken() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(dataSource.getAvailablePermits()).isZero();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void close_ShouldReleasePermitOnlyOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+        try (Connection reused = dataSource.getConnection()) {
+            assertThat(reused.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    void abort_ShouldReleasePermitOnlyOnce() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.abort(Runnable::run);
+        connection.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+}
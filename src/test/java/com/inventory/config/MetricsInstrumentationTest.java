@@ -0,0 +1,70 @@
+package com.inventory.config;
+
+import com.inventory.model.Product;
+import com.inventory.service.ProductService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MetricsInstrumentationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void productDetailRequest_ShouldRecordServiceRepositoryStatementAndRenderMeters() throws Exception {
+        Product product = productService.createProduct(Product.builder()
+                .sku("MET-" + UUID.randomUUID())
+                .name("Metrics")
+                .category("Metrics")
+                .quantity(5)
+                .minStockLevel(1)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("M-1")
+                .build());
+
+        mockMvc.perform(get("/products/{id}", product.getId())).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("inventory.service")
+                .tag("class", ProductService.class.getName())
+                .tag("method", "getProductById")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "TransactionRepository")
+                .tag("method", "findHistory")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("inventory.view.render").tag("view", "products/detail").timer().count())
+                .isPositive();
+
+        DistributionSummary statements = meterRegistry.get("inventory.request.statements")
+                .tag("uri", "/products/{id}")
+                .summary();
+        assertThat(statements.count()).isPositive();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+
+        assertThat(meterRegistry.get("hibernate.statements").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+}
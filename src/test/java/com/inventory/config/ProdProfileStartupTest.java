@@ -0,0 +1,106 @@
+package com.inventory.config;
+
+import com.inventory.model.Product;
+import com.inventory.service.InventoryAggregateStore;
+import com.inventory.service.LowStockEngine;
+import com.inventory.service.ProductService;
+import com.inventory.service.StockRollupService;
+import com.inventory.service.replenishment.ReplenishmentEngine;
+import com.inventory.service.reservation.StockReservationService;
+import com.inventory.service.snapshot.SnapshotService;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Профиль prod поверх тестового: схему создают миграции, а Hibernate сверяет её с сущностями (validate)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod_profile;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+@ActiveProfiles({"test", "prod"})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ProdProfileStartupTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ScheduledTaskHolder scheduledTaskHolder;
+
+    @Test
+    void migrations_ShouldCreateTheSchemaTheEntitiesExpect() {
+        assertThat(jdbcTemplate.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\"",
+                String.class)).contains("1", "2", "3", "4", "5");
+
+        Product created = productService.createProduct(Product.builder()
+                .name("Migrated")
+                .category("Prod")
+                .quantity(3)
+                .minStockLevel(1)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+
+        assertThat(created.getSku()).startsWith("PROD-");
+        assertThat(productService.getProductById(created.getId()).getName()).isEqualTo("Migrated");
+    }
+
+    // Первым, до событий других тестов: слушатель события создал бы ленивый бин и тем зарегистрировал его задачи
+    @Test
+    @Order(1)
+    void lazyInitialization_ShouldStillRegisterEveryScheduledJob() {
+        Set<String> tasks = scheduledTaskHolder.getScheduledTasks().stream()
+                .map(task -> task.getTask().toString())
+                .collect(Collectors.toSet());
+
+        assertThat(tasks).contains(
+                InventoryAggregateStore.class.getName() + ".reconcile",
+                LowStockEngine.class.getName() + ".reconcile",
+                StockRollupService.class.getName() + ".fold",
+                StockRollupService.class.getName() + ".settle",
+                ReplenishmentEngine.class.getName() + ".runNightly",
+                SnapshotService.class.getName() + ".runNightly",
+                StockReservationService.class.getName() + ".expireDue");
+    }
+
+    @Test
+    void phases_ShouldNotCountNestedBeansTwice() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep outer = startup.start(StartupReport.BEAN_STEP).tag("beanName", "outer");
+        StartupStep inner = startup.start(StartupReport.BEAN_STEP).tag("beanName", "inner-" + UUID.randomUUID());
+        Thread.sleep(20);
+        inner.end();
+        outer.end();
+        refresh.end();
+
+        Map<String, Long> phases = StartupReport.phases(startup.getBufferedTimeline().getEvents());
+        Map<String, Long> beans = StartupReport.slowestBeans(startup.getBufferedTimeline().getEvents());
+
+        assertThat(phases).containsOnlyKeys("spring.context.refresh", StartupReport.BEAN_STEP);
+        // Только внешний бин: внутренний уже входит в его время
+        assertThat(phases.get(StartupReport.BEAN_STEP)).isEqualTo(beans.get("outer"));
+        assertThat(beans).hasSize(2);
+    }
+}
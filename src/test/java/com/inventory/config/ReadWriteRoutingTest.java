@@ -0,0 +1,110 @@
+package com.inventory.config;
+
+import com.inventory.model.Product;
+import com.inventory.service.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Основная БД и две реплики - отдельные базы H2 в памяти. Схема реплик копируется с основной при старте,
+// данные не реплицируются: по содержимому видно, откуда было чтение
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.open-in-view=false",
+        "inventory.datasource.routing.enabled=true",
+        "inventory.datasource.routing.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_ONE,
+        "inventory.datasource.routing.replicas[0].username=sa",
+        "inventory.datasource.routing.replicas[1].url=" + ReadWriteRoutingTest.REPLICA_TWO,
+        "inventory.datasource.routing.replicas[1].username=sa"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+    static final String REPLICA_ONE = "jdbc:h2:mem:routing_replica_one;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_TWO = "jdbc:h2:mem:routing_replica_two;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void readOnlyTransactions_ShouldUseReplicasAndWritesThePrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Set<String> readFrom = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            readFrom.add(readOnly.execute(status -> currentDatabase()));
+        }
+
+        assertThat(readFrom).containsExactlyInAnyOrder("ROUTING_REPLICA_ONE", "ROUTING_REPLICA_TWO");
+        String written = transactionTemplate.execute(status -> currentDatabase());
+        assertThat(written).isEqualTo("ROUTING_PRIMARY");
+        assertThat(dataSource).isInstanceOf(ReadWriteRoutingDataSource.class);
+    }
+
+    @Test
+    void serviceReads_ShouldNotSeeRowsThatOnlyThePrimaryHas() {
+        Product created = productService.createProduct(Product.builder()
+                .sku("ROUTE-" + UUID.randomUUID())
+                .name("Routed")
+                .category("Routing")
+                .quantity(1)
+                .minStockLevel(5)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+
+        Long written = transactionTemplate.execute(status -> (Long) entityManager
+                .createQuery("SELECT COUNT(p) FROM Product p WHERE p.id = :id")
+                .setParameter("id", created.getId())
+                .getSingleResult());
+        assertThat(written).isEqualTo(1L);
+        assertThat(productService.getAllProducts()).isEmpty();
+        assertThat(productService.getLowStockProducts()).isEmpty();
+    }
+
+    private String currentDatabase() {
+        return (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult();
+    }
+
+    @TestConfiguration
+    static class ReplicaSchema {
+        // После создания схемы Hibernate и до событий старта, которые уже читают с реплик
+        @Bean
+        SmartInitializingSingleton copySchemaToReplicas(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+            return () -> {
+                List<String> script = new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA", String.class);
+                for (String url : List.of(REPLICA_ONE, REPLICA_TWO)) {
+                    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+                    script.forEach(replica::execute);
+                }
+            };
+        }
+    }
+}
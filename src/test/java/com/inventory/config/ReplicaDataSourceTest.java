@@ -0,0 +1,127 @@
+package com.inventory.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceTest {
+    private final DataSource primary = database("rw_primary");
+    private final SwitchableDataSource first = new SwitchableDataSource(database("rw_replica_one"));
+    private final SwitchableDataSource second = new SwitchableDataSource(database("rw_replica_two"));
+    private final ReplicaDataSource replicas = new ReplicaDataSource(primary, List.of(first, second),
+            List.of("replica-1", "replica-2"));
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+        replicas.close();
+    }
+
+    @Test
+    void getConnection_ShouldRoundRobinAcrossReplicas() throws Exception {
+        assertThat(readFrom(4)).containsExactly("RW_REPLICA_ONE", "RW_REPLICA_TWO", "RW_REPLICA_ONE", "RW_REPLICA_TWO");
+    }
+
+    @Test
+    void getConnection_ShouldSkipFailedReplicaAndFallBackToPrimaryUntilHealthCheckPasses() throws Exception {
+        first.down = true;
+        assertThat(readFrom(3)).containsOnly("RW_REPLICA_TWO");
+        assertThat(replicas.getHealthyCount()).isEqualTo(1);
+
+        second.down = true;
+        assertThat(readFrom(1)).containsExactly("RW_PRIMARY");
+        assertThat(replicas.getFallbackCount()).isEqualTo(1);
+
+        first.down = false;
+        second.down = false;
+        replicas.checkHealth();
+        assertThat(replicas.getHealthyCount()).isEqualTo(2);
+        assertThat(readFrom(2)).containsExactlyInAnyOrder("RW_REPLICA_ONE", "RW_REPLICA_TWO");
+    }
+
+    @Test
+    void getConnection_ShouldReadFromPrimaryRightAfterSessionWrote() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute(ReadYourWrites.LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+        ReadYourWrites.begin(request, Duration.ofSeconds(5));
+        assertThat(readFrom(2)).containsOnly("RW_PRIMARY");
+
+        // Окно прошло - снова реплики
+        request.getSession().setAttribute(ReadYourWrites.LAST_WRITE_ATTRIBUTE, System.currentTimeMillis() - 10_000);
+        assertThat(readFrom(2)).doesNotContain("RW_PRIMARY");
+    }
+
+    @Test
+    void getConnectionWithCredentials_ShouldRouteLikeConfiguredCredentials() throws Exception {
+        first.down = true;
+        assertThat(readAs("sa", 2)).containsOnly("RW_REPLICA_TWO");
+
+        second.down = true;
+        assertThat(readAs("sa", 1)).containsExactly("RW_PRIMARY");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute(ReadYourWrites.LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+        ReadYourWrites.begin(request, Duration.ofSeconds(5));
+        first.down = false;
+        replicas.checkHealth();
+        assertThat(readAs("sa", 2)).containsOnly("RW_PRIMARY");
+    }
+
+    private List<String> readFrom(int times) throws SQLException {
+        return readAs(null, times);
+    }
+
+    private List<String> readAs(String username, int times) throws SQLException {
+        List<String> databases = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            try (Connection connection = username == null
+                    ? replicas.getConnection() : replicas.getConnection(username, "");
+                 ResultSet rs = connection.createStatement().executeQuery("SELECT DATABASE()")) {
+                rs.next();
+                databases.add(rs.getString(1));
+            }
+        }
+        return databases;
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLTransientConnectionException("Replica is down");
+            }
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            if (down) {
+                throw new SQLTransientConnectionException("Replica is down");
+            }
+            return super.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.inventory.load;
+
+import com.inventory.InvManSysApplication;
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Сравнение пропускной способности и p99 для платформенных и виртуальных потоков.
+// Запуск: mvn -Pload-test test (виртуальный режим - только на JDK 21)
+@Tag("load")
+class ThreadingModeLoadTest {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final int WARMUP = Integer.getInteger("load.warmup", 2_000);
+    // Небольшой пул Tomcat, чтобы при всплеске платформенные потоки заканчивались раньше соединений
+    private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcat-threads", 50);
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 10);
+
+    @Test
+    void compareThroughputAndTailLatency() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.add(run("platform", false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run("virtual", true));
+        } else {
+            System.out.println("JDK " + Runtime.version().feature() + ": virtual-thread mode skipped, run on JDK 21");
+        }
+
+        System.out.printf("%n%-10s %10s %12s %10s %10s %8s%n", "mode", "requests", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %12.0f %10.1f %10.1f %8d%n", result.mode, result.requests,
+                    result.throughput, result.p50Millis, result.p99Millis, result.errors);
+        }
+        assertThat(results).allSatisfy(result -> assertThat(result.errors).isZero());
+    }
+
+    private Result run(String mode, boolean virtual) throws Exception {
+        String[] profiles = virtual ? new String[]{"test", "virtual-threads"} : new String[]{"test"};
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InvManSysApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.thymeleaf.cache=true",
+                        // Сравниваются режимы потоков, а не сброс нагрузки: отказы 503 исказили бы замер
+                        "inventory.admission.enabled=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            seed(context.getBean(ProductRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/inventory/products?size=20&sort=quantity");
+            drive(uri, WARMUP, mode);
+            return drive(uri, REQUESTS, mode);
+        }
+    }
+
+    private static void seed(ProductRepository productRepository) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            products.add(Product.builder()
+                    .sku("LOAD-" + i)
+                    .name("Нагрузочный товар " + i)
+                    .category("Load " + (i % 10))
+                    .quantity(i)
+                    .minStockLevel(10)
+                    .maxStockLevel(1_000)
+                    .purchasePrice(1.0)
+                    .sellingPrice(2.0)
+                    .location("L-" + (i % 20))
+                    .build());
+        }
+        productRepository.saveAll(products);
+    }
+
+    private static Result drive(URI uri, int requests, String mode) throws InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(requests);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int index = i;
+                long sent = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (error != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.release();
+                    done.countDown();
+                });
+            }
+            assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new Result(mode, requests, requests * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String mode, int requests, double throughput, double p50Millis, double p99Millis,
+                          int errors) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductCursor;
+import com.inventory.dto.ProductPageRequest;
+import com.inventory.dto.ProductSortField;
+import com.inventory.dto.ProductSummary;
+import com.inventory.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ProductRepositoryKeysetTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        String[] categories = {"Electronics", "Tools", "Food"};
+        for (int i = 0; i < 47; i++) {
+            productRepository.save(Product.builder()
+                    .sku("SKU-" + i)
+                    .name("Product " + (i % 9))
+                    .category(categories[i % categories.length])
+                    .quantity(i % 7)
+                    .minStockLevel(3)
+                    .maxStockLevel(100)
+                    .purchasePrice(10.0)
+                    .sellingPrice(20.0)
+                    .location("A-" + i)
+                    .build());
+        }
+    }
+
+    @Test
+    void findSummaries_ShouldVisitEveryRowOnceInOrder_ForEverySortAndDirection() {
+        List<ProductSummary> all = productRepository.findAll().stream().map(ProductSummary::from).toList();
+
+        for (ProductSortField sort : ProductSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                ProductPageRequest request = ProductPageRequest.builder().sort(sort).direction(direction).build();
+                List<ProductSummary> visited = readAllPages(request, 10);
+
+                Comparator<ProductSummary> order = comparator(sort);
+                if (direction.isDescending()) {
+                    order = order.reversed();
+                }
+                List<Long> expected = all.stream().sorted(order).map(ProductSummary::getId).toList();
+                assertThat(visited).extracting(ProductSummary::getId)
+                        .as("%s %s", sort, direction)
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void findSummaries_ShouldApplyKeywordAndLowStockFilters() {
+        ProductPageRequest lowStock = ProductPageRequest.builder().lowStockOnly(true).build();
+        assertThat(readAllPages(lowStock, 4))
+                .isNotEmpty()
+                .allMatch(p -> p.getQuantity() <= p.getMinStockLevel());
+
+        ProductPageRequest search = ProductPageRequest.builder().keyword("product 3").build();
+        assertThat(readAllPages(search, 2))
+                .hasSize(5)
+                .allMatch(p -> p.getName().equals("Product 3"));
+    }
+
+    @Test
+    void decode_ShouldIgnoreCursorOfAnotherSort() {
+        ProductSummary first = productRepository.findSummaries(
+                ProductPageRequest.builder().build(), null, 1).get(0);
+        String token = ProductCursor.after(ProductSortField.ID, Sort.Direction.ASC, first).encode();
+
+        assertThat(ProductCursor.decode(token, ProductSortField.ID, Sort.Direction.ASC)).isNotNull();
+        assertThat(ProductCursor.decode(token, ProductSortField.NAME, Sort.Direction.ASC)).isNull();
+        assertThat(ProductCursor.decode("garbage!", ProductSortField.ID, Sort.Direction.ASC)).isNull();
+    }
+
+    private List<ProductSummary> readAllPages(ProductPageRequest request, int pageSize) {
+        List<ProductSummary> visited = new ArrayList<>();
+        ProductCursor cursor = null;
+        while (true) {
+            List<ProductSummary> page = productRepository.findSummaries(request, cursor, pageSize);
+            visited.addAll(page);
+            if (page.size() < pageSize) {
+                return visited;
+            }
+            // Курсор проходит через строковое представление, как и в HTTP-запросе
+            String token = ProductCursor.after(request.getSort(), request.getDirection(), page.get(page.size() - 1)).encode();
+            cursor = ProductCursor.decode(token, request.getSort(), request.getDirection());
+        }
+    }
+
+    private static Comparator<ProductSummary> comparator(ProductSortField sort) {
+        Comparator<ProductSummary> byId = Comparator.comparing(ProductSummary::getId);
+        return switch (sort) {
+            case ID -> byId;
+            case NAME -> Comparator.comparing(ProductSummary::getName).thenComparing(byId);
+            case CATEGORY -> Comparator.comparing(ProductSummary::getCategory).thenComparing(byId);
+            case QUANTITY -> Comparator.comparing(ProductSummary::getQuantity).thenComparing(byId);
+            case UPDATED_AT -> Comparator.comparing(ProductSummary::getUpdatedAt).thenComparing(byId);
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.inventory.service;
+
+import com.inventory.dto.CategoryStats;
+import com.inventory.dto.InventoryTotals;
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryAggregateStoreTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private InventoryAggregateStore aggregateStore;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.aggregateByCategory()).thenReturn(List.of(
+                new CategoryStats("Electronics", 2L, 500.0),
+                new CategoryStats("Tools", 1L, 40.0)));
+        when(productRepository.countLowStockProducts()).thenReturn(1L);
+        aggregateStore.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldLoadTotalsFromDatabase() {
+        InventoryTotals totals = aggregateStore.getTotals();
+
+        assertEquals(3, totals.getTotalProducts());
+        assertEquals(540.0, totals.getTotalValue(), 0.001);
+        assertEquals(1, totals.getLowStockCount());
+        assertEquals(2L, totals.getCategoryCounts().get("Electronics"));
+    }
+
+    @Test
+    void onProductChanged_ShouldApplyCreateUpdateAndDelete() {
+        ProductSummary created = product(10L, "Food", 10, 5, 2.0);
+        aggregateStore.onProductChanged(ProductChangedEvent.created(created));
+
+        // Остаток упал ниже минимума и товар переехал в другую категорию
+        ProductSummary updated = product(10L, "Tools", 3, 5, 2.0);
+        aggregateStore.onProductChanged(ProductChangedEvent.updated(created, updated));
+
+        InventoryTotals totals = aggregateStore.getTotals();
+        assertEquals(4, totals.getTotalProducts());
+        assertEquals(546.0, totals.getTotalValue(), 0.001);
+        assertEquals(2, totals.getLowStockCount());
+        assertEquals(2L, totals.getCategoryCounts().get("Tools"));
+        assertFalse(totals.getCategoryCounts().containsKey("Food"));
+
+        aggregateStore.onProductChanged(ProductChangedEvent.deleted(updated));
+
+        totals = aggregateStore.getTotals();
+        assertEquals(3, totals.getTotalProducts());
+        assertEquals(540.0, totals.getTotalValue(), 0.001);
+        assertEquals(1, totals.getLowStockCount());
+    }
+
+    @Test
+    void reconcile_ShouldReplaceDriftedTotals() {
+        aggregateStore.onProductChanged(ProductChangedEvent.created(product(99L, "Food", 1, 0, 1.0)));
+
+        aggregateStore.reconcile();
+
+        InventoryTotals totals = aggregateStore.getTotals();
+        assertEquals(3, totals.getTotalProducts());
+        assertFalse(totals.getCategoryCounts().containsKey("Food"));
+        verify(productRepository, times(2)).aggregateByCategory();
+    }
+
+    @Test
+    void rebuild_ShouldReloadUntilNoWritesRaceTheLoad() {
+        ProductSummary created = product(20L, "Food", 10, 5, 2.0);
+        List<CategoryStats> withCreated = List.of(new CategoryStats("Electronics", 2L, 500.0),
+                new CategoryStats("Tools", 1L, 40.0), new CategoryStats("Food", 1L, 20.0));
+        // Запись успела в снимок первой загрузки - доигрывание посчитало бы её дважды
+        when(productRepository.aggregateByCategory())
+                .thenAnswer(invocation -> {
+                    aggregateStore.onProductChanged(ProductChangedEvent.created(created));
+                    return withCreated;
+                })
+                .thenReturn(withCreated);
+
+        aggregateStore.rebuild();
+
+        InventoryTotals totals = aggregateStore.getTotals();
+        assertEquals(4, totals.getTotalProducts());
+        assertEquals(1L, totals.getCategoryCounts().get("Food"));
+        verify(productRepository, times(3)).aggregateByCategory();
+    }
+
+    @Test
+    void reconcile_ShouldNotInstallTotalsWhileWritesRaceTheLoad() {
+        aggregateStore.onProductChanged(ProductChangedEvent.created(product(99L, "Food", 1, 0, 1.0)));
+        when(productRepository.aggregateByCategory()).thenAnswer(invocation -> {
+            aggregateStore.onProductChanged(ProductChangedEvent.created(product(21L, "Tools", 10, 5, 4.0)));
+            return List.of(new CategoryStats("Electronics", 2L, 500.0), new CategoryStats("Tools", 1L, 40.0));
+        });
+
+        aggregateStore.reconcile();
+
+        // Расхождение (Food) перепроверится на следующей сверке; запись во время загрузки не потерялась
+        InventoryTotals totals = aggregateStore.getTotals();
+        assertEquals(5, totals.getTotalProducts());
+        assertEquals(2L, totals.getCategoryCounts().get("Tools"));
+    }
+
+    private static ProductSummary product(Long id, String category, int quantity, int minStock, double price) {
+        return new ProductSummary(id, "SKU-" + id, "Product " + id, null, category,
+                quantity, minStock, 100, price, price * 2, "A", null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.event.StockThresholdCrossedEvent;
+import com.inventory.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class LowStockEngineTest {
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final List<Object> published = new ArrayList<>();
+    private final LowStockEngine engine = new LowStockEngine(productRepository, published::add);
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamLowStockSummaries())
+                .thenReturn(Stream.of(summary(1L, 4, 10), summary(2L, 1, 10)));
+        engine.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldOrderByStockRatioWithoutPublishing() {
+        assertThat(engine.isReady()).isTrue();
+        assertThat(engine.size()).isEqualTo(2);
+        assertThat(engine.top(0, 10)).extracting(ProductSummary::getId).containsExactly(2L, 1L);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void onProductChanged_ShouldPublishOncePerCrossing() {
+        ProductSummary healthy = summary(3L, 20, 5);
+        engine.onProductChanged(ProductChangedEvent.created(healthy));
+        engine.onProductChanged(ProductChangedEvent.updated(healthy, summary(3L, 5, 5)));
+        engine.onProductChanged(ProductChangedEvent.updated(summary(3L, 5, 5), summary(3L, 2, 5)));
+        engine.onProductChanged(ProductChangedEvent.updated(summary(3L, 2, 5), summary(3L, 0, 5)));
+
+        assertThat(published).hasSize(1);
+        StockThresholdCrossedEvent crossing = (StockThresholdCrossedEvent) published.get(0);
+        assertThat(crossing.isLow()).isTrue();
+        assertThat(crossing.getProductId()).isEqualTo(3L);
+        // Остаток 0 из 5 - первый в списке, перед 1 из 10
+        assertThat(engine.top(0, 1)).extracting(ProductSummary::getQuantity).containsExactly(0);
+
+        engine.onProductChanged(ProductChangedEvent.updated(summary(3L, 0, 5), summary(3L, 30, 5)));
+        engine.onProductChanged(ProductChangedEvent.updated(summary(3L, 30, 5), summary(3L, 40, 5)));
+
+        assertThat(published).hasSize(2);
+        assertThat(((StockThresholdCrossedEvent) published.get(1)).isLow()).isFalse();
+        assertThat(engine.top(0, 10)).extracting(ProductSummary::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void onProductChanged_ShouldReportRecoveryWhenLowProductIsDeleted() {
+        engine.onProductChanged(ProductChangedEvent.deleted(summary(2L, 1, 10)));
+
+        assertThat(engine.top(0, 10)).extracting(ProductSummary::getId).containsExactly(1L);
+        assertThat(published).singleElement()
+                .isInstanceOfSatisfying(StockThresholdCrossedEvent.class, crossing -> {
+                    assertThat(crossing.isLow()).isFalse();
+                    assertThat(crossing.getProduct().getQuantity()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void top_ShouldPageByOffset() {
+        assertThat(engine.top(1, 10)).extracting(ProductSummary::getId).containsExactly(1L);
+        assertThat(engine.top(2, 10)).isEmpty();
+        verify(productRepository).streamLowStockSummaries();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftAndPublishMissedCrossings() {
+        // Товар 1 восстановился мимо событий, товар 4 опустился до порога
+        when(productRepository.streamLowStockSummaries())
+                .thenReturn(Stream.of(summary(2L, 1, 10), summary(4L, 3, 6)));
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(summary(1L, 50, 10)));
+
+        engine.reconcile();
+
+        assertThat(engine.top(0, 10)).extracting(ProductSummary::getId).containsExactly(2L, 4L);
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void bindTo_ShouldExportSizeAndCrossings() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        engine.bindTo(registry);
+        engine.onProductChanged(ProductChangedEvent.created(summary(5L, 0, 1)));
+
+        assertThat(registry.get("inventory.low-stock.size").gauge().value()).isEqualTo(3.0);
+        assertThat(registry.get("inventory.low-stock.crossings").tag("direction", "entered")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private static ProductSummary summary(Long id, int quantity, int minStockLevel) {
+        return new ProductSummary(id, "SKU-" + id, "Product " + id, null, "Test",
+                quantity, minStockLevel, 100, 1.0, 2.0, "A1", null);
+    }
+}
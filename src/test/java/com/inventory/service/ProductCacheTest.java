@@ -0,0 +1,101 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+    private final ProductCache cache = new ProductCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void getById_ShouldLoadOnceAndReturnCopies() {
+        Product first = cache.getById(1L, this::load).orElseThrow();
+        first.setQuantity(999);
+        Product second = cache.getById(1L, this::load).orElseThrow();
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getQuantity()).isEqualTo(10);
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void onProductChanged_ShouldInvalidateIdAndSku() {
+        cache.getById(1L, this::load);
+        cache.getBySku("SKU-1", sku -> load(1L));
+        int loadsBefore = loads.get();
+
+        cache.onProductChanged(ProductChangedEvent.updated(summary(1L, 10), summary(1L, 7)));
+        cache.getById(1L, this::load);
+        cache.getBySku("SKU-1", sku -> load(1L));
+
+        assertThat(loads.get()).isEqualTo(loadsBefore + 2);
+    }
+
+    @Test
+    void getById_ShouldNotCacheValueLoadedBeforeConcurrentInvalidation() {
+        // Запись закоммитилась, пока шла загрузка: прочитанный остаток уже устарел
+        cache.getById(1L, id -> {
+            Optional<Product> stale = load(id);
+            cache.invalidate(id);
+            return stale;
+        });
+        cache.getById(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getById_ShouldNotCacheRightAfterInvalidationWhileReplicasMayLag() throws Exception {
+        ProductCache replicaCache = new ProductCache(100, Duration.ofMinutes(1), Duration.ofMillis(200));
+        replicaCache.invalidate(1L);
+        replicaCache.getById(1L, this::load);
+        replicaCache.getById(1L, this::load);
+        assertThat(loads).hasValue(2);
+
+        Thread.sleep(250);
+        replicaCache.getById(1L, this::load);
+        replicaCache.getById(1L, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void getBySku_ShouldServeFromIdCacheAndIgnoreMissingProducts() {
+        assertThat(cache.getBySku("NONE", sku -> Optional.empty())).isEmpty();
+        cache.getBySku("SKU-1", sku -> load(1L));
+        cache.getById(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void bindTo_ShouldExportHitAndMissCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.getById(1L, this::load);
+        cache.getById(1L, this::load);
+
+        assertThat(registry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "products").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.find("cache.evictions").tag("cache", "products").functionCounter()).isNotNull();
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(Product.builder().id(id).sku("SKU-" + id).name("Product").quantity(10).build());
+    }
+
+    private static ProductSummary summary(Long id, int quantity) {
+        return new ProductSummary(id, "SKU-" + id, "Product", null, "Cat", quantity, 1, 100, 1.0, 2.0, "A", null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.service;
+
+import com.inventory.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Режим рендеринга профиля prod: кэш шаблонов и строк, статика с отпечатком
+@SpringBootTest(properties = {
+        "spring.thymeleaf.cache=true",
+        "inventory.static.fingerprint=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductFragmentCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void listPage_ShouldReuseRenderedRowsUntilTheProductChanges() throws Exception {
+        String category = "Fragments-" + UUID.randomUUID();
+        Product product = productService.createProduct(Product.builder()
+                .name("Cached row")
+                .category(category)
+                .quantity(7)
+                .minStockLevel(1)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.5)
+                .location("Test")
+                .build());
+
+        assertThat(searchPage(category)).contains("Cached row");
+        double cachedBefore = served("cache");
+        assertThat(searchPage(category)).contains("Cached row");
+        assertThat(served("cache")).isGreaterThan(cachedBefore);
+
+        product.setName("Renamed row");
+        productService.updateProduct(product.getId(), product);
+
+        String page = searchPage(category);
+        assertThat(page).contains("Renamed row").doesNotContain("Cached row");
+    }
+
+    @Test
+    void staticAssets_ShouldBeFingerprintedPrecompressedAndImmutable() throws Exception {
+        String page = mockMvc.perform(get("/products")).andReturn().getResponse().getContentAsString();
+        Matcher stylesheet = Pattern.compile("/css/style-[0-9a-f]{32}\\.css").matcher(page);
+        assertThat(stylesheet.find()).isTrue();
+
+        mockMvc.perform(get(stylesheet.group()).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    private String searchPage(String keyword) throws Exception {
+        return mockMvc.perform(get("/products/search").param("keyword", keyword))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private double served(String source) {
+        return meterRegistry.get("inventory.fragments.served").tag("source", source).functionCounter().count();
+    }
+}
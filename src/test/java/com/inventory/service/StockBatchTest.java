@@ -0,0 +1,172 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockBatchRequest;
+import com.inventory.dto.StockBatchResult;
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockBatchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryAggregateStore aggregateStore;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void applyStockBatch_ShouldApplyAllLinesWithRunningBalances() {
+        Product first = createProduct(10);
+        Product second = createProduct(0);
+
+        StockBatchResult result = productService.applyStockBatch(batch(
+                new StockBatchRequest.Line(second.getId(), "IN", 20),
+                new StockBatchRequest.Line(first.getId(), "OUT", 4),
+                new StockBatchRequest.Line(second.getId(), "OUT", 15),
+                new StockBatchRequest.Line(first.getId(), "ADJUSTMENT", -6, "Инвентаризация")));
+
+        assertThat(result.isApplied()).isTrue();
+        assertThat(result.getLines()).extracting(StockBatchResult.LineResult::getQuantityAfter)
+                .containsExactly(20, 6, 5, 0);
+        assertThat(quantity(first)).isZero();
+        assertThat(quantity(second)).isEqualTo(5);
+
+        List<StockMovement> history = stockLedger.getHistory(first.getId(), null, 10).getContent();
+        assertThat(history).extracting(StockMovement::getQuantity).containsExactly(-6, -4);
+        assertThat(history).extracting(StockMovement::getReason).containsExactly("Инвентаризация", "Приёмка");
+        assertThat(aggregateStore.getTotals().getCategoryValues().get(second.getCategory())).isEqualTo(5.0);
+    }
+
+    @Test
+    void applyStockBatch_ShouldRejectWholeBatchAndReportEveryBadLine() {
+        Product product = createProduct(3);
+
+        StockBatchResult result = productService.applyStockBatch(batch(
+                new StockBatchRequest.Line(product.getId(), "IN", 2),
+                new StockBatchRequest.Line(product.getId(), "OUT", 6),
+                new StockBatchRequest.Line(-1L, "IN", 1),
+                new StockBatchRequest.Line(product.getId(), "MOVE", 1)));
+
+        assertThat(result.isApplied()).isFalse();
+        assertThat(result.getFailedLines()).isEqualTo(3);
+        assertThat(result.getLines()).extracting(StockBatchResult.LineResult::getError)
+                .containsExactly(null, "Insufficient stock", "Product not found", "Unknown transaction type: MOVE");
+        assertThat(quantity(product)).isEqualTo(3);
+        assertThat(stockLedger.getHistory(product.getId(), null, 10).getContent()).isEmpty();
+
+        assertThatThrownBy(() -> productService.applyStockBatch(batch()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void applyStockBatch_ShouldUseConstantNumberOfStatements() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            products.add(createProduct(100));
+        }
+        List<StockBatchRequest.Line> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add(new StockBatchRequest.Line(products.get(i % 10).getId(), i % 2 == 0 ? "IN" : "OUT", 1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(productService.applyStockBatch(batch(lines.toArray(StockBatchRequest.Line[]::new))).isApplied())
+                .isTrue();
+
+        // Блокировка одним SELECT, пакетные UPDATE и INSERT вместо 200 отдельных транзакций
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void concurrentBatches_ShouldNotDeadlockWhenLinesAreInOppositeOrder() throws Exception {
+        Product first = createProduct(1_000);
+        Product second = createProduct(1_000);
+        int threads = 8;
+        int batchesPerThread = 20;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean reversed = t % 2 == 1;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < batchesPerThread; i++) {
+                        Product a = reversed ? second : first;
+                        Product b = reversed ? first : second;
+                        productService.applyStockBatch(batch(
+                                new StockBatchRequest.Line(a.getId(), "OUT", 2),
+                                new StockBatchRequest.Line(b.getId(), "IN", 1)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Каждый поток по 20 раз снял 2 с одного товара и добавил 1 к другому, половина - в обратном порядке
+        int expected = 1_000 - threads / 2 * batchesPerThread * (2 - 1);
+        assertThat(quantity(first)).isEqualTo(expected);
+        assertThat(quantity(second)).isEqualTo(expected);
+    }
+
+    private static StockBatchRequest batch(StockBatchRequest.Line... lines) {
+        return StockBatchRequest.builder()
+                .reason("Приёмка")
+                .performedBy("tester")
+                .lines(List.of(lines))
+                .build();
+    }
+
+    private int quantity(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getQuantity();
+    }
+
+    private Product createProduct(int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return productService.createProduct(Product.builder()
+                .sku("BATCH-" + suffix)
+                .name("Batch " + suffix)
+                .category("Batch-" + suffix)
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(100_000)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+    }
+}
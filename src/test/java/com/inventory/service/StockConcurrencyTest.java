@@ -0,0 +1,154 @@
+package com.inventory.service;
+
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryAggregateStore aggregateStore;
+
+    @Test
+    void concurrentMovements_ShouldNotLoseUpdates() throws Exception {
+        Product product = createProduct(1_000);
+        int operationsPerThread = 250;
+
+        runConcurrently(THREADS, () -> {
+            for (int i = 0; i < operationsPerThread; i++) {
+                if (i % 2 == 0) {
+                    productService.updateStock(product.getId(), 3, "IN");
+                } else {
+                    productService.updateStock(product.getId(), -2, "OUT");
+                }
+            }
+        });
+
+        int expected = 1_000 + THREADS * (operationsPerThread / 2) * (3 - 2);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(expected);
+        // Агрегаты панели получают ровно те же дельты, что и БД
+        assertThat(aggregateStore.getTotals().getCategoryValues().get(product.getCategory()))
+                .isEqualTo(expected * product.getPurchasePrice());
+    }
+
+    @Test
+    void cachedReads_ShouldNotServeStaleStockAfterWrites() throws Exception {
+        Product product = createProduct(0);
+        int movementsPerThread = 100;
+        int writers = THREADS / 2;
+
+        AtomicInteger started = new AtomicInteger();
+
+        runConcurrently(THREADS, () -> {
+            boolean writer = started.getAndIncrement() < writers;
+            for (int i = 0; i < movementsPerThread; i++) {
+                if (writer) {
+                    productService.updateStock(product.getId(), 1, "IN");
+                } else {
+                    productService.getProductById(product.getId());
+                }
+            }
+        });
+
+        // Читатели наполняли кэш во время записи, но после последнего коммита он обязан отдать итог
+        assertThat(productService.getProductById(product.getId()).getQuantity())
+                .isEqualTo(writers * movementsPerThread);
+        assertThat(productService.getProductBySku(product.getSku()).getQuantity())
+                .isEqualTo(writers * movementsPerThread);
+    }
+
+    @Test
+    void concurrentWithdrawals_ShouldNeverOversell() throws Exception {
+        Product product = createProduct(100);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS * 2, () -> {
+            for (int i = 0; i < 10; i++) {
+                try {
+                    productService.updateStock(product.getId(), -1, "OUT");
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    assertThat(e).hasMessage("Insufficient stock");
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(succeeded.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(THREADS * 2 * 10 - 100);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void updateStock_ShouldReturnNewQuantityAndRejectUnknownProduct() {
+        Product product = createProduct(5);
+
+        assertThat(productService.updateStock(product.getId(), 7, "IN").getQuantity()).isEqualTo(12);
+        assertThat(productService.updateStock(product.getId(), -12, "OUT").getQuantity()).isZero();
+
+        assertThatThrownBy(() -> productService.updateStock(-1L, 1, "IN"))
+                .hasMessage("Product not found");
+    }
+
+    private Product createProduct(int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return productService.createProduct(Product.builder()
+                .sku("CONC-" + suffix)
+                .name("Concurrency " + suffix)
+                .category("Concurrency-" + suffix)
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(100_000)
+                .purchasePrice(2.0)
+                .sellingPrice(3.0)
+                .location("Test")
+                .build());
+    }
+
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.inventory.service;
+
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockLedgerServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void updateStock_ShouldAppendSignedMovementWithResultingBalance() {
+        Product product = createProduct(10);
+
+        productService.updateStock(product.getId(), 5, "IN", "Закупка", "ivanov");
+        productService.updateStock(product.getId(), 3, "OUT");
+        productService.updateStock(product.getId(), -2, "ADJUSTMENT", "Инвентаризация", null);
+
+        List<StockMovement> history = stockLedger.getHistory(product.getId(), null, 10).getContent();
+        assertThat(history).extracting(StockMovement::getType)
+                .containsExactly(TransactionType.ADJUSTMENT, TransactionType.OUT, TransactionType.IN);
+        assertThat(history).extracting(StockMovement::getQuantity).containsExactly(-2, -3, 5);
+        assertThat(history).extracting(StockMovement::getQuantityAfter).containsExactly(10, 12, 15);
+        assertThat(history.get(1).getReason()).isEqualTo("OUT");
+        assertThat(history.get(1).getPerformedBy()).isEqualTo(StockLedgerService.DEFAULT_PERFORMER);
+        assertThat(history.get(2).getPerformedBy()).isEqualTo("ivanov");
+    }
+
+    @Test
+    void updateProduct_ShouldRecordQuantityChangeAsAdjustment() {
+        Product product = createProduct(10);
+        productService.updateStock(product.getId(), 4, "IN");
+
+        Product details = productService.getProductById(product.getId());
+        details.setName("Renamed");
+        productService.updateProduct(product.getId(), details);
+        details.setQuantity(9);
+        productService.updateProduct(product.getId(), details);
+
+        List<StockMovement> history = stockLedger.getHistory(product.getId(), null, 10).getContent();
+        assertThat(history).extracting(StockMovement::getType)
+                .containsExactly(TransactionType.ADJUSTMENT, TransactionType.IN);
+        assertThat(history.get(0).getQuantity()).isEqualTo(-5);
+        assertThat(history.get(0).getQuantityAfter()).isEqualTo(9);
+        assertThat(history.get(0).getReason()).isEqualTo(ProductService.PRODUCT_EDIT_REASON);
+    }
+
+    @Test
+    void deleteProduct_ShouldRejectProductsWithStockHistory() {
+        Product moved = createProduct(10);
+        Product untouched = createProduct(10);
+        productService.updateStock(moved.getId(), 2, "OUT");
+
+        assertThatThrownBy(() -> productService.deleteProduct(moved.getId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(moved.getSku());
+        assertThat(stockLedger.getHistory(moved.getId(), null, 10).getContent()).hasSize(1);
+
+        productService.deleteProduct(untouched.getId());
+        assertThatThrownBy(() -> productService.getProductById(untouched.getId()))
+                .hasMessage("Product not found");
+    }
+
+    @Test
+    void getHistory_ShouldPageFromNewestToOldest() {
+        Product product = createProduct(0);
+        for (int i = 1; i <= 7; i++) {
+            productService.updateStock(product.getId(), i, "IN");
+        }
+
+        CursorPage<StockMovement> first = stockLedger.getHistory(product.getId(), null, 3);
+        CursorPage<StockMovement> second = stockLedger.getHistory(product.getId(), first.getNextCursor(), 3);
+        CursorPage<StockMovement> last = stockLedger.getHistory(product.getId(), second.getNextCursor(), 3);
+
+        assertThat(first.getContent()).extracting(StockMovement::getQuantity).containsExactly(7, 6, 5);
+        assertThat(second.getContent()).extracting(StockMovement::getQuantity).containsExactly(4, 3, 2);
+        assertThat(last.getContent()).extracting(StockMovement::getQuantity).containsExactly(1);
+        assertThat(last.isHasNext()).isFalse();
+    }
+
+    @Test
+    void recordAll_ShouldInsertInJdbcBatches() {
+        Product product = createProduct(0);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transaction> movements = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                movements.add(stockLedger.movement(product.getId(), TransactionType.IN, 1, i + 1, null, null));
+            }
+            stockLedger.recordAll(movements);
+        });
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // 120 строк: три пакета INSERT и три обращения к последовательности вместо 120 отдельных вставок
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(12);
+    }
+
+    private Product createProduct(int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return productService.createProduct(Product.builder()
+                .sku("LEDGER-" + suffix)
+                .name("Ledger " + suffix)
+                .category("Ledger")
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(1_000)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+    }
+}
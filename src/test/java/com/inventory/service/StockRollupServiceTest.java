@@ -0,0 +1,150 @@
+package com.inventory.service;
+
+import com.inventory.dto.RollupBackfillReport;
+import com.inventory.dto.RollupGranularity;
+import com.inventory.dto.RollupPoint;
+import com.inventory.model.Product;
+import com.inventory.model.Transaction;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockRollupServiceTest {
+
+    @Autowired
+    private StockRollupService rollupService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void fold_ShouldRollUpCommittedMovementsPerProductAndCategory() {
+        String category = "Rollup-" + UUID.randomUUID();
+        Product first = createProduct(category, 10);
+        Product second = createProduct(category, 5);
+        productService.updateStock(first.getId(), 7, "IN", "Приёмка", "tester");
+        productService.updateStock(first.getId(), 3, "OUT", "Отгрузка", "tester");
+        productService.updateStock(second.getId(), 2, "OUT", "Отгрузка", "tester");
+
+        rollupService.fold();
+
+        LocalDate today = LocalDate.now();
+        RollupPoint day = rollupService.getProductSeries(first.getId(), today, today, RollupGranularity.DAY).get(0);
+        assertThat(day.getInQuantity()).isEqualTo(7);
+        assertThat(day.getOutQuantity()).isEqualTo(3);
+        assertThat(day.getNetChange()).isEqualTo(4);
+        assertThat(day.getMovementCount()).isEqualTo(2);
+        assertThat(day.getClosingQuantity()).isEqualTo(14);
+
+        RollupPoint categoryDay = rollupService.getCategorySeries(category, today, today, RollupGranularity.DAY).get(0);
+        assertThat(categoryDay.getOutQuantity()).isEqualTo(5);
+        assertThat(categoryDay.getNetChange()).isEqualTo(2);
+        assertThat(categoryDay.getClosingQuantity()).isEqualTo(17);
+    }
+
+    @Test
+    void fold_ShouldRecomputeDayOfLateMovementAndCarryLevelsForward() {
+        String category = "Rollup-" + UUID.randomUUID();
+        Product product = createProduct(category, 20);
+        LocalDate today = LocalDate.now();
+        LocalDate tenDaysAgo = today.minusDays(10);
+        productService.updateStock(product.getId(), 4, "IN", "Приёмка", "tester");
+        // Поздняя запись задним числом: её день помечается и пересчитывается так же
+        recordAt(product, 20, 20, tenDaysAgo.atTime(12, 0));
+        rollupService.fold();
+
+        List<RollupPoint> days = rollupService.getProductSeries(product.getId(), tenDaysAgo, today, RollupGranularity.DAY);
+        assertThat(days).hasSize(11);
+        assertThat(days.get(0).getInQuantity()).isEqualTo(20);
+        assertThat(days.get(5).getMovementCount()).isZero();
+        assertThat(days.get(5).getClosingQuantity()).isEqualTo(20);
+
+        List<RollupPoint> months = rollupService.getProductSeries(product.getId(), tenDaysAgo, today, RollupGranularity.MONTH);
+        assertThat(months.get(months.size() - 1).getClosingQuantity()).isEqualTo(24);
+        assertThat(months.stream().mapToLong(RollupPoint::getInQuantity).sum()).isEqualTo(24);
+        assertThat(rollupService.getProductSeries(product.getId(), tenDaysAgo, today, RollupGranularity.WEEK))
+                .allSatisfy(week -> assertThat(week.getStart().getDayOfWeek().getValue()).isEqualTo(1))
+                .extracting(RollupPoint::getInQuantity).contains(20L);
+
+        List<RollupPoint> categoryDays = rollupService.getCategorySeries(category, tenDaysAgo, today, RollupGranularity.DAY);
+        assertThat(categoryDays.get(0).getClosingQuantity()).isEqualTo(20);
+        assertThat(categoryDays.get(10).getClosingQuantity()).isEqualTo(24);
+    }
+
+    @Test
+    void backfill_ShouldRebuildRollupsForMovementsMissedByFold() {
+        Product product = createProduct("Rollup-" + UUID.randomUUID(), 0);
+        LocalDate day = LocalDate.now().minusDays(40);
+        // Запись мимо журнала событий - свёртка о ней не знает
+        transactionTemplate.executeWithoutResult(status -> {
+            Transaction movement = stockLedger.movement(product.getId(), TransactionType.IN, 9, 9, null, null);
+            movement.setTransactionDate(day.atTime(9, 0));
+            transactionRepository.save(movement);
+        });
+        assertThat(rollupService.getProductSeries(product.getId(), day, day, RollupGranularity.DAY).get(0).getInQuantity())
+                .isZero();
+
+        RollupBackfillReport report = rollupService.backfill(day.minusDays(1), day.plusDays(1));
+
+        assertThat(report.getProductRollups()).isGreaterThanOrEqualTo(1);
+        RollupPoint point = rollupService.getProductSeries(product.getId(), day, day, RollupGranularity.DAY).get(0);
+        assertThat(point.getInQuantity()).isEqualTo(9);
+        assertThat(point.getClosingQuantity()).isEqualTo(9);
+    }
+
+    @Test
+    void series_ShouldRejectInvalidRanges() {
+        LocalDate today = LocalDate.now();
+        assertThatThrownBy(() -> rollupService.getProductSeries(1L, today, today.minusDays(1), RollupGranularity.DAY))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollupService.getCategorySeries("x", today.minusYears(20), today, RollupGranularity.DAY))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void recordAt(Product product, int quantity, int quantityAfter, LocalDateTime at) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Transaction movement = stockLedger.movement(product.getId(), TransactionType.IN, quantity, quantityAfter,
+                    null, null);
+            movement.setTransactionDate(at);
+            stockLedger.recordAll(List.of(movement));
+        });
+    }
+
+    private Product createProduct(String category, int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return productService.createProduct(Product.builder()
+                .sku("ROLLUP-" + suffix)
+                .name("Rollup " + suffix)
+                .category(category)
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(100_000)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReplenishmentPlan;
+import com.inventory.dto.SupplierReport;
+import com.inventory.dto.SupplierReportLine;
+import com.inventory.dto.SupplierLowStockItem;
+import com.inventory.model.Product;
+import com.inventory.model.Supplier;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SupplierReportServiceTest {
+
+    @Autowired
+    private SupplierReportService reportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void report_ShouldSummariseProductsPerSupplier() {
+        String name = "Supplier-" + UUID.randomUUID();
+        Product low = createProduct(name, 2, 5, 10.0);
+        createProduct(name, 50, 5, 2.0);
+        createProduct(null, 1, 5, 1.0);
+
+        SupplierReport report = reportService.generate();
+
+        SupplierReportLine line = line(report, name);
+        assertThat(line.getStats().getProductCount()).isEqualTo(2);
+        assertThat(line.getStats().getStockValue()).isEqualTo(2 * 10.0 + 50 * 2.0);
+        assertThat(line.getStats().getLowStockCount()).isEqualTo(1);
+        assertThat(line.getLowStockItems()).extracting(SupplierLowStockItem::getProductId).containsExactly(low.getId());
+        assertThat(line(report, ReplenishmentPlan.NO_SUPPLIER).getStats().getSupplierId()).isNull();
+
+        // Одинаковое название - тот же поставщик; карточка из кэша отдаёт его без открытой сессии
+        Product detached = productService.getProductById(low.getId());
+        assertThat(detached.getSupplier().getName()).isEqualTo(name);
+        assertThat(detached.getSupplier().getId()).isEqualTo(line.getStats().getSupplierId());
+    }
+
+    @Test
+    void report_ShouldRunTheSameNumberOfStatementsForAnyNumberOfSuppliers() {
+        seedSuppliers(3);
+        long few = statementsPerReport();
+
+        seedSuppliers(30);
+        long many = statementsPerReport();
+
+        // Итоги по поставщикам, итоги без поставщика и позиции с низким запасом
+        assertThat(few).isEqualTo(3);
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long statementsPerReport() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SupplierReport report = reportService.generate();
+        assertThat(report.getSuppliers()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedSuppliers(int count) {
+        for (int i = 0; i < count; i++) {
+            String name = "Bulk-" + UUID.randomUUID();
+            createProduct(name, 1, 5, 3.0);
+            createProduct(name, 20, 5, 3.0);
+        }
+    }
+
+    private Product createProduct(String supplier, int quantity, int minStockLevel, double purchasePrice) {
+        return productService.createProduct(Product.builder()
+                .name("Supplied")
+                .category("Suppliers")
+                .quantity(quantity)
+                .minStockLevel(minStockLevel)
+                .maxStockLevel(100)
+                .purchasePrice(purchasePrice)
+                .sellingPrice(purchasePrice * 2)
+                .supplier(supplier != null ? Supplier.builder().name(supplier).build() : null)
+                .location("Test")
+                .build());
+    }
+
+    private static SupplierReportLine line(SupplierReport report, String name) {
+        return report.getSuppliers().stream()
+                .filter(line -> name.equals(line.getStats().getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,78 @@
+package com.inventory.service.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockAllocatorTest {
+
+    @Test
+    void next_ShouldHandOutUniqueValuesAcrossThreadsAndNodes() throws Exception {
+        // Последовательность БД: шаг равен размеру блока, как у sku_seq
+        int blockSize = 1000;
+        AtomicLong sequence = new AtomicLong();
+        AtomicInteger reservations = new AtomicInteger();
+        BlockAllocator[] nodes = new BlockAllocator[2];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new BlockAllocator(() -> {
+                reservations.incrementAndGet();
+                return sequence.addAndGet(blockSize);
+            }, blockSize);
+        }
+        int threads = 8;
+        int perThread = 250_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] all = new long[threads * perThread];
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                BlockAllocator node = nodes[t % nodes.length];
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = node.next();
+                    }
+                    return ids;
+                }));
+            }
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures.get(t).get(60, TimeUnit.SECONDS), 0, all, t * perThread, perThread);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).isGreaterThan(all[i - 1]);
+        }
+        assertThat(all[0]).isPositive();
+        // Каждый узел теряет не больше одного недоразданного блока
+        assertThat(reservations.get()).isLessThanOrEqualTo(all.length / blockSize + nodes.length);
+    }
+
+    @Test
+    void next_ShouldStartFromOneForFreshSequence() {
+        AtomicLong sequence = new AtomicLong(-49);
+        BlockAllocator allocator = new BlockAllocator(() -> sequence.addAndGet(50), 50);
+
+        // Новая последовательность начинается с 1: первый блок - только это значение
+        assertThat(allocator.next()).isEqualTo(1);
+        assertThat(allocator.next()).isEqualTo(2);
+        for (int i = 3; i <= 51; i++) {
+            assertThat(allocator.next()).isEqualTo(i);
+        }
+        assertThat(allocator.next()).isEqualTo(52);
+    }
+}
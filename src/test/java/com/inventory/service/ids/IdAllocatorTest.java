@@ -0,0 +1,101 @@
+package com.inventory.service.ids;
+
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdAllocatorTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createProduct_ShouldGenerateDistinctSkusInTheSameMillisecond() throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        Set<String> skus = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        skus.add(productService.createProduct(product(null)).getSku());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(skus).hasSize(threads * perThread).allMatch(sku -> sku.matches("PROD-\\d{8,}"));
+    }
+
+    @Test
+    void prepare_ShouldMoveSequencesPastIdsWrittenBeforeTheSwitch() {
+        // Строка с id, выданным раньше через IDENTITY, далеко впереди последовательности
+        long legacyId = 10_000_000L + System.nanoTime() % 1_000_000;
+        jdbcTemplate.update("INSERT INTO products (id, sku, name, category, quantity, min_stock_level, " +
+                        "max_stock_level, purchase_price, selling_price, location, created_at, updated_at) " +
+                        "VALUES (?, ?, 'Legacy', 'Ids', 1, 0, 10, 1.0, 2.0, 'Test', ?, ?)",
+                legacyId, "LEGACY-" + UUID.randomUUID(), LocalDateTime.now(), LocalDateTime.now());
+
+        idAllocator.prepare();
+
+        // Блоки, выданные до сдвига, ещё в работе у Hibernate; следующий блок - уже после legacyId
+        Product created = null;
+        for (int i = 0; i <= IdAllocator.ENTITY_BLOCK_SIZE; i++) {
+            created = productService.createProduct(product("IDS-" + UUID.randomUUID()));
+        }
+        assertThat(created.getId()).isGreaterThan(legacyId);
+        assertThat(idAllocator.nextId(IdAllocator.PRODUCTS)).isGreaterThan(legacyId);
+        assertThat(productRepository.findById(legacyId)).isPresent();
+    }
+
+    private static Product product(String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name("Ids " + UUID.randomUUID())
+                .category("Ids")
+                .quantity(1)
+                .minStockLevel(0)
+                .maxStockLevel(10)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.inventory.service.live;
+
+import com.inventory.dto.ProductSummary;
+import com.inventory.event.ProductChangedEvent;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryAggregateStore;
+import com.inventory.service.LowStockEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LiveUpdateBroadcasterTest {
+    private final InventoryAggregateStore aggregateStore = new InventoryAggregateStore(mock(ProductRepository.class));
+    private final LiveUpdateBroadcaster broadcaster = new LiveUpdateBroadcaster(aggregateStore,
+            mock(LowStockEngine.class), 2, Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1),
+            4, Duration.ofMinutes(1));
+
+    @BeforeEach
+    void setUp() {
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void dashboard_ShouldReceiveInitialStateThenOnlyChangedTotals() throws Exception {
+        change(null, summary(1L, "Tools", 10));
+        RecordingEmitter dashboard = new RecordingEmitter(null);
+        broadcaster.subscribe(dashboard, null, null);
+
+        List<Object> initial = dashboard.nextBatch();
+        assertThat(initial).hasSize(2);
+        assertThat(((LiveUpdate.SummaryDelta) initial.get(0)).getTotalProducts()).isEqualTo(1);
+        assertThat(initial.get(1)).isEqualTo(new LiveUpdate.CategoryDelta("Tools", 1, 10.0));
+
+        change(summary(1L, "Tools", 10), summary(1L, "Tools", 4));
+        change(null, summary(2L, "Paint", 3));
+        broadcaster.flush();
+
+        List<Object> batch = dashboard.nextBatch();
+        assertThat(batch).filteredOn(LiveUpdate.ProductDelta.class::isInstance)
+                .extracting(delta -> ((LiveUpdate.ProductDelta) delta).getId())
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(batch).filteredOn(LiveUpdate.SummaryDelta.class::isInstance).singleElement()
+                .satisfies(delta -> assertThat(((LiveUpdate.SummaryDelta) delta).getLowStockCount()).isEqualTo(2));
+        assertThat(batch).filteredOn(LiveUpdate.CategoryDelta.class::isInstance).containsExactlyInAnyOrder(
+                new LiveUpdate.CategoryDelta("Paint", 1, 3.0), new LiveUpdate.CategoryDelta("Tools", 1, 4.0));
+
+        // Ничего не изменилось - ничего не отправляется
+        broadcaster.flush();
+        assertThat(dashboard.batches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void productPage_ShouldReceiveOnlyItsProduct() throws Exception {
+        RecordingEmitter page = new RecordingEmitter(null);
+        broadcaster.subscribe(page, 1L, summary(1L, "Tools", 10));
+        assertThat(page.nextBatch()).containsExactly(LiveUpdate.product(summary(1L, "Tools", 10)).getData());
+
+        change(null, summary(2L, "Tools", 1));
+        change(summary(1L, "Tools", 10), summary(1L, "Tools", 2));
+        broadcaster.flush();
+
+        List<Object> batch = page.nextBatch();
+        assertThat(batch).singleElement().isInstanceOfSatisfying(LiveUpdate.ProductDelta.class, delta -> {
+            assertThat(delta.getId()).isEqualTo(1L);
+            assertThat(delta.getQuantity()).isEqualTo(2);
+            assertThat(delta.isLowStock()).isTrue();
+        });
+    }
+
+    @Test
+    void slowSubscriber_ShouldCoalesceAndDropWithoutBlockingOthers() throws Exception {
+        change(null, summary(1L, "Tools", 21));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        broadcaster.subscribe(slow, null, null);
+        broadcaster.subscribe(fast, null, null);
+        fast.nextBatch();
+        slow.started.await(5, TimeUnit.SECONDS);
+
+        // Пока медленный клиент занят, одно и то же изменение схлопывается, а лишние товары отбрасываются
+        for (int quantity = 20; quantity > 10; quantity--) {
+            change(summary(1L, "Tools", quantity + 1), summary(1L, "Tools", quantity));
+            broadcaster.flush();
+            assertThat(fast.nextBatch()).isNotEmpty();
+        }
+        for (long id = 2; id <= 5; id++) {
+            change(null, summary(id, "Tools", 50));
+        }
+        broadcaster.flush();
+        fast.nextBatch();
+
+        release.countDown();
+        slow.nextBatch();
+        broadcaster.flush();
+        List<Object> caughtUp = slow.nextBatch();
+        List<Long> productIds = new ArrayList<>();
+        for (Object data : caughtUp) {
+            if (data instanceof LiveUpdate.ProductDelta delta) {
+                productIds.add(delta.getId());
+                if (delta.getId() == 1L) {
+                    assertThat(delta.getQuantity()).isEqualTo(11);
+                }
+            }
+        }
+        assertThat(productIds).hasSize(2).contains(1L);
+        // Отброшенные товары не догнать: медленный клиент получает команду перечитать состояние, быстрый - нет
+        assertThat(caughtUp).contains(LiveUpdate.reload().getData());
+        assertThat(caughtUp).filteredOn(LiveUpdate.SummaryDelta.class::isInstance).singleElement()
+                .satisfies(delta -> assertThat(((LiveUpdate.SummaryDelta) delta).getTotalProducts()).isEqualTo(5));
+    }
+
+    @Test
+    void stalledSend_ShouldEvictSubscriberAndFreeTheSenderThread() throws Exception {
+        LiveUpdateBroadcaster strict = new LiveUpdateBroadcaster(aggregateStore, mock(LowStockEngine.class), 2,
+                Duration.ofHours(1), Duration.ofHours(1), Duration.ofMinutes(1), 1, Duration.ofMillis(100));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        strict.bindTo(registry);
+        strict.start();
+        try {
+            change(null, summary(1L, "Tools", 10));
+            RecordingEmitter stalled = new RecordingEmitter(new CountDownLatch(1));
+            strict.subscribe(stalled, null, null);
+            assertThat(stalled.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Thread.sleep(200);
+            strict.flush();
+
+            assertThat(stalled.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(strict.getSubscriberCount()).isZero();
+            assertThat(registry.get("inventory.live.evicted").functionCounter().count()).isEqualTo(1);
+
+            // Единственный поток пула свободен: новый подписчик получает состояние
+            RecordingEmitter next = new RecordingEmitter(null);
+            strict.subscribe(next, null, null);
+            assertThat(next.nextBatch()).isNotEmpty();
+        } finally {
+            strict.stop();
+        }
+    }
+
+    private void change(ProductSummary before, ProductSummary after) {
+        ProductChangedEvent event = new ProductChangedEvent(before, after);
+        aggregateStore.onProductChanged(event);
+        broadcaster.onProductChanged(event);
+    }
+
+    private static ProductSummary summary(Long id, String category, int quantity) {
+        return new ProductSummary(id, "SKU-" + id, "Product " + id, null, category,
+                quantity, 5, 100, 1.0, 2.0, "A1", null);
+    }
+
+    // Запоминает отправленные пачки; с release первая отправка висит, как у медленного клиента
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<List<Object>> batches = new LinkedBlockingQueue<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> datas) {
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<Object> payload = new ArrayList<>();
+            for (DataWithMediaType data : datas) {
+                if (!(data.getData() instanceof String)) {
+                    payload.add(data.getData());
+                }
+            }
+            batches.add(payload);
+        }
+
+        List<Object> nextBatch() throws InterruptedException {
+            List<Object> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertThat(batch).as("batch sent").isNotNull();
+            return batch;
+        }
+    }
+}
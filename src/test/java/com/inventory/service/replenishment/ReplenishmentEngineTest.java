@@ -0,0 +1,99 @@
+package com.inventory.service.replenishment;
+
+import com.inventory.dto.ReplenishmentPlan;
+import com.inventory.dto.ReplenishmentSuggestion;
+import com.inventory.repository.DemandRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplenishmentEngineTest {
+    private final DemandRepository demandRepository = mock(DemandRepository.class);
+    // 10 дней истории, поставка 7 дней → 5 дней, пересмотр 14 дней; части по 64 товара на 4 потоках
+    private final ReplenishmentEngine engine = new ReplenishmentEngine(demandRepository, 10, 5, 14, 1.65, 64, 4);
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void run_ShouldComputeReorderPointsAndCapOrdersAtMaxStock() {
+        givenProducts(
+                new long[]{1, 2, 3, 4},
+                new String[]{"Acme", "Acme", "Globex", null},
+                new int[]{40, 100, 5, 0},
+                new int[]{200, 500, 100, 0});
+        doAnswer(invocation -> {
+            DemandRepository.DemandRowHandler handler = invocation.getArgument(2);
+            for (int day = 0; day < 10; day++) {
+                handler.accept(1, 10);
+            }
+            handler.accept(2, 50);
+            for (int day = 0; day < 10; day++) {
+                handler.accept(4, 10);
+            }
+            return null;
+        }).when(demandRepository).forEachDailyDemand(any(), any(), any());
+
+        ReplenishmentPlan plan = engine.run();
+
+        assertThat(plan.getProductsEvaluated()).isEqualTo(4);
+        assertThat(plan.getSuppliers()).containsOnlyKeys("Acme", ReplenishmentPlan.NO_SUPPLIER);
+        // Ровный спрос 10 в день: точка заказа 50, заказ до максимума 200
+        ReplenishmentSuggestion steady = plan.getSuppliers().get("Acme").get(0);
+        assertThat(steady.getReorderPoint()).isEqualTo(50);
+        assertThat(steady.getSuggestedQuantity()).isEqualTo(160);
+        assertThat(plan.getSuppliers().get("Acme")).hasSize(1);
+        // Без верхнего порога - до точки заказа плюс 14 дней спроса
+        ReplenishmentSuggestion uncapped = plan.getSuppliers().get(ReplenishmentPlan.NO_SUPPLIER).get(0);
+        assertThat(uncapped.getSuggestedQuantity()).isEqualTo(190);
+        assertThat(engine.getLatestPlan()).containsSame(plan);
+    }
+
+    @Test
+    void run_ShouldProcessAllChunksInParallel() {
+        int count = 10_000;
+        long[] ids = new long[count];
+        String[] suppliers = new String[count];
+        int[] quantities = new int[count];
+        int[] maxLevels = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            suppliers[i] = "S" + (i % 7);
+            maxLevels[i] = 100;
+        }
+        givenProducts(ids, suppliers, quantities, maxLevels);
+        doAnswer(invocation -> {
+            DemandRepository.DemandRowHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                handler.accept(i + 1, 3);
+            }
+            return null;
+        }).when(demandRepository).forEachDailyDemand(any(), any(), any());
+
+        ReplenishmentPlan plan = engine.run();
+
+        assertThat(plan.getSuggestionCount()).isEqualTo(count);
+        assertThat(plan.getSuppliers()).hasSize(7);
+        assertThat(plan.getSuppliers().values()).flatMap(list -> list)
+                .extracting(ReplenishmentSuggestion::getSuggestedQuantity).containsOnly(100);
+    }
+
+    private void givenProducts(long[] ids, String[] suppliers, int[] quantities, int[] maxLevels) {
+        when(demandRepository.countProducts()).thenReturn(ids.length);
+        doAnswer(invocation -> {
+            DemandRepository.ProductRowHandler handler = invocation.getArgument(0);
+            for (int i = 0; i < ids.length; i++) {
+                handler.accept(ids[i], "SKU-" + ids[i], suppliers[i], quantities[i], 0, maxLevels[i]);
+            }
+            return null;
+        }).when(demandRepository).forEachProduct(any());
+    }
+}
@@ -0,0 +1,185 @@
+package com.inventory.service.reservation;
+
+import com.inventory.dto.StockAvailability;
+import com.inventory.dto.StockBatchRequest;
+import com.inventory.dto.StockBatchResult;
+import com.inventory.dto.StockHold;
+import com.inventory.dto.StockHoldRequest;
+import com.inventory.model.Product;
+import com.inventory.model.ReservationStatus;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ProductCache;
+import com.inventory.service.ProductService;
+import com.inventory.service.StockLedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void hold_ShouldPromiseOnlyUnreservedStockAndConfirmWritesOff() throws Exception {
+        Product product = createProduct(10);
+        StockHold first = reservationService.hold(request(product, 6, null));
+
+        assertThat(reservationService.getAvailability(product.getId())).get()
+                .extracting(StockAvailability::getReserved, StockAvailability::getAvailable)
+                .containsExactly(6, 4);
+        assertThatThrownBy(() -> reservationService.hold(request(product, 5, null)))
+                .isInstanceOf(IllegalStateException.class);
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + product.getId() + ",\"quantity\":5}"))
+                .andExpect(status().isConflict());
+
+        // Прямое движение меняет физический остаток, резерв остаётся
+        productService.updateStock(product.getId(), 3, "OUT");
+        StockHold confirmed = reservationService.confirm(first.getId(), "picker").orElseThrow();
+
+        assertThat(confirmed.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getQuantity()).isEqualTo(1);
+        assertThat(after.getReservedQuantity()).isZero();
+        assertThatThrownBy(() -> reservationService.release(first.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        mockMvc.perform(get("/api/reservations/availability/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(1))
+                .andExpect(jsonPath("$.available").value(1));
+    }
+
+    @Test
+    void directMovements_ShouldNotEatIntoReservedStock() {
+        Product product = createProduct(10);
+        StockHold hold = reservationService.hold(request(product, 6, null));
+
+        // Свободные 4 списываются, дальше остаток упирается в резерв любым путём
+        productService.updateStock(product.getId(), 4, "OUT");
+        assertThatThrownBy(() -> productService.updateStock(product.getId(), 1, "OUT"))
+                .hasMessage("Insufficient stock");
+        StockBatchResult batch = productService.applyStockBatch(StockBatchRequest.builder()
+                .lines(List.of(new StockBatchRequest.Line(product.getId(), "OUT", 1)))
+                .build());
+        assertThat(batch.isApplied()).isFalse();
+        assertThat(batch.getLines()).singleElement()
+                .extracting(StockBatchResult.LineResult::getError).isEqualTo("Insufficient stock");
+        Product edit = productRepository.findById(product.getId()).orElseThrow();
+        edit.setQuantity(5);
+        assertThatThrownBy(() -> productService.updateProduct(product.getId(), edit))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(reservationService.confirm(hold.getId(), "picker")).get()
+                .extracting(StockHold::getStatus).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        assertThatThrownBy(() -> productService.updateStock(product.getId(), 1, "OUT"))
+                .hasMessage("Insufficient stock");
+    }
+
+    @Test
+    void expireDue_ShouldReturnHeldUnitsWhenTtlRunsOut() {
+        Product product = createProduct(5);
+        StockHold hold = reservationService.hold(request(product, 5, Duration.ofSeconds(1)));
+        StockHold kept = reservationService.hold(request(createProduct(1), 1, Duration.ofMinutes(10)));
+
+        reservationService.expireDue(System.currentTimeMillis() + 3_000);
+
+        assertThat(reservationService.find(hold.getId())).get()
+                .extracting(StockHold::getStatus).isEqualTo(ReservationStatus.EXPIRED);
+        assertThat(reservationService.find(kept.getId())).get()
+                .extracting(StockHold::getStatus).isEqualTo(ReservationStatus.ACTIVE);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getReservedQuantity()).isZero();
+        assertThat(reservationService.getAvailability(product.getId())).get()
+                .extracting(StockAvailability::getAvailable).isEqualTo(5);
+        assertThatThrownBy(() -> reservationService.confirm(hold.getId(), null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void start_ShouldRestoreActiveHoldsFromTheDatabase() {
+        Product product = createProduct(8);
+        StockHold hold = reservationService.hold(request(product, 3, Duration.ofMinutes(5)));
+
+        // Как после рестарта: таймеры и счётчики в памяти строятся по активным резервам из БД
+        StockReservationService restarted = new StockReservationService(
+                reservationRepository, productRepository, productCache, stockLedger, eventPublisher,
+                transactionTemplate, Duration.ofMinutes(15), Duration.ofHours(24), Duration.ofSeconds(1),
+                Duration.ofSeconds(5));
+        restarted.start();
+
+        assertThat(restarted.getActiveCount()).isGreaterThanOrEqualTo(1);
+        assertThat(restarted.getAvailability(product.getId())).get()
+                .extracting(StockAvailability::getReserved).isEqualTo(3);
+        assertThat(reservationService.release(hold.getId())).get()
+                .extracting(StockHold::getStatus).isEqualTo(ReservationStatus.RELEASED);
+    }
+
+    private Product createProduct(int quantity) {
+        return productService.createProduct(Product.builder()
+                .name("Reserved")
+                .category("Reservations-" + UUID.randomUUID())
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(100)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+    }
+
+    private static StockHoldRequest request(Product product, int quantity, Duration ttl) {
+        return StockHoldRequest.builder()
+                .productId(product.getId())
+                .quantity(quantity)
+                .ttl(ttl)
+                .reference("ORDER-" + product.getId())
+                .build();
+    }
+}
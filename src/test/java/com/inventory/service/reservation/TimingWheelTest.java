@@ -0,0 +1,80 @@
+package com.inventory.service.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    private static final long TICK = 1_000;
+
+    @Test
+    void advance_ShouldFireTimersOnTheirTickAcrossLevels() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 500);
+        wheel.schedule(2, 63_000);
+        // Уровни 1 и 2: переносятся вниз, когда до ячейки доходит время
+        wheel.schedule(3, 64_000);
+        wheel.schedule(4, 5_000_000);
+
+        assertThat(wheel.advance(999)).isEmpty();
+        assertThat(wheel.advance(1_000)).containsExactly(1L);
+        assertThat(wheel.advance(62_999)).isEmpty();
+        assertThat(wheel.advance(64_000)).containsExactly(2L, 3L);
+        assertThat(wheel.advance(4_999_999)).isEmpty();
+        assertThat(wheel.advance(5_000_000)).containsExactly(4L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelAndReschedule_ShouldReplaceThePendingTimer() {
+        TimingWheel wheel = new TimingWheel(TICK, 0);
+        wheel.schedule(1, 10_000);
+        wheel.schedule(2, 10_000);
+        wheel.schedule(2, 20_000);
+
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+        assertThat(wheel.advance(10_000)).isEmpty();
+        assertThat(wheel.advance(20_000)).containsExactly(2L);
+    }
+
+    @Test
+    void schedule_ShouldFireOverdueTimersOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 100_000);
+        wheel.schedule(1, 5_000);
+
+        assertThat(wheel.advance(100_500)).isEmpty();
+        assertThat(wheel.advance(101_000)).containsExactly(1L);
+    }
+
+    @Test
+    void advance_ShouldNeverFireEarlyOrLateForRandomDeadlines() {
+        Random random = new Random(42);
+        long start = 12_345_678;
+        TimingWheel wheel = new TimingWheel(TICK, start);
+        long[] deadlines = new long[2_000];
+        for (int id = 0; id < deadlines.length; id++) {
+            // До ~30 суток вперёд: задействованы все уровни колеса
+            deadlines[id] = start + (long) (random.nextDouble() * 30L * 24 * 3600 * 1000);
+            wheel.schedule(id, deadlines[id]);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        long now = start;
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += random.nextInt(5 * 3600 * 1000);
+            for (Long id : wheel.advance(now)) {
+                // Граница тика, на которой таймер должен сработать, пройдена именно этим шагом
+                long dueAt = (deadlines[id.intValue()] + TICK - 1) / TICK * TICK;
+                assertThat(dueAt).isLessThanOrEqualTo(now).isGreaterThan(previous);
+                fired.add(id);
+            }
+        }
+        assertThat(fired).hasSize(deadlines.length).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,139 @@
+package com.inventory.service.scan;
+
+import com.inventory.dto.ScanAck;
+import com.inventory.dto.ScanRequest;
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ScanJournalCheckpointRepository;
+import com.inventory.service.ProductService;
+import com.inventory.service.StockLedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ScanIngestServiceTest {
+
+    @Autowired
+    private ScanIngestService scanIngestService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private ScanJournalCheckpointRepository checkpointRepository;
+
+    @Test
+    void accept_ShouldAcknowledgeAndApplyCoalescedMovementsInBackground() throws Exception {
+        Product picked = createProduct(10);
+        Product received = createProduct(0);
+        List<ScanRequest.Event> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(new ScanRequest.Event(picked.getId(), "OUT"));
+        }
+        events.add(new ScanRequest.Event(picked.getId(), "IN", 2, null));
+        events.add(new ScanRequest.Event(received.getId(), "IN"));
+        events.add(new ScanRequest.Event(received.getId(), "IN"));
+
+        ScanAck ack = scanIngestService.accept(new ScanRequest("gun-7", events));
+        assertThat(ack.getAccepted()).isEqualTo(8);
+        awaitCommitted(ack.getLastSequence());
+
+        assertThat(quantity(picked)).isEqualTo(7);
+        assertThat(quantity(received)).isEqualTo(2);
+        // Восемь событий - по одной записи журнала движений на товар
+        List<StockMovement> history = stockLedger.getHistory(picked.getId(), null, 10).getContent();
+        assertThat(history).singleElement().satisfies(movement -> {
+            assertThat(movement.getQuantity()).isEqualTo(-3);
+            assertThat(movement.getReason()).isEqualTo("Сканирование: событий 6");
+        });
+        assertThat(checkpointRepository.findById("default").orElseThrow().getCommittedSequence())
+                .isGreaterThanOrEqualTo(ack.getLastSequence());
+    }
+
+    @Test
+    void accept_ShouldDropOnlyEventsThatCannotBeApplied() throws Exception {
+        Product scarce = createProduct(1);
+        Product other = createProduct(0);
+
+        ScanAck ack = scanIngestService.accept(new ScanRequest("gun-8", List.of(
+                new ScanRequest.Event(scarce.getId(), "OUT"),
+                new ScanRequest.Event(scarce.getId(), "OUT"),
+                new ScanRequest.Event(-1L, "IN"),
+                new ScanRequest.Event(other.getId(), "IN"))));
+        awaitCommitted(ack.getLastSequence());
+
+        // Из двух списаний единицы проходит первое, отбрасывается только второе
+        assertThat(quantity(scarce)).isZero();
+        assertThat(quantity(other)).isEqualTo(1);
+    }
+
+    @Test
+    void accept_ShouldKeepReceiptsWhenALaterPickCannotBeApplied() throws Exception {
+        Product product = createProduct(0);
+
+        ScanAck ack = scanIngestService.accept(new ScanRequest("gun-10", List.of(
+                new ScanRequest.Event(product.getId(), "IN", 5, null),
+                new ScanRequest.Event(product.getId(), "OUT", 3, null),
+                new ScanRequest.Event(product.getId(), "OUT", 3, null))));
+        awaitCommitted(ack.getLastSequence());
+
+        // Свёрнутое -1 не проходит; по событиям применяются приход и первое списание
+        assertThat(quantity(product)).isEqualTo(2);
+        assertThat(stockLedger.getHistory(product.getId(), null, 10).getContent())
+                .extracting(StockMovement::getQuantity)
+                .containsExactlyInAnyOrder(5, -3);
+    }
+
+    @Test
+    void accept_ShouldRejectInvalidEventsBeforeJournaling() {
+        assertThatThrownBy(() -> scanIngestService.accept(new ScanRequest("gun-9",
+                List.of(new ScanRequest.Event(1L, "MOVE")))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> scanIngestService.accept(new ScanRequest("gun-9", List.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void awaitCommitted(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (scanIngestService.getCommittedSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(scanIngestService.getCommittedSequence()).isGreaterThanOrEqualTo(sequence);
+    }
+
+    private int quantity(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getQuantity();
+    }
+
+    private Product createProduct(int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return productService.createProduct(Product.builder()
+                .sku("SCAN-" + suffix)
+                .name("Scan " + suffix)
+                .category("Scan")
+                .quantity(quantity)
+                .minStockLevel(0)
+                .maxStockLevel(1_000)
+                .purchasePrice(1.0)
+                .sellingPrice(2.0)
+                .location("Test")
+                .build());
+    }
+}
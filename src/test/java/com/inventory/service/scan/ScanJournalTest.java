@@ -0,0 +1,95 @@
+package com.inventory.service.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScanJournalTest {
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_ShouldReplayOnlyEventsAfterCommittedSequence() throws IOException {
+        try (ScanJournal journal = new ScanJournal(directory, SEGMENT_SIZE, false)) {
+            journal.open(0);
+            assertThat(journal.append(records(5))).extracting(ScanRecord::getSequence)
+                    .containsExactly(1L, 2L, 3L, 4L, 5L);
+        }
+
+        try (ScanJournal journal = new ScanJournal(directory, SEGMENT_SIZE, false)) {
+            List<ScanRecord> replay = journal.open(3);
+            assertThat(replay).extracting(ScanRecord::getSequence).containsExactly(4L, 5L);
+            assertThat(replay.get(0).getScannerId()).isEqualTo("gun-1");
+            assertThat(replay.get(0).getDelta()).isEqualTo(-1);
+            // Нумерация продолжается после последней записи, а не после подтверждённой
+            assertThat(journal.append(records(1)).get(0).getSequence()).isEqualTo(6L);
+        }
+    }
+
+    @Test
+    void open_ShouldStopAtTornRecordAndOverwriteIt() throws IOException {
+        try (ScanJournal journal = new ScanJournal(directory, SEGMENT_SIZE, false)) {
+            journal.open(0);
+            journal.append(records(3));
+        }
+        // Порча последней записи: CRC не сойдётся
+        Path segment = segments().get(0);
+        int recordSize = ScanJournal.HEADER_BYTES + ScanJournal.FIXED_PAYLOAD_BYTES + "gun-1".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 2L * recordSize + ScanJournal.HEADER_BYTES + 9);
+        }
+
+        try (ScanJournal journal = new ScanJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(journal.open(0)).extracting(ScanRecord::getSequence).containsExactly(1L, 2L);
+            assertThat(journal.append(records(2))).extracting(ScanRecord::getSequence).containsExactly(3L, 4L);
+        }
+        try (ScanJournal journal = new ScanJournal(directory, SEGMENT_SIZE, false)) {
+            assertThat(journal.open(0)).extracting(ScanRecord::getSequence).containsExactly(1L, 2L, 3L, 4L);
+        }
+    }
+
+    @Test
+    void release_ShouldDeleteSegmentsThatAreFullyCommitted() throws IOException {
+        try (ScanJournal journal = new ScanJournal(directory, 256, false)) {
+            journal.open(0);
+            journal.append(records(20));
+            int segmentCount = journal.getSegmentCount();
+            assertThat(segmentCount).isGreaterThan(3);
+
+            journal.release(20);
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+            assertThat(segments()).hasSize(1);
+        }
+        try (ScanJournal journal = new ScanJournal(directory, 256, false)) {
+            assertThat(journal.open(20)).isEmpty();
+            assertThat(journal.append(records(1)).get(0).getSequence()).isEqualTo(21L);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<ScanRecord> records(int count) {
+        List<ScanRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new ScanRecord(0, 100 + i, -1, 1_700_000_000_000L + i, "gun-1"));
+        }
+        return records;
+    }
+}
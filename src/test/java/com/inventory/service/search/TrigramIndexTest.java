@@ -0,0 +1,119 @@
+package com.inventory.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex(16);
+        index.put(1L, "Ноутбук Lenovo ThinkPad", "PROD-1001", "Электроника", "Лёгкий ноутбук для офиса");
+        index.put(2L, "Сумка для ноутбука", "PROD-1002", "Аксессуары", null);
+        index.put(3L, "Дрель ударная", "TOOL-77", "Инструменты", "Подходит для бетона");
+        index.put(4L, "Кабель USB", "PROD-1003", "Электроника", "Совместим с ноутбуком");
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsAcrossFields() {
+        assertThat(index.search("thinkpad", 0, 10).getProductIds()).containsExactly(1L);
+        assertThat(index.search("tool-77", 0, 10).getProductIds()).containsExactly(3L);
+        assertThat(index.search("бетон", 0, 10).getProductIds()).containsExactly(3L);
+        assertThat(index.search("инструм", 0, 10).getProductIds()).containsExactly(3L);
+        // "ё" и "е" не различаются
+        assertThat(index.search("лёгкий", 0, 10).getProductIds()).containsExactly(1L);
+        assertThat(index.search("несуществующий", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        SearchHits hits = index.search("ноутбук", 0, 10);
+
+        assertThat(hits.getTotal()).isEqualTo(3);
+        assertThat(hits.getProductIds()).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void search_ShouldPageThroughRankedResults() {
+        assertThat(index.search("prod", 0, 2).getProductIds()).containsExactly(1L, 2L);
+        assertThat(index.search("prod", 2, 2).getProductIds()).containsExactly(4L);
+        assertThat(index.search("prod", 2, 2).getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void put_ShouldReplacePreviousTextAndRemoveShouldDropProduct() {
+        index.put(3L, "Перфоратор", "TOOL-77", "Инструменты", null);
+
+        assertThat(index.search("дрель", 0, 10).getTotal()).isZero();
+        assertThat(index.search("перфоратор", 0, 10).getProductIds()).containsExactly(3L);
+
+        index.remove(3L);
+
+        assertThat(index.search("перфоратор", 0, 10).getTotal()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void compaction_ShouldKeepResultsCorrectAfterManyUpdates() {
+        for (int round = 0; round < 3000; round++) {
+            long id = 100 + round % 50;
+            index.put(id, "Товар " + round, "GEN-" + id, "Склад", null);
+        }
+
+        assertThat(index.size()).isEqualTo(54);
+        assertThat(index.search("gen", 0, 100).getTotal()).isEqualTo(50);
+        assertThat(index.search("товар 2999", 0, 10).getProductIds()).containsExactly(149L);
+        assertThat(index.search("товар 1000", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void longIntHashMap_ShouldBehaveLikeHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer expected = reference.remove(key);
+                assertThat(map.remove(key)).isEqualTo(expected == null ? LongIntHashMap.MISSING : expected);
+            } else {
+                reference.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertThat(map.get(key)).isEqualTo(reference.getOrDefault(key, LongIntHashMap.MISSING));
+        }
+    }
+
+    @Test
+    void search_ShouldStayFastOnLargeCatalog() {
+        TrigramIndex large = new TrigramIndex(200_000);
+        String[] words = {"болт", "гайка", "шайба", "винт", "шуруп", "дюбель", "анкер", "саморез"};
+        for (int i = 1; i <= 200_000; i++) {
+            large.put(i, words[i % words.length] + " М" + (i % 40), "HW-" + i, "Крепёж", null);
+        }
+
+        for (int warmup = 0; warmup < 200; warmup++) {
+            large.search("hw-1234", 0, 20);
+        }
+        long started = System.nanoTime();
+        SearchHits hits = null;
+        for (int run = 0; run < 100; run++) {
+            hits = large.search("hw-12345", 0, 20);
+        }
+        long averageMicros = (System.nanoTime() - started) / 100 / 1_000;
+
+        assertThat(hits.getProductIds()).first().isEqualTo(12345L);
+        assertThat(averageMicros).isLessThan(5_000);
+    }
+}
@@ -0,0 +1,128 @@
+package com.inventory.service.snapshot;
+
+import com.inventory.dto.CategorySnapshotDelta;
+import com.inventory.dto.CategoryStats;
+import com.inventory.dto.ProductSnapshotDelta;
+import com.inventory.dto.SnapshotComparison;
+import com.inventory.dto.SnapshotInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class InventorySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshot_ShouldRoundTripColumnsThroughTheMappedFile() throws IOException {
+        Path path = directory.resolve("one.snap");
+        try (SnapshotWriter writer = SnapshotWriter.create(path, LocalDateTime.of(2026, 1, 31, 1, 0))) {
+            writer.append(1, "SKU-1", "Крепёж", 10, 5, 2.5, 4.0);
+            writer.append(7, "АРТ-7", "Освещение", 3, 5, 100.0, 150.0);
+            writer.append(9, "SKU-9", "Крепёж", 0, 0, 1.0, 2.0);
+            writer.finish();
+        }
+
+        InventorySnapshot snapshot = InventorySnapshot.open(path);
+
+        assertThat(snapshot.getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 1, 31, 1, 0));
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.id(1)).isEqualTo(7);
+        assertThat(snapshot.sku(1)).isEqualTo("АРТ-7");
+        assertThat(snapshot.category(2)).isEqualTo("Крепёж");
+        assertThat(snapshot.sellingPrice(1)).isEqualTo(150.0);
+        assertThat(snapshot.lowStockCount()).isEqualTo(2);
+        assertThat(snapshot.categoryStats()).containsExactly(
+                new CategoryStats("Крепёж", 2, 25.0),
+                new CategoryStats("Освещение", 1, 300.0));
+        assertThat(Files.list(directory)).containsExactly(path);
+    }
+
+    @Test
+    void open_ShouldRejectDamagedColumns() throws IOException {
+        Path path = directory.resolve("damaged.snap");
+        try (SnapshotWriter writer = SnapshotWriter.create(path, LocalDateTime.now())) {
+            writer.append(1, "SKU-1", "Крепёж", 10, 5, 2.5, 4.0);
+            writer.finish();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), channel.size() - 12);
+        }
+
+        assertThatThrownBy(() -> InventorySnapshot.open(path))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void append_ShouldRequireAscendingIds() throws IOException {
+        try (SnapshotWriter writer = SnapshotWriter.create(directory.resolve("order.snap"), LocalDateTime.now())) {
+            writer.append(5, "SKU-5", "Крепёж", 1, 0, 1.0, 1.0);
+            assertThatThrownBy(() -> writer.append(5, "SKU-5", "Крепёж", 1, 0, 1.0, 1.0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void compare_ShouldSplitValueChangeIntoQuantityAndPriceDrift() throws IOException {
+        Path before = directory.resolve("before.snap");
+        try (SnapshotWriter writer = SnapshotWriter.create(before, LocalDateTime.now().minusDays(1))) {
+            writer.append(1, "KEEP", "Крепёж", 10, 0, 2.0, 3.0);
+            writer.append(2, "GONE", "Крепёж", 4, 0, 5.0, 6.0);
+            writer.append(3, "PRICE", "Освещение", 10, 0, 10.0, 12.0);
+            writer.append(4, "MOVED", "Освещение", 1, 0, 7.0, 8.0);
+            writer.finish();
+        }
+        Path after = directory.resolve("after.snap");
+        try (SnapshotWriter writer = SnapshotWriter.create(after, LocalDateTime.now())) {
+            writer.append(1, "KEEP", "Крепёж", 10, 0, 2.0, 3.0);
+            writer.append(3, "PRICE", "Освещение", 8, 0, 12.5, 15.0);
+            writer.append(4, "MOVED", "Электрика", 1, 0, 7.0, 8.0);
+            writer.append(5, "NEW", "Электрика", 6, 0, 3.0, 4.0);
+            writer.finish();
+        }
+
+        SnapshotComparison comparison = SnapshotComparator.compare(InventorySnapshot.open(before), info("before"),
+                InventorySnapshot.open(after), info("after"), 2);
+
+        assertThat(comparison.getAdded()).isEqualTo(1);
+        assertThat(comparison.getRemoved()).isEqualTo(1);
+        assertThat(comparison.getChanged()).isEqualTo(2);
+        assertThat(comparison.getUnchanged()).isEqualTo(1);
+        assertThat(comparison.getValueBefore()).isEqualTo(20 + 20 + 100 + 7);
+        assertThat(comparison.getValueAfter()).isEqualTo(20 + 100 + 7 + 18);
+        // Переоценка: 8 шт. * (12.5 - 10)
+        assertThat(comparison.getPriceDrift()).isCloseTo(20.0, within(1e-9));
+
+        Map<String, CategorySnapshotDelta> categories = comparison.getCategories().stream()
+                .collect(Collectors.toMap(CategorySnapshotDelta::getCategory, Function.identity()));
+        assertThat(categories.get("Освещение").getProductsBefore()).isEqualTo(2);
+        assertThat(categories.get("Освещение").getProductsAfter()).isEqualTo(1);
+        assertThat(categories.get("Электрика").getValueAfter()).isEqualTo(7 + 18);
+        assertThat(categories.get("Крепёж").getQuantityAfter() - categories.get("Крепёж").getQuantityBefore()).isEqualTo(-4);
+
+        // Самые крупные по сдвигу стоимости: GONE (-20) и NEW (+18); PRICE (0) и MOVED (0) не вошли
+        assertThat(comparison.getProducts()).extracting(ProductSnapshotDelta::getSku).containsExactly("GONE", "NEW");
+        assertThat(comparison.getProducts().get(0).getChange()).isEqualTo(ProductSnapshotDelta.Change.REMOVED);
+        assertThat(comparison.isProductsTruncated()).isTrue();
+    }
+
+    private static SnapshotInfo info(String id) {
+        return new SnapshotInfo(id, LocalDateTime.now(), 0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.inventory.service.snapshot;
+
+import com.inventory.dto.ProductSnapshotDelta;
+import com.inventory.dto.SnapshotComparison;
+import com.inventory.dto.SnapshotInfo;
+import com.inventory.model.Product;
+import com.inventory.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SnapshotServiceTest {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void snapshots_ShouldShowWhatChangedWithoutQueryingTheDatabase() throws Exception {
+        String category = "Snapshot-" + UUID.randomUUID();
+        Product product = productService.createProduct(Product.builder()
+                .name("Audited")
+                .category(category)
+                .quantity(40)
+                .minStockLevel(5)
+                .maxStockLevel(100)
+                .purchasePrice(2.0)
+                .sellingPrice(3.0)
+                .location("Test")
+                .build());
+        SnapshotInfo before = snapshotService.takeSnapshot();
+
+        productService.updateStock(product.getId(), -15, "OUT");
+        SnapshotInfo after = snapshotService.takeSnapshot();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SnapshotComparison comparison = snapshotService.compare(before, after);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(comparison.getChanged()).isGreaterThanOrEqualTo(1);
+        ProductSnapshotDelta delta = comparison.getProducts().stream()
+                .filter(change -> change.getProductId() == product.getId())
+                .findFirst()
+                .orElseThrow();
+        assertThat(delta.getQuantityBefore()).isEqualTo(40);
+        assertThat(delta.getQuantityAfter()).isEqualTo(25);
+        assertThat(comparison.getCategories()).filteredOn(c -> c.getCategory().equals(category))
+                .singleElement()
+                .satisfies(c -> assertThat(c.getValueAfter() - c.getValueBefore()).isEqualTo(-30.0));
+
+        List<SnapshotInfo> snapshots = snapshotService.list();
+        assertThat(snapshots).extracting(SnapshotInfo::getId).endsWith(before.getId(), after.getId());
+        mockMvc.perform(get("/api/snapshots/at").param("date", LocalDate.now().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshot.id").value(after.getId()));
+        mockMvc.perform(get("/api/snapshots/at").param("date", LocalDate.now().minusYears(1).toString()))
+                .andExpect(status().isNotFound());
+    }
+}
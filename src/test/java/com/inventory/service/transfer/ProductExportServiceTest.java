@@ -0,0 +1,137 @@
+package com.inventory.service.transfer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.ImportReport;
+import com.inventory.model.Product;
+import com.inventory.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exportProducts_ShouldStreamCsvThatImportsBack() throws IOException {
+        String category = "Export-" + UUID.randomUUID();
+        productService.createProduct(product("EXP-" + UUID.randomUUID(), "Кабель, \"медный\"", category, 10_000_000.0));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = exportService.exportProducts(TransferFormat.CSV, category, null, output);
+
+        List<List<String>> records = readCsv(output.toString(StandardCharsets.UTF_8));
+        assertThat(rows).isEqualTo(1);
+        assertThat(records.get(0)).startsWith("id", "sku", "name");
+        assertThat(records.get(1).get(2)).isEqualTo("Кабель, \"медный\"");
+        assertThat(records.get(1).get(5)).isEqualTo("10000000");
+
+        // Выгрузка в формате импорта: повторная загрузка только обновляет товар
+        ImportReport report = importService.importProducts(new ByteArrayInputStream(output.toByteArray()), TransferFormat.CSV);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getFailed()).isZero();
+    }
+
+    @Test
+    void exportProducts_ShouldFilterByCategoryAndUpdatedSince() throws IOException {
+        String category = "Delta-" + UUID.randomUUID();
+        StringBuilder csv = new StringBuilder("sku,name,category,purchasePrice,sellingPrice,quantity,minStockLevel,maxStockLevel,location\n");
+        for (int i = 0; i < 2_500; i++) {
+            csv.append(category).append('-').append(i).append(",Товар,").append(category).append(",1,2,5,1,10,A\n");
+        }
+        importService.importProducts(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), TransferFormat.CSV);
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        assertThat(exportService.exportProducts(TransferFormat.NDJSON, category, null, all)).isEqualTo(2_500);
+        String[] lines = all.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2_500);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("category").asText()).isEqualTo(category);
+        assertThat(first.get("updatedAt").isTextual()).isTrue();
+
+        assertThat(exportService.exportProducts(TransferFormat.NDJSON, category,
+                LocalDateTime.now().plusMinutes(1), new ByteArrayOutputStream())).isZero();
+    }
+
+    @Test
+    void exportLedger_ShouldIncludeMovementsOfProduct() throws Exception {
+        Product product = productService.createProduct(product("LED-" + UUID.randomUUID(), "Лампа", "Ledger", 5.0));
+        productService.updateStock(product.getId(), 4, "IN", "Закупка", "petrov");
+        productService.updateStock(product.getId(), 1, "OUT");
+
+        String body = mockMvc.perform(get("/api/products/ledger/export")
+                        .param("format", "csv")
+                        .param("productId", product.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("stock-ledger-")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<List<String>> records = readCsv(body);
+        assertThat(records).hasSize(3);
+        assertThat(records.get(1)).containsSubsequence(product.getSku(), "IN", "4", "14", "Закупка");
+        assertThat(records.get(2)).containsSubsequence("OUT", "-1", "13", "OUT");
+    }
+
+    private static List<List<String>> readCsv(String text) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(text))) {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static Product product(String sku, String name, String category, double price) {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .category(category)
+                .quantity(10)
+                .minStockLevel(1)
+                .maxStockLevel(100)
+                .purchasePrice(price)
+                .sellingPrice(price * 2)
+                .location("E-1")
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.inventory.service.transfer;
+
+import com.inventory.dto.ImportReport;
+import com.inventory.dto.StockMovement;
+import com.inventory.model.Product;
+import com.inventory.model.TransactionType;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.StockLedgerService;
+import com.inventory.service.search.ProductSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+    private static final String HEADER = "sku,name,description,category,purchase_price,selling_price,"
+            + "quantity,min_stock_level,max_stock_level,supplier,location\n";
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private StockLedgerService stockLedger;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void importCsv_ShouldUpsertValidRowsAndReportInvalidOnes() throws IOException {
+        String csv = HEADER
+                + "CSV-1,\"Кабель, 2 м\",\"Медный \"\"экран\"\"\",Электрика,10.5,15,100,10,500,,A-1\n"
+                + "CSV-2,Розетка,,Электрика,abc,5,10,1,50,,A-2\n"
+                + "CSV-3,Выключатель,,Электрика,2,3,-5,1,50,,A-3\n"
+                + "\n"
+                + "CSV-1,Кабель 2 м,,Электрика,11,16,120,10,500,Поставщик,A-1\n";
+
+        ImportReport report = importCsv(csv);
+
+        assertThat(report.getTotalRows()).isEqualTo(4);
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(3L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("purchasePrice").contains("abc");
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("quantity:");
+
+        Product imported = productRepository.findBySku("CSV-1").orElseThrow();
+        assertThat(imported.getName()).isEqualTo("Кабель 2 м");
+        assertThat(imported.getQuantity()).isEqualTo(120);
+        assertThat(imported.getSupplier().getName()).isEqualTo("Поставщик");
+        assertThat(productRepository.findBySku("CSV-2")).isEmpty();
+    }
+
+    @Test
+    void importCsv_ShouldUpdateExistingProductsAcrossChunks() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 2_500; i++) {
+            csv.append("BULK-").append(i).append(",Товар ").append(i)
+                    .append(",,Массовый,1,2,").append(i).append(",0,10000,,B-1\n");
+        }
+        ImportReport first = importCsv(csv.toString());
+        ImportReport second = importCsv(csv.toString().replace(",Массовый,1,2,", ",Массовый,3,4,"));
+
+        assertThat(first.getCreated()).isEqualTo(2_500);
+        assertThat(second.getCreated()).isZero();
+        assertThat(second.getUpdated()).isEqualTo(2_500);
+        assertThat(productRepository.findBySku("BULK-2499").orElseThrow().getPurchasePrice()).isEqualTo(3.0);
+        // Слушатели событий получили новые товары после коммита пакетов
+        assertThat(searchIndex.search("BULK-2499", 0, 10).getTotal()).isPositive();
+        assertThat(meterRegistry.get("inventory.import.rows").tag("format", "csv").tag("outcome", "created")
+                .counter().count()).isGreaterThanOrEqualTo(2_500);
+        assertThat(meterRegistry.get("inventory.import.throughput").summary().count()).isPositive();
+    }
+
+    @Test
+    void importCsv_ShouldRecordQuantityChangesOfExistingProductsInLedger() throws IOException {
+        importCsv(HEADER + "LEDGER-IMP-1,Щуп,,Измерения,1,2,10,0,100,,E-1\n"
+                + "LEDGER-IMP-2,Зонд,,Измерения,1,2,5,0,100,,E-1\n");
+        importCsv(HEADER + "LEDGER-IMP-1,Щуп,,Измерения,1,2,25,0,100,,E-1\n"
+                + "LEDGER-IMP-2,Зонд 2,,Измерения,1,2,5,0,100,,E-1\n");
+
+        Long changed = productRepository.findBySku("LEDGER-IMP-1").orElseThrow().getId();
+        Long unchanged = productRepository.findBySku("LEDGER-IMP-2").orElseThrow().getId();
+        List<StockMovement> history = stockLedger.getHistory(changed, null, 10).getContent();
+        assertThat(history).extracting(StockMovement::getType).containsExactly(TransactionType.ADJUSTMENT);
+        assertThat(history.get(0).getQuantity()).isEqualTo(15);
+        assertThat(history.get(0).getQuantityAfter()).isEqualTo(25);
+        assertThat(history.get(0).getReason()).isEqualTo(ProductImportService.IMPORT_REASON);
+        assertThat(stockLedger.getHistory(unchanged, null, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void importNdjson_ShouldReportMalformedLines() throws IOException {
+        String ndjson = """
+                {"sku":"ND-1","name":"Лампа","category":"Свет","purchasePrice":1.5,"sellingPrice":3,"quantity":7,"minStockLevel":1,"maxStockLevel":20,"location":"C-1"}
+                {"sku":"ND-2","name":
+                {"sku":"ND-3","category":"Свет","purchasePrice":1,"sellingPrice":2,"quantity":1,"minStockLevel":0,"maxStockLevel":5,"location":"C-1"}
+                """;
+
+        ImportReport report = importService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), TransferFormat.NDJSON);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("name:");
+        assertThat(productRepository.findBySku("ND-1").orElseThrow().getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void importCsv_ShouldRejectHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> importCsv("sku,name\nX-1,Товар\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("category");
+    }
+
+    @Test
+    void importEndpoint_ShouldStreamRequestBody() throws Exception {
+        String csv = HEADER + "API-1,Щиток,,Электрика,100,150,3,1,10,,D-1\n";
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content("sku\nX\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ImportReport importCsv(String csv) throws IOException {
+        return importService.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TransferFormat.CSV);
+    }
+}